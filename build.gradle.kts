@@ -1,14 +1,16 @@
 plugins {
     id("java")
     id("org.springframework.boot") version "3.2.0"
+    id("org.springframework.boot.aot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
 version = "0.0.1-SNAPSHOT"
 
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    sourceCompatibility = JavaVersion.VERSION_21
 }
 
 repositories {
@@ -25,6 +27,13 @@ dependencies {
     // Jackson for JSON 처리
     implementation("com.fasterxml.jackson.core:jackson-databind")
     
+    // Caffeine (토큰/응답 캐시)
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    
+    // Actuator + Micrometer (Prometheus 메트릭)
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    
     // Validation
     implementation("org.springframework.boot:spring-boot-starter-validation")
     
@@ -38,8 +47,106 @@ dependencies {
     // Test
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testImplementation("io.projectreactor:reactor-test")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// JMH 벤치마크 (src/jmh): ./gradlew jmh
+// 특정 벤치마크만 실행: ./gradlew jmh -PjmhIncludes=VersionTagsBenchmark
+// 결과: build/results/jmh/results.json (gc 프로파일러로 할당률 포함)
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    benchmarkMode.set(listOf("avgt"))
+    timeUnit.set("us")
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    (project.findProperty("jmhIncludes") as String?)?.let { includes.set(listOf(it)) }
+}
+
+// 로컬 부하 테스트 (src/loadtest): 업스트림 대역 서버 + 부하 생성기
+// 1) ./gradlew standInServer --args='--latency=50ms --error-rate=0.01'
+// 2) ./gradlew bootRun --args='--spring.profiles.active=standin'
+// 3) ./gradlew loadTest --args='--scenario=async-tags --rps=200 --duration=30s'
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().runtimeClasspath
+    runtimeClasspath += sourceSets.main.get().runtimeClasspath
+}
+
+tasks.register<JavaExec>("standInServer") {
+    group = "load test"
+    description = "Runs the local GitHub/GHCR stand-in server"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.example.ghcrdemo.loadtest.StandInServer")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "load test"
+    description = "Drives /api/ghcr/** at a target RPS and reports latency percentiles"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.example.ghcrdemo.loadtest.LoadTest")
+}
+
+tasks.register<JavaExec>("webhookReplay") {
+    group = "load test"
+    description = "Replays recorded GitHub webhook payloads (signed) against the webhook endpoint"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.example.ghcrdemo.loadtest.WebhookReplay")
+}
+
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "load test"
+    description = "Starts the application repeatedly and reports time to first successful response"
+    classpath = loadtest.runtimeClasspath
+    mainClass.set("com.example.ghcrdemo.loadtest.StartupBenchmark")
+}
+
+// 기동 최적화 모드 (Spring AOT + CDS): ./gradlew cdsArchive → build/cds
+// - ghcr-demo.jar: 애플리케이션 + AOT 생성 클래스 (Class-Path: lib/*.jar, CDS는 중첩 jar의 클래스를 보관하지 못함)
+// - application.jsa: 학습 실행(컨텍스트 갱신 후 종료) 중 로드된 클래스의 CDS 아카이브
+// 실행: cd build/cds && java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar ghcr-demo.jar --spring.profiles.active=startup
+// AOT는 @Conditional* 결과(예: spring.threads.virtual.enabled)를 빌드 시점 값으로 고정하므로, 실행 모드마다 따로 빌드한다
+// (가상 스레드: GHCR_VIRTUAL_THREADS=true ./gradlew cdsArchive). 모드가 바뀌면 AOT 소스를 다시 생성하도록 입력으로 둔다.
+val cdsDir = layout.buildDirectory.dir("cds")
+
+tasks.named("processAot") {
+    inputs.property("virtualThreads", providers.environmentVariable("GHCR_VIRTUAL_THREADS").orElse("false"))
+}
+
+val cdsLibs = tasks.register<Sync>("cdsLibs") {
+    group = "startup"
+    description = "Copies runtime dependencies to build/cds/lib"
+    from(configurations.runtimeClasspath)
+    into(cdsDir.map { it.dir("lib") })
+}
+
+val cdsJar = tasks.register<Jar>("cdsJar") {
+    group = "startup"
+    description = "Builds build/cds/ghcr-demo.jar with application and AOT-generated classes"
+    dependsOn(cdsLibs)
+    archiveFileName.set("ghcr-demo.jar")
+    destinationDirectory.set(cdsDir)
+    from(sourceSets.main.get().output, sourceSets["aot"].output)
+    duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+    val classPath = configurations.runtimeClasspath.map { runtime -> runtime.joinToString(" ") { "lib/${it.name}" } }
+    manifest {
+        attributes("Main-Class" to "com.example.ghcrdemo.GhcrDemoApplication")
+    }
+    doFirst {
+        manifest.attributes("Class-Path" to classPath.get())
+    }
+}
+
+tasks.register<Exec>("cdsArchive") {
+    group = "startup"
+    description = "Runs a training start (exit after context refresh) and dumps build/cds/application.jsa"
+    dependsOn(cdsJar)
+    workingDir(cdsDir)
+    executable = "${System.getProperty("java.home")}/bin/java"
+    args("-XX:ArchiveClassesAtExit=application.jsa", "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh",
+        "-jar", "ghcr-demo.jar", "--spring.profiles.active=startup")
+}
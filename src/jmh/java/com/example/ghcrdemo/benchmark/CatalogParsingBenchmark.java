@@ -0,0 +1,88 @@
+package com.example.ghcrdemo.benchmark;
+
+import com.example.ghcrdemo.service.JsonArrayStreamExtractor;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 패키지 목록(catalog) 응답 파싱 벤치마크.
+ * <ul>
+ *     <li>`treeModelFromString`: 기존 `parsePackagesResponse` 방식 (String 디코딩 후 readTree)</li>
+ *     <li>`treeModelFromBytes`: 같은 트리 방식, 바이트에서 바로 readTree</li>
+ *     <li>`streaming`: {@link JsonArrayStreamExtractor}로 필요한 필드만 추출</li>
+ *     <li>`streamingChunked`: 실제 경로처럼 8KB DataBuffer 단위로 나눠 non-blocking 파서에 공급</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class CatalogParsingBenchmark {
+
+    private static final JsonArrayStreamExtractor<String> PACKAGES_EXTRACTOR = new JsonArrayStreamExtractor<>(
+            List.of("name", "owner.login"),
+            element -> element.value(0) != null && element.value(1) != null
+                    ? element.value(1) + "/" + element.value(0)
+                    : null);
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"30", "1000", "10000"})
+    private int size;
+
+    private byte[] json;
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        json = Payloads.packages(size);
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < json.length; offset += CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(json, offset, Math.min(json.length, offset + CHUNK_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public List<String> treeModelFromString() throws IOException {
+        // 기존 경로: 코덱이 본문을 String으로 디코딩한 뒤 트리로 파싱
+        return fromTree(Payloads.OBJECT_MAPPER.readTree(new String(json, StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public List<String> treeModelFromBytes() throws IOException {
+        return fromTree(Payloads.OBJECT_MAPPER.readTree(json));
+    }
+
+    @Benchmark
+    public List<String> streaming() {
+        return PACKAGES_EXTRACTOR.extract(json);
+    }
+
+    @Benchmark
+    public List<String> streamingChunked() {
+        Flux<DataBuffer> body = Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return PACKAGES_EXTRACTOR.extract(body).collectList().block();
+    }
+
+    private static List<String> fromTree(JsonNode root) {
+        List<String> repositories = new ArrayList<>();
+        if (root != null && root.isArray()) {
+            for (JsonNode packageNode : root) {
+                String packageName = packageNode.get("name").asText();
+                String owner = packageNode.get("owner").get("login").asText();
+                repositories.add(owner + "/" + packageName);
+            }
+        }
+        return repositories;
+    }
+}
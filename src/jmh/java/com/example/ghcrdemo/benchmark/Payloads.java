@@ -0,0 +1,102 @@
+package com.example.ghcrdemo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 GitHub Packages API 응답 페이로드.
+ * <p>
+ * `payloads/*.json`에 기록해 둔 실제 응답 항목 하나를 템플릿으로, id/이름/태그만 바꿔 N개짜리 배열을 만든다.
+ * 필드 구성과 크기는 실제 응답과 같으므로 파싱 시 건너뛰는 필드 비용도 그대로 측정된다.
+ */
+final class Payloads {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private Payloads() {
+    }
+
+    /**
+     * `GET /users/{username}/packages?package_type=container` 응답.
+     *
+     * @param size 패키지 수
+     * @return JSON 바이트
+     */
+    static byte[] packages(int size) {
+        ObjectNode template = load("payloads/package.json");
+        ArrayNode array = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode item = template.deepCopy();
+            item.put("id", 1000 + i);
+            item.put("name", "service-" + i);
+            item.put("url", "https://api.github.com/users/monalisa/packages/container/service-" + i);
+            array.add(item);
+        }
+        return write(array);
+    }
+
+    /**
+     * `GET /users/{owner}/packages/container/{name}/versions` 응답.
+     * 버전마다 태그 2개(semver + 빌드 번호), 10개 중 1개는 태그 없음(untagged).
+     *
+     * @param size 버전 수
+     * @return JSON 바이트
+     */
+    static byte[] versions(int size) {
+        ObjectNode template = load("payloads/version.json");
+        ArrayNode array = OBJECT_MAPPER.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode item = template.deepCopy();
+            item.put("id", 45763 + i);
+            item.put("name", "sha256:" + String.format("%064x", i));
+            ArrayNode tags = ((ObjectNode) item.get("metadata").get("container")).putArray("tags");
+            if (i % 10 != 0) {
+                tags.add("1." + (i / 100) + "." + (i % 100));
+                tags.add("build-" + i);
+            }
+            array.add(item);
+        }
+        return write(array);
+    }
+
+    /**
+     * 크기가 N인 레포지토리 이름 또는 태그 목록.
+     *
+     * @param prefix 항목 접두사
+     * @param size   항목 수
+     * @return 목록
+     */
+    static List<String> names(String prefix, int size) {
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+
+    private static ObjectNode load(String resource) {
+        try (InputStream in = Payloads.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark payload: " + resource);
+            }
+            return (ObjectNode) OBJECT_MAPPER.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] write(ArrayNode array) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(array);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ghcrdemo.benchmark;
+
+import com.example.ghcrdemo.dto.GhcrCatalogResponse;
+import com.example.ghcrdemo.dto.GhcrTagsResponse;
+import com.example.ghcrdemo.service.CompactStringList;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * 응답 DTO(`GhcrCatalogResponse`, `GhcrTagsResponse`) JSON 직렬화 벤치마크.
+ * Spring MVC 메시지 컨버터와 같은 설정의 ObjectMapper(`Jackson2ObjectMapperBuilder`)를 사용한다.
+ * `compactTags`는 캐시에 보관된 {@link CompactStringList}를 그대로 담아 직렬화 중에 디코딩하는 비용을 포함한다.
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"30", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter tagsWriter;
+    private GhcrCatalogResponse catalog;
+    private GhcrTagsResponse tags;
+    private GhcrTagsResponse compactTags;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tagsWriter = objectMapper.writerFor(GhcrTagsResponse.class);
+
+        catalog = new GhcrCatalogResponse();
+        catalog.setRepositories(Payloads.names("monalisa/service-", size));
+
+        tags = new GhcrTagsResponse();
+        tags.setName("monalisa/hello_docker");
+        tags.setTags(Payloads.names("1.0.", size));
+
+        compactTags = new GhcrTagsResponse();
+        compactTags.setName(tags.getName());
+        compactTags.setTags(CompactStringList.copyOf(tags.getTags()));
+    }
+
+    @Benchmark
+    public byte[] catalog() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] tags() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tags);
+    }
+
+    @Benchmark
+    public byte[] compactTags() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(compactTags);
+    }
+
+    @Benchmark
+    public byte[] tagsPreparedWriter() throws JsonProcessingException {
+        return tagsWriter.writeValueAsBytes(tags);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.ghcrdemo.benchmark;
+
+import com.example.ghcrdemo.service.GitHubPackagesService;
+import com.example.ghcrdemo.service.JsonArrayStreamExtractor;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 버전 목록에서 태그를 추출하는 루프(`getTags`) 벤치마크.
+ * <p>
+ * 로거는 서비스와 같은 이름을 쓰며 DEBUG는 꺼져 있다 (`logback.xml`).
+ * 따라서 `treeModelUnguardedDebug`와 `treeModelGuardedDebug`의 차이가
+ * 태그마다 `log.debug` 인자(`version.has("id")`, `version.get("id").asText()`)를 평가하는 비용이다.
+ * <ul>
+ *     <li>`treeModelUnguardedDebug`: 기존 구현 (트리 파싱 + 태그마다 인자 평가)</li>
+ *     <li>`treeModelGuardedDebug`: 트리 파싱 + `isDebugEnabled()` 가드</li>
+ *     <li>`streaming`: 현재 구현 ({@link JsonArrayStreamExtractor} + 가드된 로그)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class VersionTagsBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubPackagesService.class);
+
+    private static final JsonArrayStreamExtractor<VersionTags> VERSIONS_EXTRACTOR = new JsonArrayStreamExtractor<>(
+            List.of("id", "metadata.container.tags"),
+            element -> new VersionTags(element.value(0), element.values(1)));
+
+    private static final String OWNER = "monalisa";
+    private static final String PACKAGE_NAME = "hello_docker";
+
+    @Param({"30", "1000", "10000"})
+    private int size;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = Payloads.versions(size);
+    }
+
+    @Benchmark
+    public List<String> treeModelUnguardedDebug() throws IOException {
+        JsonNode jsonNode = Payloads.OBJECT_MAPPER.readTree(json);
+        List<String> tags = new ArrayList<>();
+        if (jsonNode.isArray()) {
+            for (JsonNode version : jsonNode) {
+                JsonNode metadata = version.get("metadata");
+                if (metadata != null && metadata.has("container")) {
+                    JsonNode containerNode = metadata.get("container");
+                    if (containerNode != null) {
+                        JsonNode tagsNode = containerNode.get("tags");
+                        if (tagsNode != null && tagsNode.isArray()) {
+                            for (JsonNode t : tagsNode) {
+                                String tag = t.asText();
+                                tags.add(tag);
+                                log.debug("Found tag='{}' for {}/{} (version={})",
+                                        tag, OWNER, PACKAGE_NAME,
+                                        version.has("id") ? version.get("id").asText() : "unknown");
+                            }
+                        } else {
+                            log.debug("No tags array in container metadata for {}/{} (version={})",
+                                    OWNER, PACKAGE_NAME,
+                                    version.has("id") ? version.get("id").asText() : "unknown");
+                        }
+                    }
+                }
+            }
+        }
+        return tags;
+    }
+
+    @Benchmark
+    public List<String> treeModelGuardedDebug() throws IOException {
+        JsonNode jsonNode = Payloads.OBJECT_MAPPER.readTree(json);
+        boolean debug = log.isDebugEnabled();
+        List<String> tags = new ArrayList<>();
+        if (jsonNode.isArray()) {
+            for (JsonNode version : jsonNode) {
+                JsonNode tagsNode = version.path("metadata").path("container").path("tags");
+                if (tagsNode.isArray()) {
+                    for (JsonNode t : tagsNode) {
+                        String tag = t.asText();
+                        tags.add(tag);
+                        if (debug) {
+                            log.debug("Found tag='{}' for {}/{} (version={})",
+                                    tag, OWNER, PACKAGE_NAME, version.path("id").asText("unknown"));
+                        }
+                    }
+                }
+            }
+        }
+        return tags;
+    }
+
+    @Benchmark
+    public List<String> streaming() {
+        List<String> tags = new ArrayList<>();
+        for (VersionTags version : VERSIONS_EXTRACTOR.extract(json)) {
+            if (log.isDebugEnabled()) {
+                String versionId = version.id() != null ? version.id() : "unknown";
+                for (String tag : version.tags()) {
+                    log.debug("Found tag='{}' for {}/{} (version={})", tag, OWNER, PACKAGE_NAME, versionId);
+                }
+            }
+            tags.addAll(version.tags());
+        }
+        return tags;
+    }
+
+    private record VersionTags(String id, List<String> tags) {
+    }
+}
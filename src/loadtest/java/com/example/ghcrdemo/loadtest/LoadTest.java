@@ -0,0 +1,230 @@
+package com.example.ghcrdemo.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * `/api/ghcr/**` 부하 테스트 도구 (open-loop).
+ * <p>
+ * 목표 RPS에 맞춰 정해진 시각마다 요청을 보내고, 응답을 기다리지 않는다.
+ * 지연 시간은 요청을 보내기로 예정된 시각부터 측정하므로 서버가 밀려도 대기 시간이 결과에 반영된다.
+ * 종료 후 처리량, 상태 코드 분포, 지연 백분위수, 대역 서버의 업스트림 호출 수(`/__stats` 차이)를 출력한다.
+ * <p>
+ * 옵션 (`--key=value`):
+ * <ul>
+ *     <li>`target` (http://localhost:19090), `upstream` (http://localhost:18080, 빈 값이면 호출 수 생략)</li>
+ *     <li>`scenario` (async-tags): catalog, async-catalog, tags, async-tags, batch, inventory,
+ *     manifest (`latest` digest 확인), manifest-platforms (플랫폼별 이미지 정보 포함)</li>
+ *     <li>`rps` (100), `duration` (30s), `warmup` (0s: 이 기간의 결과는 집계하지 않음)</li>
+ *     <li>`credentials` (1): 요청에 섞어 쓸 인증 정보 수, `repositories` (20): 조회할 레포지토리 수 (`service-N`)</li>
+ *     <li>`batch-size` (10), `owner` (loadtest), `timeout` (30s), `max-in-flight` (10000)</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final String target;
+    private final String upstream;
+    private final String scenario;
+    private final int rps;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int credentials;
+    private final int repositories;
+    private final int batchSize;
+    private final String owner;
+    private final Duration timeout;
+    private final int maxInFlight;
+
+    private final HttpClient client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    LoadTest(Options options) {
+        this.target = options.string("target", "http://localhost:19090");
+        this.upstream = options.string("upstream", "http://localhost:18080");
+        this.scenario = options.string("scenario", "async-tags");
+        this.rps = options.integer("rps", 100);
+        this.duration = options.duration("duration", Duration.ofSeconds(30));
+        this.warmup = options.duration("warmup", Duration.ZERO);
+        this.credentials = options.integer("credentials", 1);
+        this.repositories = options.integer("repositories", 20);
+        this.batchSize = options.integer("batch-size", 10);
+        this.owner = options.string("owner", "loadtest");
+        this.timeout = options.duration("timeout", Duration.ofSeconds(30));
+        this.maxInFlight = options.integer("max-in-flight", 10_000);
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest(Options.parse(args)).run();
+    }
+
+    void run() throws InterruptedException {
+        long warmupRequests = rps * warmup.toMillis() / 1000;
+        long totalRequests = warmupRequests + rps * duration.toMillis() / 1000;
+        latencies = new long[(int) (totalRequests - warmupRequests)];
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+
+        System.out.printf("scenario=%s target=%s rps=%d duration=%s warmup=%s credentials=%d repositories=%d%n",
+                scenario, target, rps, duration, warmup, credentials, repositories);
+
+        Map<String, Map<String, Long>> upstreamBefore = null;
+        CountDownLatch done = new CountDownLatch((int) totalRequests);
+        long start = System.nanoTime();
+        long measuredStart = start + warmupRequests * intervalNanos;
+        for (long i = 0; i < totalRequests; i++) {
+            if (i == warmupRequests) {
+                upstreamBefore = upstreamStats();
+            }
+            long scheduled = start + i * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = i >= warmupRequests;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped.increment();
+                }
+                done.countDown();
+                continue;
+            }
+            client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (measured) {
+                            record(scheduled, response != null ? String.valueOf(response.statusCode())
+                                    : error.getClass().getSimpleName());
+                        }
+                        done.countDown();
+                    });
+        }
+        if (!done.await(timeout.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            System.out.printf("%d requests still in flight after timeout%n", done.getCount());
+        }
+        double elapsedSeconds = (System.nanoTime() - measuredStart) / 1e9;
+        report(elapsedSeconds, upstreamBefore, upstreamStats());
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String auth = "{\"username\":\"" + owner + "\",\"token\":\"pat-" + random.nextInt(credentials) + "\"}";
+        String repository = "service-" + random.nextInt(repositories);
+        String path;
+        String body = auth;
+        switch (scenario) {
+            case "catalog" -> path = "/api/ghcr/repositories";
+            case "async-catalog" -> path = "/api/ghcr/async/repositories";
+            case "tags" -> path = "/api/ghcr/repositories/" + repository + "/tags";
+            case "async-tags" -> path = "/api/ghcr/async/repositories/" + repository + "/tags";
+            case "batch" -> {
+                path = "/api/ghcr/async/tags/batch";
+                List<String> names = new ArrayList<>();
+                for (int i = 0; i < batchSize; i++) {
+                    names.add("\"service-" + random.nextInt(repositories) + "\"");
+                }
+                body = "{\"auth\":" + auth + ",\"repositories\":[" + String.join(",", names) + "]}";
+            }
+            case "inventory" -> path = "/api/ghcr/async/inventory";
+            case "manifest" -> path = "/api/ghcr/async/repositories/" + repository + "/manifests/latest";
+            case "manifest-platforms" -> path = "/api/ghcr/async/repositories/" + repository + "/manifests/latest?platforms=true";
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+        return HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void record(long scheduled, String status) {
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        int index = recorded.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = System.nanoTime() - scheduled;
+        }
+    }
+
+    private void report(double elapsedSeconds, Map<String, Map<String, Long>> upstreamBefore,
+                        Map<String, Map<String, Long>> upstreamAfter) {
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        System.out.printf("requests: completed=%d dropped=%d throughput=%.1f rps%n",
+                count, dropped.sum(), count / elapsedSeconds);
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, adder) -> statusCounts.put(status, adder.sum()));
+        System.out.println("status: " + statusCounts);
+        if (count > 0) {
+            System.out.printf("latency ms: p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 99.9), sorted[count - 1] / 1e6);
+        }
+        if (upstreamBefore != null && upstreamAfter != null) {
+            System.out.println("upstream calls:");
+            upstreamAfter.forEach((endpoint, after) -> {
+                Map<String, Long> before = upstreamBefore.getOrDefault(endpoint, Map.of());
+                Map<String, Long> delta = new TreeMap<>();
+                after.forEach((status, value) -> delta.put(status, value - before.getOrDefault(status, 0L)));
+                long total = delta.values().stream().mapToLong(Long::longValue).sum();
+                System.out.printf("  %-10s total=%d %s (%.2f per request)%n", endpoint, total, delta,
+                        count > 0 ? (double) total / count : 0);
+            });
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    private Map<String, Map<String, Long>> upstreamStats() {
+        if (upstream.isBlank()) {
+            return null;
+        }
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(upstream + "/__stats")).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return OBJECT_MAPPER.readValue(response.body(), new TypeReference<Map<String, Map<String, Long>>>() {
+            });
+        } catch (IOException e) {
+            System.out.println("upstream stats unavailable: " + e.getMessage());
+            return new HashMap<>();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
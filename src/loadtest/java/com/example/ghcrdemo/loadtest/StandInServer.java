@@ -0,0 +1,511 @@
+package com.example.ghcrdemo.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * GitHub Packages API / GHCR 로컬 대역 서버 (Reactor Netty).
+ * <p>
+ * 서비스가 호출하는 업스트림 엔드포인트를 흉내 낸다.
+ * <ul>
+ *     <li>`GET /users/{user}/packages`: 패키지 `service-0` … `service-{packages-1}`, `per_page`/`page` + `Link` 헤더</li>
+ *     <li>`GET /users/{owner}/packages/container/{name}/versions`: 버전마다 태그 2개, 10개 중 1개는 태그 없음</li>
+ *     <li>`GET /token`: Basic 인증이 있으면 Bearer 토큰 발급 (`expires_in` 300초)</li>
+ *     <li>`GET /v2/{owner}/{name}/tags/list`: 사전순 태그, `n`/`last` + `Link: rel="next"`</li>
+ *     <li>`HEAD`/`GET /v2/{owner}/{name}/manifests/{reference}`: 버전마다 OCI 이미지 인덱스(linux/amd64, linux/arm64/v8),
+ *     `Docker-Content-Digest` 헤더. digest 참조는 이미 응답한 매니페스트만 찾는다</li>
+ * </ul>
+ * 모든 목록 응답에 `ETag`를 붙이고 `If-None-Match`가 같으면 304를 반환한다 (호출 예산 차감 없음).
+ * GitHub API/레지스트리 응답에는 인증 헤더별 `X-RateLimit-*` 헤더를 붙이고, 예산을 다 쓰면 403(남은 호출 0)을 반환한다.
+ * <p>
+ * 옵션 (`--key=value`):
+ * <ul>
+ *     <li>`port` (18080), `packages` (50), `versions` (100)</li>
+ *     <li>`latency` (20ms), `jitter` (10ms), `slow-rate` (0), `slow-latency` (1s): 응답 지연과 꼬리 지연 비율</li>
+ *     <li>`error-rate` (0): 502 응답 비율, `throttle-rate` (0): 보조 Rate Limit(403/429 + `Retry-After: 1`) 비율</li>
+ *     <li>`rate-limit` (5000), `rate-limit-window` (1h): 인증 헤더별 호출 예산</li>
+ * </ul>
+ * 관리용 엔드포인트:
+ * `GET /__stats` (엔드포인트/상태별 호출 수), `POST /__reset` (통계와 예산 초기화),
+ * `POST /__bump[?package=name]` (새 버전을 추가해 ETag/태그를 바꿈).
+ */
+public final class StandInServer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final byte[] EMPTY = new byte[0];
+    private static final int MAX_PER_PAGE = 100;
+
+    private final int packages;
+    private final int versions;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double slowRate;
+    private final Duration slowLatency;
+    private final double errorRate;
+    private final double throttleRate;
+    private final int rateLimit;
+    private final Duration rateLimitWindow;
+
+    /**
+     * "엔드포인트 상태코드" → 호출 수.
+     */
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+
+    /**
+     * 패키지 이름 → 추가된 버전 수 (`/__bump`).
+     */
+    private final Map<String, AtomicInteger> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 인증 헤더 → 호출 예산.
+     */
+    private final Map<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+
+    /**
+     * 생성한 응답 본문 캐시 (요청 경로 + 쿼리 기준, `/__bump` 시 비움).
+     */
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+
+    /**
+     * digest → 생성한 매니페스트 (이미지 인덱스와 하위 이미지 매니페스트).
+     */
+    private final Map<String, Page> manifests = new ConcurrentHashMap<>();
+
+    StandInServer(Options options) {
+        this.packages = options.integer("packages", 50);
+        this.versions = options.integer("versions", 100);
+        this.latency = options.duration("latency", Duration.ofMillis(20));
+        this.jitter = options.duration("jitter", Duration.ofMillis(10));
+        this.slowRate = options.decimal("slow-rate", 0);
+        this.slowLatency = options.duration("slow-latency", Duration.ofSeconds(1));
+        this.errorRate = options.decimal("error-rate", 0);
+        this.throttleRate = options.decimal("throttle-rate", 0);
+        this.rateLimit = options.integer("rate-limit", 5000);
+        this.rateLimitWindow = options.duration("rate-limit-window", Duration.ofHours(1));
+    }
+
+    public static void main(String[] args) {
+        Options options = Options.parse(args);
+        int port = options.integer("port", 18080);
+        DisposableServer server = new StandInServer(options).start(port);
+        System.out.printf("Stand-in GitHub/GHCR server listening on http://localhost:%d%n", server.port());
+        server.onDispose().block();
+    }
+
+    DisposableServer start(int port) {
+        return HttpServer.create()
+                .port(port)
+                .route(routes -> routes
+                        .get("/users/{user}/packages", (request, response) ->
+                                handle(request, response, "packages", Upstream.GITHUB, this::packagesPage))
+                        .get("/users/{owner}/packages/container/{name}/versions", (request, response) ->
+                                handle(request, response, "versions", Upstream.GITHUB, this::versionsPage))
+                        .get("/token", this::token)
+                        .get("/v2/{owner}/{name}/tags/list", (request, response) ->
+                                handle(request, response, "tags-list", Upstream.REGISTRY, this::tagsPage))
+                        .head("/v2/{owner}/{name}/manifests/{reference}", (request, response) ->
+                                handle(request, response, "manifest-head", Upstream.REGISTRY, this::manifestPage))
+                        .get("/v2/{owner}/{name}/manifests/{reference}", (request, response) ->
+                                handle(request, response, "manifest", Upstream.REGISTRY, this::manifestPage))
+                        .get("/__stats", (request, response) -> sendJson(response, stats()))
+                        .post("/__reset", (request, response) -> {
+                            calls.clear();
+                            rateWindows.clear();
+                            return response.status(204).send();
+                        })
+                        .post("/__bump", this::bump))
+                .bindNow();
+    }
+
+    /**
+     * 지연/오류 주입, ETag 재검증, 호출 예산을 적용해 목록 응답을 보낸다.
+     */
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response, String endpoint,
+                                   Upstream upstream, Function<HttpServerRequest, Page> content) {
+        return Mono.delay(nextLatency()).then(Mono.defer(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < errorRate) {
+                return send(response, endpoint, 502, EMPTY, Map.of());
+            }
+            if (random.nextDouble() < throttleRate) {
+                return send(response, endpoint, upstream == Upstream.GITHUB ? 403 : 429,
+                        json(Map.of("message", "You have exceeded a secondary rate limit")),
+                        Map.of("Retry-After", "1"));
+            }
+            Page page = pages.computeIfAbsent(request.uri(), uri -> content.apply(request));
+            if (page == null) {
+                return send(response, endpoint, 404, json(Map.of("message", "Not Found")), Map.of());
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("ETag", page.etag());
+            if (page.etag().equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                // GitHub와 같이 304는 호출 예산을 소모하지 않는다
+                return send(response, endpoint, 304, EMPTY, headers);
+            }
+            RateWindow window = rateWindow(request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION));
+            int remaining = window.consume();
+            headers.put("X-RateLimit-Limit", String.valueOf(rateLimit));
+            headers.put("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
+            headers.put("X-RateLimit-Reset", String.valueOf(window.resetAt().getEpochSecond()));
+            if (remaining < 0) {
+                return send(response, endpoint, 403, json(Map.of("message", "API rate limit exceeded")), headers);
+            }
+            if (page.link() != null) {
+                headers.put("Link", page.link().replace("{base}", "http://" + request.requestHeaders().get("Host")));
+            }
+            if (page.mediaType() != null) {
+                headers.put("Docker-Content-Digest", page.digest());
+                headers.put(HttpHeaderNames.CONTENT_TYPE.toString(), page.mediaType());
+            }
+            if (request.method() == HttpMethod.HEAD) {
+                headers.put(HttpHeaderNames.CONTENT_LENGTH.toString(), String.valueOf(page.body().length));
+                return send(response, endpoint, 200, EMPTY, headers);
+            }
+            return send(response, endpoint, 200, page.body(), headers);
+        }));
+    }
+
+    private Page packagesPage(HttpServerRequest request) {
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        String user = request.param("user");
+        int perPage = perPage(query);
+        int page = intParam(query, "page", 1);
+        List<Object> items = new ArrayList<>();
+        for (int i = (page - 1) * perPage; i < Math.min(packages, page * perPage); i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", 1000 + i);
+            item.put("name", "service-" + i);
+            item.put("package_type", "container");
+            item.put("owner", Map.of("login", user, "id", 9919, "type", "User", "site_admin", false));
+            item.put("version_count", versions + generation("service-" + i));
+            item.put("visibility", "private");
+            item.put("url", "https://api.github.com/users/" + user + "/packages/container/service-" + i);
+            item.put("created_at", "2020-05-19T22:19:11Z");
+            item.put("updated_at", "2020-05-19T22:19:11Z");
+            item.put("html_url", "https://github.com/users/" + user + "/packages/container/package/service-" + i);
+            items.add(item);
+        }
+        return Page.of(json(items), gitHubLink(request.fullPath(), perPage, page, pageCount(packages, perPage),
+                "&package_type=container"));
+    }
+
+    private Page versionsPage(HttpServerRequest request) {
+        String name = request.param("name");
+        if (!exists(name)) {
+            return null;
+        }
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int perPage = perPage(query);
+        int page = intParam(query, "page", 1);
+        int total = versions + generation(name);
+        List<Object> items = new ArrayList<>();
+        // 최신 버전이 먼저
+        for (int j = (page - 1) * perPage; j < Math.min(total, page * perPage); j++) {
+            int version = total - 1 - j;
+            List<String> tags = new ArrayList<>(tagsOf(version));
+            if (j == 0) {
+                tags.add("latest");
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", 45763 + version);
+            item.put("name", "sha256:" + String.format("%064x", version));
+            item.put("url", "https://api.github.com/users/" + request.param("owner") + "/packages/container/"
+                    + name + "/versions/" + (45763 + version));
+            item.put("created_at", "2020-09-11T21:56:40Z");
+            item.put("updated_at", "2021-02-05T21:32:32Z");
+            item.put("metadata", Map.of("package_type", "container", "container", Map.of("tags", tags)));
+            items.add(item);
+        }
+        return Page.of(json(items), gitHubLink(request.fullPath(), perPage, page, pageCount(total, perPage), ""));
+    }
+
+    private Page tagsPage(HttpServerRequest request) {
+        String name = request.param("name");
+        if (!exists(name)) {
+            return null;
+        }
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        int n = intParam(query, "n", 100);
+        List<String> last = query.parameters().get("last");
+        List<String> all = new ArrayList<>();
+        int total = versions + generation(name);
+        for (int version = 0; version < total; version++) {
+            all.addAll(tagsOf(version));
+        }
+        all.add("latest");
+        Collections.sort(all);
+        int start = 0;
+        if (last != null && !last.isEmpty()) {
+            int index = Collections.binarySearch(all, last.get(0));
+            start = index >= 0 ? index + 1 : -index - 1;
+        }
+        List<String> tags = all.subList(start, Math.min(all.size(), start + n));
+        String link = start + n < all.size()
+                ? "<" + request.fullPath() + "?last=" + tags.get(tags.size() - 1) + "&n=" + n + ">; rel=\"next\""
+                : null;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("name", request.param("owner") + "/" + name);
+        body.put("tags", tags);
+        return Page.of(json(body), link);
+    }
+
+    private Page manifestPage(HttpServerRequest request) {
+        String name = request.param("name");
+        if (!exists(name)) {
+            return null;
+        }
+        String reference = request.param("reference");
+        if (reference.startsWith("sha256:")) {
+            return manifests.get(reference);
+        }
+        int total = versions + generation(name);
+        if (reference.equals("latest")) {
+            return index(request.param("owner") + "/" + name, total - 1);
+        }
+        for (int version = 0; version < total; version++) {
+            if (tagsOf(version).contains(reference)) {
+                return index(request.param("owner") + "/" + name, version);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 버전의 이미지 인덱스를 만들고, 인덱스와 하위 이미지 매니페스트를 digest로 찾을 수 있게 등록한다.
+     */
+    private Page index(String repository, int version) {
+        List<Object> children = new ArrayList<>();
+        for (String[] platform : List.of(new String[]{"amd64", null}, new String[]{"arm64", "v8"})) {
+            String seed = repository + ":" + version + ":" + platform[0];
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("schemaVersion", 2);
+            manifest.put("mediaType", "application/vnd.oci.image.manifest.v1+json");
+            manifest.put("config", blob("application/vnd.oci.image.config.v1+json", seed + ":config", 1469));
+            manifest.put("layers", List.of(
+                    blob("application/vnd.oci.image.layer.v1.tar+gzip", seed + ":base", 3_400_000 + version),
+                    blob("application/vnd.oci.image.layer.v1.tar+gzip", seed + ":app", 12_000_000 + 1000L * version)));
+            Page image = register(json(manifest), "application/vnd.oci.image.manifest.v1+json");
+            Map<String, Object> child = new LinkedHashMap<>();
+            child.put("mediaType", image.mediaType());
+            child.put("digest", image.digest());
+            child.put("size", image.body().length);
+            Map<String, Object> os = new LinkedHashMap<>();
+            os.put("architecture", platform[0]);
+            os.put("os", "linux");
+            if (platform[1] != null) {
+                os.put("variant", platform[1]);
+            }
+            child.put("platform", os);
+            children.add(child);
+        }
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("schemaVersion", 2);
+        index.put("mediaType", "application/vnd.oci.image.index.v1+json");
+        index.put("manifests", children);
+        return register(json(index), "application/vnd.oci.image.index.v1+json");
+    }
+
+    private Page register(byte[] body, String mediaType) {
+        Page page = Page.manifest(body, mediaType);
+        manifests.putIfAbsent(page.digest(), page);
+        return page;
+    }
+
+    private static Map<String, Object> blob(String mediaType, String seed, long size) {
+        Map<String, Object> blob = new LinkedHashMap<>();
+        blob.put("mediaType", mediaType);
+        blob.put("digest", "sha256:" + sha256(seed.getBytes(StandardCharsets.UTF_8)));
+        blob.put("size", size);
+        return blob;
+    }
+
+    private Publisher<Void> token(HttpServerRequest request, HttpServerResponse response) {
+        return Mono.delay(nextLatency()).then(Mono.defer(() -> {
+            String authorization = request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+            if (authorization == null || !authorization.startsWith("Basic ")) {
+                return send(response, "token", 401, json(Map.of("errors", List.of(Map.of("code", "UNAUTHORIZED")))),
+                        Map.of());
+            }
+            String scope = String.valueOf(new QueryStringDecoder(request.uri()).parameters().get("scope"));
+            String token = "standin-" + sha256((authorization + scope).getBytes(StandardCharsets.UTF_8)).substring(0, 32);
+            return send(response, "token", 200, json(Map.of("token", token, "expires_in", 300)), Map.of());
+        }));
+    }
+
+    private Publisher<Void> bump(HttpServerRequest request, HttpServerResponse response) {
+        List<String> names = new QueryStringDecoder(request.uri()).parameters().get("package");
+        if (names == null) {
+            for (int i = 0; i < packages; i++) {
+                generations.computeIfAbsent("service-" + i, key -> new AtomicInteger()).incrementAndGet();
+            }
+        } else {
+            names.forEach(name -> generations.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet());
+        }
+        pages.clear();
+        return response.status(204).send();
+    }
+
+    private Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new TreeMap<>();
+        calls.forEach((key, count) -> {
+            String[] parts = key.split(" ");
+            stats.computeIfAbsent(parts[0], endpoint -> new TreeMap<>()).put(parts[1], count.sum());
+        });
+        return stats;
+    }
+
+    private Mono<Void> send(HttpServerResponse response, String endpoint, int status, byte[] body,
+                            Map<String, String> headers) {
+        calls.computeIfAbsent(endpoint + " " + status, key -> new LongAdder()).increment();
+        response.status(status);
+        headers.forEach(response::header);
+        if (body.length == 0) {
+            return response.send().then();
+        }
+        if (!response.responseHeaders().contains(HttpHeaderNames.CONTENT_TYPE)) {
+            response.header(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        }
+        return response.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+                .sendByteArray(Mono.just(body))
+                .then();
+    }
+
+    private Publisher<Void> sendJson(HttpServerResponse response, Object body) {
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendByteArray(Mono.just(json(body)));
+    }
+
+    private Duration nextLatency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < slowRate) {
+            return slowLatency;
+        }
+        long jitterMillis = jitter.toMillis() > 0 ? random.nextLong(jitter.toMillis() + 1) : 0;
+        return latency.plusMillis(jitterMillis);
+    }
+
+    private RateWindow rateWindow(String authorization) {
+        return rateWindows.compute(authorization != null ? authorization : "anonymous",
+                (key, window) -> window == null || window.resetAt().isBefore(Instant.now())
+                        ? new RateWindow(Instant.now().plus(rateLimitWindow), new AtomicInteger(rateLimit))
+                        : window);
+    }
+
+    private boolean exists(String name) {
+        if (!name.startsWith("service-")) {
+            return false;
+        }
+        try {
+            int index = Integer.parseInt(name.substring("service-".length()));
+            return index >= 0 && index < packages;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private int generation(String name) {
+        AtomicInteger generation = generations.get(name);
+        return generation != null ? generation.get() : 0;
+    }
+
+    private static List<String> tagsOf(int version) {
+        if (version % 10 == 0) {
+            return List.of();
+        }
+        return List.of("1." + (version / 100) + "." + (version % 100), "build-" + version);
+    }
+
+    private static String gitHubLink(String path, int perPage, int page, int lastPage, String extraQuery) {
+        if (page >= lastPage) {
+            return null;
+        }
+        String base = "{base}" + path + "?per_page=" + perPage + extraQuery + "&page=";
+        return "<" + base + (page + 1) + ">; rel=\"next\", <" + base + lastPage + ">; rel=\"last\"";
+    }
+
+    private static int pageCount(int total, int perPage) {
+        return Math.max(1, (total + perPage - 1) / perPage);
+    }
+
+    private static int perPage(QueryStringDecoder query) {
+        return Math.min(MAX_PER_PAGE, intParam(query, "per_page", 30));
+    }
+
+    private static int intParam(QueryStringDecoder query, String name, int defaultValue) {
+        List<String> values = query.parameters().get(name);
+        return values != null && !values.isEmpty() ? Integer.parseInt(values.get(0)) : defaultValue;
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private enum Upstream {
+        GITHUB, REGISTRY
+    }
+
+    /**
+     * 응답 본문, `Link` 헤더(`{base}`는 요청 Host로 치환)와 `ETag`.
+     * 매니페스트는 미디어 타입과 digest(`sha256:<본문 SHA-256>`)를 함께 가진다.
+     */
+    private record Page(byte[] body, String link, String etag, String mediaType, String digest) {
+
+        static Page of(byte[] body, String link) {
+            return new Page(body, link, "W/\"" + sha256(body).substring(0, 40) + "\"", null, null);
+        }
+
+        static Page manifest(byte[] body, String mediaType) {
+            String digest = "sha256:" + sha256(body);
+            return new Page(body, null, "\"" + digest + "\"", mediaType, digest);
+        }
+    }
+
+    /**
+     * 인증 헤더별 호출 예산.
+     */
+    private record RateWindow(Instant resetAt, AtomicInteger remaining) {
+
+        int consume() {
+            return remaining.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.ghcrdemo.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 애플리케이션 기동 시간 측정 도구.
+ * <p>
+ * 애플리케이션을 새 프로세스로 여러 번 실행하고, 프로세스 시작부터 첫 성공 응답(2xx)까지의 시간을 측정한다.
+ * 같은 실행에서 Spring Boot가 출력한 기동 시간(`Started ... in N seconds`)도 함께 보고한다.
+ * 기본 프로브는 대역 서버를 거치는 비동기 태그 조회이므로 업스트림 클라이언트 초기화까지 포함된다.
+ * <p>
+ * 옵션 (`--key=value`):
+ * <ul>
+ *     <li>`command` (java -jar build/libs/ghcr-demo-0.0.1-SNAPSHOT.jar): 실행 명령 (공백으로 구분)</li>
+ *     <li>`directory` (.): 실행 디렉터리, `profiles` (standin): `spring.profiles.active`</li>
+ *     <li>`probe` (tags): tags (`POST /api/ghcr/async/repositories/service-0/tags`), readiness (`/actuator/health/readiness`)</li>
+ *     <li>`runs` (5), `port` (19091), `timeout` (60s), `poll-interval` (5ms), `owner` (loadtest)</li>
+ * </ul>
+ */
+public final class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private final List<String> command;
+    private final Path directory;
+    private final String profiles;
+    private final String probe;
+    private final int runs;
+    private final int port;
+    private final Duration timeout;
+    private final Duration pollInterval;
+    private final String owner;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    StartupBenchmark(Options options) {
+        this.command = Arrays.asList(options.string("command", "java -jar build/libs/ghcr-demo-0.0.1-SNAPSHOT.jar")
+                .trim().split("\\s+"));
+        this.directory = Path.of(options.string("directory", "."));
+        this.profiles = options.string("profiles", "standin");
+        this.probe = options.string("probe", "tags");
+        this.runs = options.integer("runs", 5);
+        this.port = options.integer("port", 19091);
+        this.timeout = options.duration("timeout", Duration.ofSeconds(60));
+        this.pollInterval = options.duration("poll-interval", Duration.ofMillis(5));
+        this.owner = options.string("owner", "loadtest");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark(Options.parse(args)).run();
+    }
+
+    void run() throws IOException, InterruptedException {
+        System.out.printf("command=%s directory=%s profiles=%s probe=%s runs=%d%n",
+                String.join(" ", command), directory, profiles, probe, runs);
+        List<Long> firstResponses = new ArrayList<>();
+        List<Double> reported = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            Result result = startOnce();
+            if (result.firstResponseNanos() < 0) {
+                System.out.printf("run %d: no successful response within %s%n", run, timeout);
+                continue;
+            }
+            firstResponses.add(result.firstResponseNanos());
+            if (result.startedSeconds() != null) {
+                reported.add(result.startedSeconds());
+            }
+            System.out.printf("run %d: first successful response %.0f ms (Spring Boot started in %s s)%n", run,
+                    result.firstResponseNanos() / 1e6, result.startedSeconds() != null ? result.startedSeconds() : "?");
+        }
+        if (firstResponses.isEmpty()) {
+            return;
+        }
+        long[] sorted = firstResponses.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("time to first successful response ms: min=%.0f median=%.0f max=%.0f%n",
+                sorted[0] / 1e6, sorted[sorted.length / 2] / 1e6, sorted[sorted.length - 1] / 1e6);
+        if (!reported.isEmpty()) {
+            double[] started = reported.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            System.out.printf("spring boot reported startup s: min=%.3f median=%.3f max=%.3f%n",
+                    started[0], started[started.length / 2], started[started.length - 1]);
+        }
+    }
+
+    /**
+     * 애플리케이션을 한 번 실행해 첫 성공 응답까지의 시간을 재고 종료한다.
+     */
+    private Result startOnce() throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.profiles.active=" + profiles);
+        ProcessBuilder builder = new ProcessBuilder(arguments)
+                .directory(directory.toFile())
+                .redirectErrorStream(true);
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Thread.startVirtualThread(() -> readOutput(process, started));
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (succeeded()) {
+                    long elapsed = System.nanoTime() - start;
+                    return new Result(elapsed, started.completeOnTimeout(null, 2, TimeUnit.SECONDS).join());
+                }
+                Thread.sleep(pollInterval.toMillis());
+            }
+            return new Result(-1, null);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean succeeded() throws InterruptedException {
+        HttpRequest request = switch (probe) {
+            case "tags" -> HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/api/ghcr/async/repositories/service-0/tags"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + owner + "\",\"token\":\"pat-startup\"}"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            case "readiness" -> HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/actuator/health/readiness"))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown probe: " + probe);
+        };
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            // 아직 포트가 열리지 않음
+            return false;
+        }
+    }
+
+    /**
+     * 프로세스 출력을 끝까지 읽으며(파이프가 차서 멈추지 않도록) Spring Boot의 기동 시간 로그를 찾는다.
+     */
+    private static void readOutput(Process process, CompletableFuture<Double> started) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find()) {
+                    started.complete(Double.parseDouble(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            // 프로세스 종료
+        } finally {
+            started.complete(null);
+        }
+    }
+
+    /**
+     * @param firstResponseNanos 프로세스 시작부터 첫 성공 응답까지 (실패 시 -1)
+     * @param startedSeconds     Spring Boot가 보고한 기동 시간 (로그를 찾지 못했으면 null)
+     */
+    private record Result(long firstResponseNanos, Double startedSeconds) {
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ghcrdemo.loadtest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * 기록해 둔 GitHub 웹훅 payload를 서명해 웹훅 엔드포인트로 다시 보내는 도구 (오프라인 재현용).
+ * <p>
+ * 파일 이름은 `<X-GitHub-Event>.<설명>.json` 형식이며 (예: `registry_package.published.json`),
+ * 본문은 바이트 그대로 보내고 `X-Hub-Signature-256`은 `secret`으로 새로 계산한다.
+ * GitHub 웹훅 설정의 "Recent Deliveries"에서 payload를 복사해 같은 형식으로 저장하면 된다.
+ * <p>
+ * 옵션 (`--key=value`):
+ * <ul>
+ *     <li>`target` (http://localhost:19090/api/ghcr/webhooks/github)</li>
+ *     <li>`secret` (필수, 애플리케이션의 `webhook.secret`과 같은 값)</li>
+ *     <li>`path` (src/loadtest/resources/webhooks): payload 파일 또는 디렉터리</li>
+ * </ul>
+ */
+public final class WebhookReplay {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Options options = Options.parse(args);
+        String target = options.string("target", "http://localhost:19090/api/ghcr/webhooks/github");
+        String secret = options.string("secret", null);
+        Path path = Path.of(options.string("path", "src/loadtest/resources/webhooks"));
+        if (secret == null) {
+            throw new IllegalArgumentException("--secret is required");
+        }
+
+        List<Path> payloads;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                payloads = files.filter(file -> file.toString().endsWith(".json")).sorted().toList();
+            }
+        } else {
+            payloads = List.of(path);
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        for (Path payload : payloads) {
+            String fileName = payload.getFileName().toString();
+            String event = fileName.substring(0, fileName.indexOf('.'));
+            byte[] body = Files.readAllBytes(payload);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .header("User-Agent", "GitHub-Hookshot/replay")
+                    .header("X-GitHub-Event", event)
+                    .header("X-GitHub-Delivery", UUID.randomUUID().toString())
+                    .header("X-Hub-Signature-256", "sha256=" + HexFormat.of().formatHex(sign(secret, body)))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            System.out.printf("%-40s %d %s%n", fileName, response.statusCode(), response.body());
+        }
+    }
+
+    private static byte[] sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ghcrdemo.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * 비동기 요청 구성 클래스.
+ * Mono/Flux를 반환하는 엔드포인트(배치, 인벤토리 스트리밍 등)의 응답 제한 시간을
+ * 서블릿 컨테이너 기본값(Tomcat 30초) 대신 `async.request-timeout`으로 설정한다.
+ * 최대 크기 배치(`batch.max-repositories`, `manifest.max-references`)가 끝나기 전에 끊기지 않도록 그보다 짧게는 설정되지 않는다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private final GhcrProperties ghcrProperties;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeout().toMillis());
+    }
+
+    /**
+     * 비동기 요청 제한 시간.
+     *
+     * @return `async.request-timeout`과 최대 배치 처리 시간 중 큰 값 (0 이하이면 -1, 제한 없음)
+     */
+    Duration requestTimeout() {
+        Duration timeout = ghcrProperties.getAsync().getRequestTimeout();
+        if (timeout.isNegative() || timeout.isZero()) {
+            return Duration.ofMillis(-1);
+        }
+        GhcrProperties.Batch batch = ghcrProperties.getBatch();
+        int maxKeys = Math.max(batch.getMaxRepositories(), ghcrProperties.getManifest().getMaxReferences());
+        Duration batchTimeout = batch.maxDuration(maxKeys);
+        return timeout.compareTo(batchTimeout) >= 0 ? timeout : batchTimeout;
+    }
+}
@@ -3,11 +3,21 @@ package com.example.ghcrdemo.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * GHCR(GitHub Container Registry) 관련 설정을 바인딩하는 프로퍼티 클래스.
  * 프로퍼티 접두사: `github.container-registry`
- * 간단한 설정값만 포함 (url, timeout).
+ * 업스트림 URL(url, github-api-url, token-url), timeout과 업스트림 커넥션 풀 등의 설정을 포함한다.
  */
 @Data
 @Component
@@ -20,8 +30,656 @@ public class GhcrProperties {
     private String url;
 
     /**
-     * HTTP 요청 타임아웃(밀리초).
+     * GitHub REST API 기본 URL.
+     * 기본값: https://api.github.com (로컬 대역 서버 사용 시 변경)
+     */
+    private String githubApiUrl = "https://api.github.com";
+
+    /**
+     * GHCR 토큰 엔드포인트 URL.
+     * 기본값: https://ghcr.io/token
+     */
+    private String tokenUrl = "https://ghcr.io/token";
+
+    /**
+     * GitHub API 업스트림 식별자 (`github-api-url`의 호스트 이름).
+     * Rate Limit 예산, 공정 대기열, 서킷 브레이커의 키이자 메트릭의 `host` 태그 값이다.
+     *
+     * @return 호스트 이름 (예: api.github.com)
+     */
+    public String githubApiHost() {
+        return hostOf(githubApiUrl);
+    }
+
+    /**
+     * 레지스트리 업스트림 식별자 (`url`의 호스트 이름).
+     *
+     * @return 호스트 이름 (예: ghcr.io)
+     */
+    public String registryHost() {
+        return hostOf(url);
+    }
+
+    /**
+     * 토큰 엔드포인트 업스트림 식별자 (`token-url`의 호스트 이름). 레지스트리와 같으면 서킷 브레이커를 공유한다.
+     *
+     * @return 호스트 이름 (예: ghcr.io)
+     */
+    public String tokenHost() {
+        return hostOf(tokenUrl);
+    }
+
+    /**
+     * 중복을 제거한 업스트림 식별자 목록 (호스트별 메트릭 등록용).
+     *
+     * @return GitHub API, 레지스트리, 토큰 엔드포인트 순
+     */
+    public List<String> upstreamHosts() {
+        return Stream.of(githubApiHost(), registryHost(), tokenHost()).distinct().toList();
+    }
+
+    private static String hostOf(String url) {
+        String host = url != null ? URI.create(url).getHost() : null;
+        return host != null ? host : String.valueOf(url);
+    }
+
+    /**
+     * HTTP 연결/응답 타임아웃(밀리초). 호출 종류별 제한 시간(`resilience.call-timeouts`)의 최종 안전 장치.
      * 기본값: 30000 (30초)
      */
     private int timeout = 30000;
+
+    /**
+     * 업스트림 호스트별 커넥션 풀 설정.
+     * api.github.com, ghcr.io/v2, ghcr.io/token 각각에 동일한 설정으로 별도 풀이 생성된다.
+     */
+    private Pool pool = new Pool();
+
+    /**
+     * GHCR Bearer 토큰 캐시 설정.
+     */
+    private TokenCache tokenCache = new TokenCache();
+
+    /**
+     * 목록 조회 페이지네이션 설정.
+     */
+    private Pagination pagination = new Pagination();
+
+    /**
+     * 카탈로그/태그 응답 캐시 설정.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * 배치 태그 조회 설정.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 동기 엔드포인트 실행 설정.
+     */
+    private Execution execution = new Execution();
+
+    /**
+     * 비동기(Mono/Flux) 엔드포인트 응답 제한 시간 설정.
+     */
+    private Async async = new Async();
+
+    /**
+     * 업스트림 Rate Limit 대응 설정.
+     */
+    private RateLimit rateLimit = new RateLimit();
+
+    /**
+     * 응답 캐시 디스크 스냅샷 설정.
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 태그 백그라운드 동기화(변경 조회) 설정.
+     */
+    private Sync sync = new Sync();
+
+    /**
+     * GitHub 웹훅 수신 설정.
+     */
+    private Webhook webhook = new Webhook();
+
+    /**
+     * 업스트림 지연/장애 대응(호출별 제한 시간, hedged 요청, 서킷 브레이커) 설정.
+     */
+    private Resilience resilience = new Resilience();
+
+    /**
+     * 이미지 매니페스트 조회(digest 확인) 설정.
+     */
+    private Manifest manifest = new Manifest();
+
+    /**
+     * 기동 설정 (업스트림 클라이언트 미리 초기화).
+     */
+    private Startup startup = new Startup();
+
+    /**
+     * 테넌트(인증 정보)별 업스트림 호출 수용 제어 설정.
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * Reactor Netty `ConnectionProvider` 설정.
+     */
+    @Data
+    public static class Pool {
+        /**
+         * 호스트당 최대 커넥션 수.
+         */
+        private int maxConnections = 100;
+
+        /**
+         * 커넥션 획득 대기 큐의 최대 길이 (-1이면 무제한).
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * 커넥션 획득 대기 최대 시간.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 유휴 커넥션이 제거되기까지의 시간.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * 커넥션의 최대 수명. 이 시간이 지나면 반납 시 폐기된다.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * 백그라운드 유휴/수명 만료 커넥션 정리 주기.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * TCP keep-alive 사용 여부.
+         */
+        private boolean keepAlive = true;
+
+        /**
+         * HTTP/2 사용 여부. 업스트림이 ALPN으로 h2를 지원하지 않으면 HTTP/1.1로 협상된다.
+         */
+        private boolean http2 = true;
+    }
+
+    /**
+     * GHCR Bearer 토큰 캐시 설정.
+     */
+    @Data
+    public static class TokenCache {
+        /**
+         * 캐시할 최대 토큰 수. 초과 시 오래 사용되지 않은 항목부터 제거된다.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * 응답에 `expires_in`이나 JWT `exp`가 없을 때 사용할 토큰 유효 시간.
+         */
+        private Duration defaultTtl = Duration.ofMinutes(5);
+
+        /**
+         * 만료 시각보다 이만큼 먼저 토큰을 다시 발급받는다.
+         */
+        private Duration refreshSkew = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 목록 조회 페이지네이션 설정.
+     */
+    @Data
+    public static class Pagination {
+        /**
+         * GitHub REST API 페이지 크기 (`per_page`, 최대 100).
+         */
+        private int perPage = 100;
+
+        /**
+         * 마지막 페이지를 알 때 나머지 페이지를 병렬로 조회할 최대 동시 요청 수.
+         */
+        private int concurrency = 4;
+
+        /**
+         * 레지스트리 `tags/list` 페이지 크기 (`n`).
+         */
+        private int registryPageSize = 1000;
+
+        /**
+         * 한 번의 목록 조회에서 따라갈 최대 페이지 수 (안전 장치). 넘는 페이지는 경고 로그를 남기고 생략한다.
+         */
+        private int maxPages = 1000;
+    }
+
+    /**
+     * 카탈로그/태그 응답 캐시 설정.
+     */
+    @Data
+    public static class Cache {
+        /**
+         * 응답 캐시 사용 여부.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 캐시할 최대 목록 수.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * 카탈로그(패키지 목록) 신선도 유지 시간. 이후에는 ETag로 재검증한다.
+         */
+        private Duration catalogTtl = Duration.ofMinutes(1);
+
+        /**
+         * 태그 목록 신선도 유지 시간. 이후에는 ETag로 재검증한다.
+         */
+        private Duration tagsTtl = Duration.ofSeconds(30);
+
+        /**
+         * 재검증을 위해 만료된 항목을 보관하는 최대 시간.
+         */
+        private Duration maxStale = Duration.ofHours(1);
+    }
+
+    /**
+     * 배치 태그 조회 설정.
+     */
+    @Data
+    public static class Batch {
+        /**
+         * 한 번의 배치 요청에 허용되는 최대 레포지토리 수.
+         */
+        private int maxRepositories = 500;
+
+        /**
+         * 레포지토리 태그 조회 최대 동시 요청 수.
+         */
+        private int concurrency = 16;
+
+        /**
+         * 레포지토리 하나의 태그 조회 제한 시간. 초과 시 해당 레포지토리만 504로 처리된다.
+         */
+        private Duration repositoryTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 키 `keys`개의 배치가 걸릴 수 있는 최대 시간.
+         * 동시 조회 수만큼씩 차례로 모든 키가 제한 시간을 채운다고 보고, 응답 직렬화 여유로 한 차례를 더한다.
+         *
+         * @param keys 배치 키 수
+         * @return (⌈keys / concurrency⌉ + 1) × repository-timeout
+         */
+        public Duration maxDuration(int keys) {
+            int rounds = (keys + concurrency - 1) / concurrency;
+            return repositoryTimeout.multipliedBy(rounds + 1L);
+        }
+    }
+
+    /**
+     * 동기 엔드포인트 실행 설정.
+     * 실행 모드(플랫폼/가상 스레드)는 `spring.threads.virtual.enabled`로 선택한다.
+     */
+    @Data
+    public static class Execution {
+        /**
+         * 동기 엔드포인트에서 동시에 진행할 수 있는 최대 업스트림 호출 수.
+         */
+        private int maxConcurrentUpstreamCalls = 200;
+
+        /**
+         * 호출 한도를 얻기 위한 최대 대기 시간. 초과 시 503으로 응답한다.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 한 인증 정보가 동시에 점유할 수 있는 실행 한도 수. 넘으면 기다리지 않고 429로 거절한다.
+         */
+        private int maxConcurrentUpstreamCallsPerTenant = 50;
+    }
+
+    /**
+     * 비동기 엔드포인트 설정.
+     * Mono/Flux를 반환하는 엔드포인트는 서블릿 비동기 요청으로 처리되므로 응답이 끝날 때까지 이 시간이 적용된다
+     * (Tomcat 기본값 30초).
+     */
+    @Data
+    public static class Async {
+        /**
+         * 비동기 요청 하나의 최대 처리 시간. 인벤토리 스트리밍은 전체 목록 전송이 끝날 때까지이므로
+         * 레포지토리 수 / `batch.concurrency` × `batch.repository-timeout`보다 크게 잡는다. 0 이하이면 제한 없음.
+         */
+        private Duration requestTimeout = Duration.ofMinutes(10);
+    }
+
+    /**
+     * 업스트림 Rate Limit 대응 설정.
+     * 인증 정보 + 업스트림 호스트별로 동시 실행 한도(AIMD)와 남은 호출 예산을 추적한다.
+     */
+    @Data
+    public static class RateLimit {
+        /**
+         * Rate Limit 스케줄링 사용 여부.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 인증 정보별 초기 동시 요청 수.
+         */
+        private int initialConcurrency = 8;
+
+        /**
+         * 동시 요청 수 하한 (Rate Limit 시 이 값까지 줄어든다).
+         */
+        private int minConcurrency = 1;
+
+        /**
+         * 동시 요청 수 상한 (성공이 이어지면 이 값까지 늘어난다).
+         */
+        private int maxConcurrency = 32;
+
+        /**
+         * 인증 정보별 최대 대기 요청 수. 초과 시 즉시 429로 응답한다.
+         */
+        private int maxQueueSize = 200;
+
+        /**
+         * 남은 호출 수가 이 값 이하이면 리셋 시각까지 새 요청을 대기시킨다.
+         */
+        private int reserve = 20;
+
+        /**
+         * 예산 부족/Rate Limit 시 요청을 대기시킬 최대 시간. 더 길면 즉시 429로 응답한다.
+         */
+        private Duration maxQueueWait = Duration.ofSeconds(10);
+
+        /**
+         * 429/보조 Rate Limit 응답의 최대 재시도 횟수.
+         */
+        private int maxRetries = 2;
+
+        /**
+         * 재시도할 최대 대기 시간. 안내된 대기 시간이 더 길면 재시도하지 않는다.
+         */
+        private Duration maxRetryDelay = Duration.ofSeconds(30);
+
+        /**
+         * `Retry-After`/`X-RateLimit-Reset`이 없을 때의 대기 시간.
+         */
+        private Duration defaultRetryDelay = Duration.ofMinutes(1);
+
+        /**
+         * 재시도 대기 시간에 더할 무작위 비율 (0.2 = 최대 20%).
+         */
+        private double jitter = 0.2;
+
+        /**
+         * 추적할 최대 인증 정보 수.
+         */
+        private long maxTrackedCredentials = 10_000;
+    }
+
+    /**
+     * 응답 캐시 디스크 스냅샷 설정 (재시작 후 빠른 복원).
+     */
+    @Data
+    public static class Snapshot {
+        /**
+         * 스냅샷 사용 여부.
+         */
+        private boolean enabled = false;
+
+        /**
+         * 스냅샷 파일 경로.
+         */
+        private String path = "data/ghcr-snapshot.log";
+
+        /**
+         * 변경된 항목을 파일에 기록하는 주기.
+         */
+        private Duration flushInterval = Duration.ofSeconds(30);
+
+        /**
+         * 파일 내 기록 수가 유효 항목 수의 이 배수를 넘으면 압축한다.
+         */
+        private double compactionRatio = 3.0;
+    }
+
+    /**
+     * 태그 백그라운드 동기화 설정.
+     */
+    @Data
+    public static class Sync {
+        /**
+         * 등록된 레포지토리를 다시 조회하는 주기.
+         */
+        private Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * 이 시간 동안 변경 조회가 없으면 등록을 해제한다.
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * 최대 등록 수 (인증 정보 + 레포지토리).
+         */
+        private long maxSubscriptions = 10_000;
+
+        /**
+         * 한 라운드의 동시 조회 수.
+         */
+        private int concurrency = 8;
+
+        /**
+         * 레포지토리별로 보관할 최근 변경 수. 이보다 오래된 watermark는 전체 목록으로 응답한다.
+         */
+        private int maxChanges = 10_000;
+    }
+
+    /**
+     * GitHub 웹훅 수신 설정.
+     */
+    @Data
+    public static class Webhook {
+        /**
+         * 웹훅 비밀 값 (GitHub 웹훅 설정의 Secret과 동일). 비어 있으면 모든 웹훅을 거부한다.
+         */
+        private String secret;
+    }
+
+    /**
+     * 업스트림 지연/장애 대응 설정.
+     * 호출 종류(call): token, catalog, versions, tags-list, manifest-head, manifest
+     */
+    @Data
+    public static class Resilience {
+        /**
+         * 사용 여부. 끄면 전역 `timeout`만 적용된다.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 호출 종류별 제한 시간 (응답 헤더 수신까지, hedged 요청 포함).
+         */
+        private Map<String, Duration> callTimeouts = new HashMap<>(Map.of(
+                "token", Duration.ofSeconds(5),
+                "catalog", Duration.ofSeconds(10),
+                "versions", Duration.ofSeconds(10),
+                "tags-list", Duration.ofSeconds(10),
+                "manifest-head", Duration.ofSeconds(5),
+                "manifest", Duration.ofSeconds(10)));
+
+        /**
+         * `call-timeouts`에 없는 호출의 제한 시간.
+         */
+        private Duration defaultCallTimeout = Duration.ofSeconds(10);
+
+        /**
+         * hedged 요청을 보낼 호출 종류 (멱등 GET/HEAD만 해당).
+         */
+        private Set<String> hedgedCalls = new HashSet<>(Set.of("catalog", "versions", "tags-list",
+                "manifest-head", "manifest"));
+
+        /**
+         * 첫 요청이 최근 지연 시간의 이 백분위수를 넘으면 같은 요청을 한 번 더 보낸다.
+         */
+        private double hedgePercentile = 0.95;
+
+        /**
+         * hedged 요청을 보내기 전 최소 대기 시간.
+         */
+        private Duration hedgeMinDelay = Duration.ofMillis(50);
+
+        /**
+         * 백분위수를 계산하기 위한 최소 표본 수. 표본이 적으면 hedged 요청을 보내지 않는다.
+         */
+        private int hedgeMinSamples = 20;
+
+        /**
+         * 호출 종류별로 기억할 최근 지연 시간 표본 수.
+         */
+        private int latencySamples = 256;
+
+        /**
+         * 호스트별 hedged 요청 예산 (전체 호출 대비 비율, 0.1 = 최대 10%).
+         */
+        private double hedgeBudget = 0.1;
+
+        /**
+         * 서킷 브레이커가 실패율을 계산하는 최근 호출 수.
+         */
+        private int breakerWindow = 50;
+
+        /**
+         * 실패율을 판단하기 위한 최소 호출 수.
+         */
+        private int breakerMinimumCalls = 20;
+
+        /**
+         * 이 실패율(연결 오류, 제한 시간 초과, 5xx) 이상이면 서킷을 연다.
+         */
+        private double breakerFailureRate = 0.5;
+
+        /**
+         * 서킷이 열린 뒤 시험 호출을 허용하기까지의 시간. 열린 동안은 즉시 503 (캐시가 있으면 stale 응답).
+         */
+        private Duration breakerOpenDuration = Duration.ofSeconds(30);
+
+        /**
+         * 반열림 상태에서 허용할 시험 호출 수. 모두 성공하면 서킷을 닫는다.
+         */
+        private int breakerHalfOpenCalls = 3;
+    }
+
+    /**
+     * 이미지 매니페스트 조회 설정.
+     * 태그 → digest 결과는 응답 캐시와 같은 TTL(`cache.tags-ttl`)로, 매니페스트 본문은 digest 기준으로 디스크에 보관한다.
+     */
+    @Data
+    public static class Manifest {
+        /**
+         * 매니페스트 본문 저장소 사용 여부. 끄면 플랫폼 정보를 요청할 때마다 본문을 다시 받는다.
+         */
+        private boolean storeEnabled = true;
+
+        /**
+         * 매니페스트 본문 저장 디렉터리 (파일 이름 = digest).
+         */
+        private String storePath = "data/manifests";
+
+        /**
+         * 저장소 최대 크기. 초과 시 자주 쓰이지 않는 매니페스트부터 삭제한다.
+         */
+        private DataSize storeMaxSize = DataSize.ofMegabytes(256);
+
+        /**
+         * 인증 정보별로 digest 참조(`repo@sha256:…`)의 접근 확인 결과를 재사용하는 시간.
+         * 이 시간 동안 같은 digest 조회는 업스트림을 호출하지 않는다.
+         */
+        private Duration digestTtl = Duration.ofHours(1);
+
+        /**
+         * 한 번의 배치 요청에 허용되는 최대 참조 수.
+         */
+        private int maxReferences = 500;
+    }
+
+    /**
+     * 기동 설정.
+     * 업스트림 클라이언트와 커넥션 풀은 처음 사용할 때 만들어지므로, 준비(readiness) 전에 백그라운드에서 미리 초기화한다.
+     */
+    @Data
+    public static class Startup {
+        /**
+         * 기동 중 업스트림 클라이언트(Netty 이벤트 루프, DNS 리졸버, 커넥션 풀)를 미리 초기화할지 여부.
+         */
+        private boolean warmup = true;
+
+        /**
+         * 미리 초기화할 때 호스트마다 커넥션(TLS 포함)을 하나씩 열어 둘지 여부 (기본 꺼짐).
+         * 기본 URL에 인증 없는 `HEAD` 요청을 한 번 보내므로(응답 상태 무시) 업스트림 로그와
+         * 익명 Rate Limit에 기록된다. 업스트림 운영 측과 합의된 경우에만 켠다.
+         */
+        private boolean warmupConnections = false;
+
+        /**
+         * 준비 상태로 전환하기 전에 미리 초기화 완료를 기다리는 최대 시간. 넘으면 기다리지 않고 계속 진행한다.
+         */
+        private Duration warmupTimeout = Duration.ofSeconds(2);
+    }
+
+    /**
+     * 테넌트(인증 정보 해시)별 업스트림 호출 수용 제어 설정.
+     * 호스트별 동시 호출 슬롯을 테넌트 가중치에 따라 공정하게 나누고, 테넌트마다 진행/대기 수를 제한한다.
+     */
+    @Data
+    public static class Admission {
+        /**
+         * 수용 제어 사용 여부.
+         */
+        private boolean enabled = true;
+
+        /**
+         * 업스트림 호스트별 동시 호출 수 (모든 테넌트 합).
+         * 커넥션 풀 크기(`pool.max-connections`) 이하로 두면 풀의 선착순 대기열 대신 공정 대기열에서 기다린다.
+         */
+        private int maxConcurrency = 64;
+
+        /**
+         * 테넌트 하나가 호스트별로 동시에 진행할 수 있는 호출 수.
+         */
+        private int maxInFlightPerTenant = 16;
+
+        /**
+         * 테넌트 하나가 대기시킬 수 있는 호출 수 (Rate Limit 대기 포함). 가득 차면 즉시 429로 거절한다.
+         */
+        private int maxQueuedPerTenant = 200;
+
+        /**
+         * 대기열이 가득 차 거절할 때 안내하는 `Retry-After`.
+         */
+        private Duration rejectRetryAfter = Duration.ofSeconds(1);
+
+        /**
+         * username → 가중치 (기본 1). 가중치가 2인 테넌트는 경합 시 슬롯을 두 배로 받는다.
+         */
+        private Map<String, Integer> weights = new HashMap<>();
+
+        /**
+         * 메트릭(`tenant` 태그)을 유지할 최대 테넌트 수. 넘으면 쉬는 테넌트를 오래된 순으로 제거한다
+         * (대기/진행 중인 호출이 있는 테넌트는 제거하지 않으므로 일시적으로 넘을 수 있다).
+         */
+        private long maxTrackedTenants = 1000;
+
+        /**
+         * 이 시간 동안 호출이 없는(대기/진행 중인 호출도 없는) 테넌트는 메트릭에서 제거한다.
+         */
+        private Duration tenantIdleTimeout = Duration.ofMinutes(10);
+    }
 }
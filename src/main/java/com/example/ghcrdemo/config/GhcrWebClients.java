@@ -0,0 +1,152 @@
+package com.example.ghcrdemo.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 업스트림 호스트별로 공유되는 WebClient 묶음.
+ * 각 클라이언트는 전용 커넥션 풀을 사용하며 인증 헤더는 포함하지 않는다.
+ * 인증 정보는 요청마다 헤더로 지정해야 한다.
+ * <p>
+ * 클라이언트와 커넥션 풀은 처음 사용할 때 만든다 (기동 시간 단축).
+ * {@link #warmup(boolean)}로 준비(readiness) 전에 백그라운드에서 미리 만들 수 있다.
+ */
+@Slf4j
+public class GhcrWebClients implements DisposableBean {
+
+    private final LazyClient githubApi;
+    private final LazyClient registry;
+    private final LazyClient token;
+
+    /**
+     * @param githubApi GitHub REST API(api.github.com) 클라이언트 생성 함수
+     * @param registry  GHCR 레지스트리(ghcr.io/v2) 클라이언트 생성 함수
+     * @param token     GHCR 토큰 엔드포인트(ghcr.io/token) 클라이언트 생성 함수
+     */
+    public GhcrWebClients(Supplier<Client> githubApi, Supplier<Client> registry, Supplier<Client> token) {
+        this.githubApi = new LazyClient(githubApi);
+        this.registry = new LazyClient(registry);
+        this.token = new LazyClient(token);
+    }
+
+    /**
+     * GitHub REST API(api.github.com) 클라이언트.
+     *
+     * @return WebClient
+     */
+    public WebClient getGithubApiClient() {
+        return githubApi.get().webClient();
+    }
+
+    /**
+     * GHCR 레지스트리(ghcr.io/v2) 클라이언트.
+     *
+     * @return WebClient
+     */
+    public WebClient getRegistryClient() {
+        return registry.get().webClient();
+    }
+
+    /**
+     * GHCR 토큰 엔드포인트(ghcr.io/token) 클라이언트.
+     *
+     * @return WebClient
+     */
+    public WebClient getTokenClient() {
+        return token.get().webClient();
+    }
+
+    /**
+     * 모든 클라이언트를 만들고 Netty 이벤트 루프, DNS 리졸버, 네이티브 전송 계층을 미리 초기화한다.
+     * 기본적으로 업스트림에 요청을 보내지 않는다.
+     * `connect`(`startup.warmup-connections`, 기본 꺼짐)면 호스트마다 기본 URL에 인증 없는 `HEAD` 요청을 보내
+     * 커넥션(TLS 포함)을 하나씩 풀에 넣어 둔다.
+     * 이 요청은 필터(Rate Limit, 서킷 브레이커, 메트릭)를 거치지 않으며 응답 상태는 무시한다.
+     *
+     * @param connect 커넥션을 미리 열지 여부
+     * @return Mono\<Void\> 모든 호스트의 준비 완료 (실패한 호스트는 로그만 남김)
+     */
+    public Mono<Void> warmup(boolean connect) {
+        return Flux.fromIterable(List.of(githubApi, registry, token))
+                .flatMap(lazy -> Mono.fromSupplier(lazy::get)
+                        .flatMap(client -> {
+                            Mono<Void> warmup = client.httpClient().warmup();
+                            if (!connect) {
+                                return warmup;
+                            }
+                            return warmup.then(client.httpClient().head()
+                                    .uri(client.baseUrl())
+                                    .responseSingle((response, body) -> body.asByteArray()
+                                            .then(Mono.just(response.status().code())))
+                                    .doOnNext(status -> log.debug("Warm-up connection to {} opened (HTTP {})",
+                                            client.name(), status))
+                                    .then());
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Warm-up failed for an upstream client: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    /**
+     * 애플리케이션 종료 시 만들어진 커넥션 풀을 정리한다.
+     */
+    @Override
+    public void destroy() {
+        for (LazyClient lazy : List.of(githubApi, registry, token)) {
+            Client client = lazy.client;
+            if (client != null) {
+                client.provider().dispose();
+            }
+        }
+    }
+
+    /**
+     * 업스트림 호스트 하나의 클라이언트 구성 요소.
+     *
+     * @param name       호스트 이름 (풀 이름, 로그 식별용)
+     * @param baseUrl    기본 URL
+     * @param provider   전용 커넥션 풀 (종료 시 해제용)
+     * @param httpClient 풀을 사용하는 Reactor Netty 클라이언트 (미리 초기화용)
+     * @param webClient  httpClient를 사용하는 WebClient
+     */
+    public record Client(String name, String baseUrl, ConnectionProvider provider, HttpClient httpClient,
+                         WebClient webClient) {
+    }
+
+    /**
+     * 처음 사용할 때 한 번만 만드는 클라이언트.
+     */
+    private static final class LazyClient {
+
+        private final Supplier<Client> factory;
+        private volatile Client client;
+
+        LazyClient(Supplier<Client> factory) {
+            this.factory = factory;
+        }
+
+        Client get() {
+            Client current = client;
+            if (current == null) {
+                synchronized (this) {
+                    current = client;
+                    if (current == null) {
+                        current = factory.get();
+                        client = current;
+                    }
+                }
+            }
+            return current;
+        }
+    }
+}
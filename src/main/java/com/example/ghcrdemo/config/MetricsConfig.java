@@ -0,0 +1,289 @@
+package com.example.ghcrdemo.config;
+
+import com.example.ghcrdemo.service.GhcrTokenService;
+import com.example.ghcrdemo.service.GitHubWebhookService;
+import com.example.ghcrdemo.service.ListingSnapshotStore;
+import com.example.ghcrdemo.service.ManifestService;
+import com.example.ghcrdemo.service.ManifestStore;
+import com.example.ghcrdemo.service.ResponseCache;
+import com.example.ghcrdemo.service.TagIndexCache;
+import com.example.ghcrdemo.service.TagSyncEngine;
+import com.example.ghcrdemo.service.TenantScheduler;
+import com.example.ghcrdemo.service.UpstreamCallLimiter;
+import com.example.ghcrdemo.service.UpstreamResilience;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 애플리케이션 메트릭 구성 클래스.
+ * 캐시와 실행 한도의 내부 통계를 Micrometer 미터로 노출한다 (`/actuator/prometheus`).
+ * <p>
+ * 캐시 hit 비율은 `ghcr.cache.requests`의 `result="hit"` 비율로 구한다.
+ * 업스트림 호출 타이머는 {@link com.example.ghcrdemo.service.UpstreamMetrics},
+ * 커넥션 풀 메트릭은 Reactor Netty(`reactor.netty.connection.provider.*`)가 등록한다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 응답 캐시(카탈로그/태그) 메트릭.
+     *
+     * @param responseCache 응답 캐시
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder responseCacheMetrics(ResponseCache responseCache) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.cache.requests", responseCache, cache -> cache.stats().hitCount())
+                    .tags("cache", "response", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", responseCache, cache -> cache.stats().missCount())
+                    .tags("cache", "response", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", responseCache, cache -> cache.stats().staleServedCount())
+                    .tags("cache", "response", "result", "stale")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.revalidations", responseCache, cache -> cache.stats().revalidatedCount())
+                    .description("Expired entries confirmed unchanged by conditional requests")
+                    .tags("cache", "response", "result", "not-modified")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.revalidations", responseCache, cache -> cache.stats().reloadCount())
+                    .tags("cache", "response", "result", "reloaded")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.coalesced", responseCache, cache -> cache.stats().coalescedCount())
+                    .description("Requests that joined an in-flight upstream load")
+                    .tags("cache", "response")
+                    .register(registry);
+            Gauge.builder("ghcr.cache.in.flight", responseCache, cache -> cache.stats().inFlightCount())
+                    .tags("cache", "response")
+                    .register(registry);
+            Gauge.builder("ghcr.cache.size", responseCache, cache -> cache.stats().size())
+                    .tags("cache", "response")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 태그 조회 색인 메트릭.
+     *
+     * @param tagIndexCache 태그 색인 보관소
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder tagIndexMetrics(TagIndexCache tagIndexCache) {
+        return registry -> FunctionCounter.builder("ghcr.tag.index.builds", tagIndexCache, TagIndexCache::buildCount)
+                .description("Tag indexes built (once per cached tag-set version)")
+                .register(registry);
+    }
+
+    /**
+     * 응답 캐시 디스크 스냅샷 메트릭.
+     *
+     * @param snapshotStore 스냅샷 저장소
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder snapshotMetrics(ListingSnapshotStore snapshotStore) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.snapshot.restored", snapshotStore, store -> store.stats().restoredCount())
+                    .description("Cache entries restored from the on-disk snapshot")
+                    .register(registry);
+            Gauge.builder("ghcr.snapshot.entries", snapshotStore, store -> store.stats().entries())
+                    .register(registry);
+            Gauge.builder("ghcr.snapshot.size", snapshotStore, store -> store.stats().sizeBytes())
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 태그 백그라운드 동기화 메트릭.
+     *
+     * @param tagSyncEngine 동기화 엔진
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder tagSyncMetrics(TagSyncEngine tagSyncEngine) {
+        return registry -> {
+            Gauge.builder("ghcr.sync.subscriptions", tagSyncEngine, engine -> engine.stats().subscriptions())
+                    .description("Registered (credential, repository) pairs")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.sync.runs", tagSyncEngine, engine -> engine.stats().changedCount())
+                    .tags("result", "changed")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.sync.runs", tagSyncEngine, engine -> engine.stats().unchangedCount())
+                    .tags("result", "unchanged")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.sync.runs", tagSyncEngine, engine -> engine.stats().failedCount())
+                    .tags("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * GitHub 웹훅 처리 메트릭.
+     *
+     * @param webhookService 웹훅 서비스
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder webhookMetrics(GitHubWebhookService webhookService) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.webhooks", webhookService, service -> service.stats().processedCount())
+                    .tags("result", "processed")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.webhooks", webhookService, service -> service.stats().ignoredCount())
+                    .tags("result", "ignored")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.webhooks", webhookService, service -> service.stats().rejectedCount())
+                    .tags("result", "rejected")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * GHCR Bearer 토큰 캐시 메트릭.
+     *
+     * @param tokenService 토큰 서비스
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder tokenCacheMetrics(GhcrTokenService tokenService) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.cache.requests", tokenService, service -> service.stats().hitCount())
+                    .tags("cache", "token", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", tokenService, service -> service.stats().missCount())
+                    .tags("cache", "token", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.token.fetches", tokenService, service -> service.stats().refreshCount())
+                    .description("Token endpoint calls")
+                    .register(registry);
+            Gauge.builder("ghcr.cache.size", tokenService, service -> service.stats().size())
+                    .tags("cache", "token")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 이미지 매니페스트 조회 메트릭 (참조 확인 캐시, 매니페스트 본문 저장소).
+     *
+     * @param manifestService 매니페스트 조회 서비스
+     * @param manifestStore   매니페스트 본문 저장소
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder manifestMetrics(ManifestService manifestService, ManifestStore manifestStore) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.cache.requests", manifestService, service -> service.stats().hitCount())
+                    .tags("cache", "manifest-reference", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", manifestService, service -> service.stats().missCount())
+                    .tags("cache", "manifest-reference", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", manifestService, service -> service.stats().staleServedCount())
+                    .tags("cache", "manifest-reference", "result", "stale")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.coalesced", manifestService, service -> service.stats().coalescedCount())
+                    .tags("cache", "manifest-reference")
+                    .register(registry);
+            Gauge.builder("ghcr.cache.size", manifestService, service -> service.stats().size())
+                    .tags("cache", "manifest-reference")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", manifestStore, store -> store.stats().hitCount())
+                    .tags("cache", "manifest", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.cache.requests", manifestStore, store -> store.stats().missCount())
+                    .tags("cache", "manifest", "result", "miss")
+                    .register(registry);
+            Gauge.builder("ghcr.manifest.store.entries", manifestStore, store -> store.stats().entries())
+                    .description("Manifests kept in the content-addressed store")
+                    .register(registry);
+            Gauge.builder("ghcr.manifest.store.size", manifestStore, store -> store.stats().sizeBytes())
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * 업스트림 지연/장애 대응(hedged 요청, 제한 시간, 서킷 브레이커) 메트릭.
+     *
+     * @param resilience     업스트림 지연/장애 대응 필터
+     * @param ghcrProperties 업스트림 URL 설정
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder upstreamResilienceMetrics(UpstreamResilience resilience, GhcrProperties ghcrProperties) {
+        return registry -> {
+            FunctionCounter.builder("ghcr.upstream.hedges", resilience, filter -> filter.stats().hedgedCount())
+                    .description("Hedged (duplicate) upstream requests")
+                    .tags("result", "sent")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.upstream.hedges", resilience, filter -> filter.stats().hedgeWinCount())
+                    .tags("result", "won")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.upstream.hedges", resilience, filter -> filter.stats().hedgeDeniedCount())
+                    .tags("result", "denied")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.upstream.timeouts", resilience, filter -> filter.stats().timeoutCount())
+                    .description("Upstream calls that exceeded their per-call timeout")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.upstream.circuit.rejected", resilience, filter -> filter.stats().rejectedCount())
+                    .description("Upstream calls failed fast by an open circuit breaker")
+                    .register(registry);
+            for (String host : ghcrProperties.upstreamHosts()) {
+                Gauge.builder("ghcr.upstream.circuit.state", resilience, filter -> filter.circuitState(host))
+                        .description("Circuit breaker state (0 = closed, 1 = half-open, 2 = open)")
+                        .tags("host", host)
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * 동기 엔드포인트 실행 한도 메트릭.
+     *
+     * @param upstreamCallLimiter 실행 한도
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder upstreamCallLimiterMetrics(UpstreamCallLimiter upstreamCallLimiter) {
+        return registry -> Gauge.builder("ghcr.execution.available.permits", upstreamCallLimiter,
+                        UpstreamCallLimiter::availablePermits)
+                .description("Free upstream call slots for synchronous endpoints")
+                .register(registry);
+    }
+
+    /**
+     * 테넌트 수용 제어/공정 대기열 메트릭 (테넌트별 메트릭은 {@link TenantScheduler}가 직접 등록).
+     *
+     * @param tenantScheduler 테넌트 스케줄러
+     * @param ghcrProperties  업스트림 URL 설정
+     * @return MeterBinder
+     */
+    @Bean
+    public MeterBinder tenantSchedulerMetrics(TenantScheduler tenantScheduler, GhcrProperties ghcrProperties) {
+        return registry -> {
+            for (String host : ghcrProperties.upstreamHosts()) {
+                Gauge.builder("ghcr.admission.in.flight", tenantScheduler, scheduler -> scheduler.inFlight(host))
+                        .description("Upstream calls holding a fair-queue slot")
+                        .tags("host", host)
+                        .register(registry);
+                Gauge.builder("ghcr.admission.queued", tenantScheduler, scheduler -> scheduler.queued(host))
+                        .description("Upstream calls waiting in the fair queue")
+                        .tags("host", host)
+                        .register(registry);
+            }
+            Gauge.builder("ghcr.admission.tenants", tenantScheduler, scheduler -> scheduler.stats().tenants())
+                    .description("Tenants with per-tenant metrics")
+                    .register(registry);
+            FunctionCounter.builder("ghcr.admission.rejected", tenantScheduler,
+                            scheduler -> scheduler.stats().rejectedCount())
+                    .description("Upstream calls rejected because the tenant queue was full")
+                    .register(registry);
+        };
+    }
+}
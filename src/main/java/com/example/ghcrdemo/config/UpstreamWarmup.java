@@ -0,0 +1,123 @@
+package com.example.ghcrdemo.config;
+
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.example.ghcrdemo.dto.BatchTagsResponse;
+import com.example.ghcrdemo.dto.ErrorResponse;
+import com.example.ghcrdemo.dto.GhcrCatalogResponse;
+import com.example.ghcrdemo.dto.GhcrTagsResponse;
+import com.example.ghcrdemo.dto.ManifestResolution;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 기동 중 업스트림 클라이언트와 JSON 직렬화를 백그라운드에서 미리 초기화한다.
+ * <p>
+ * 컨텍스트가 갱신되면(웹 서버 시작 전) {@link GhcrWebClients#warmup(boolean)}을 시작하고,
+ * 준비(readiness) 상태로 바뀌기 직전({@link ApplicationRunner})에 `startup.warmup-timeout`까지 완료를 기다린다.
+ * 따라서 준비 상태가 된 뒤의 첫 요청이 커넥션 풀, 이벤트 루프, DNS 리졸버 생성 비용을 치르지 않는다.
+ * 업스트림 요청은 보내지 않으며, `startup.warmup-connections`를 켠 경우에만 호스트별 커넥션(TLS 핸드셰이크 포함)을 미리 연다.
+ * 미리 초기화가 실패하거나 늦어도 기동은 계속되며, 클라이언트는 처음 사용할 때 만들어진다.
+ * <p>
+ * CDS 학습 실행(`spring.context.exit=onRefresh`)에서는 시작되지 않으므로 업스트림에 연결하지 않는다.
+ */
+@Slf4j
+@Component
+public class UpstreamWarmup implements SmartLifecycle, ApplicationRunner {
+
+    private final GhcrWebClients webClients;
+    private final ObjectMapper objectMapper;
+    private final GhcrProperties.Startup settings;
+
+    private volatile CompletableFuture<Void> pending;
+
+    public UpstreamWarmup(GhcrWebClients webClients, ObjectMapper objectMapper, GhcrProperties ghcrProperties) {
+        this.webClients = webClients;
+        this.objectMapper = objectMapper;
+        this.settings = ghcrProperties.getStartup();
+    }
+
+    @Override
+    public void start() {
+        if (!settings.isWarmup()) {
+            pending = CompletableFuture.completedFuture(null);
+            return;
+        }
+        long started = System.nanoTime();
+        pending = webClients.warmup(settings.isWarmupConnections())
+                .then(Mono.<Void>fromRunnable(this::warmupJson))
+                .doOnSuccess(ignored -> log.info("Upstream clients warmed up in {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)))
+                .toFuture();
+    }
+
+    /**
+     * 준비 상태로 바뀌기 전에 미리 초기화 완료를 기다린다.
+     *
+     * @param args 애플리케이션 인자
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        CompletableFuture<Void> warmup = pending;
+        if (warmup == null) {
+            return;
+        }
+        try {
+            warmup.get(settings.getWarmupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Upstream warm-up not finished within {}; continuing", settings.getWarmupTimeout());
+        } catch (ExecutionException e) {
+            log.warn("Upstream warm-up failed: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop() {
+        CompletableFuture<Void> warmup = pending;
+        if (warmup != null) {
+            warmup.cancel(true);
+        }
+        pending = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return pending != null;
+    }
+
+    /**
+     * 웹 서버(phase `Integer.MAX_VALUE - 1`)보다 먼저 시작해 서버 기동과 병렬로 진행한다.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * 응답 DTO의 직렬화기와 요청 DTO의 역직렬화기를 미리 만든다.
+     */
+    private void warmupJson() {
+        try {
+            for (Object response : List.of(new GhcrCatalogResponse(), new GhcrTagsResponse(), new BatchTagsResponse(),
+                    new ManifestResolution(), new ErrorResponse("warm-up", 200))) {
+                objectMapper.writeValueAsBytes(response);
+            }
+            objectMapper.readValue("{\"username\":\"warm-up\",\"token\":\"\"}", AuthRequest.class);
+        } catch (JsonProcessingException e) {
+            log.debug("JSON warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,65 +1,159 @@
 package com.example.ghcrdemo.config;
 
+import com.example.ghcrdemo.service.RateLimitScheduler;
+import com.example.ghcrdemo.service.TenantScheduler;
+import com.example.ghcrdemo.service.UpstreamMetrics;
+import com.example.ghcrdemo.service.UpstreamResilience;
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
  * WebClient 구성 클래스.
- * GHCR 또는 관련 API 호출에 사용될 기본 WebClient 빈을 생성한다.
- * 타임아웃과 메모리 제한, 기본 헤더(JSON) 등을 설정함.
+ * GHCR 및 GitHub API 호출에 사용될 WebClient 빈을 생성한다.
+ * 업스트림 호스트마다 전용 커넥션 풀을 두고, 타임아웃과 메모리 제한, 기본 Accept 헤더 등을 설정함.
  */
 @Configuration
 @RequiredArgsConstructor
 public class WebClientConfig {
 
     /**
-     * GHCR 관련 설정 프로퍼티(예: url, timeout).
+     * GitHub REST API v3 미디어 타입.
+     */
+    private static final String GITHUB_V3_JSON = "application/vnd.github.v3+json";
+
+    /**
+     * GHCR 관련 설정 프로퍼티(예: url, github-api-url, token-url, timeout, pool).
      */
     private final GhcrProperties ghcrProperties;
 
     /**
-     * 애플리케이션에서 사용할 WebClient 빈을 생성한다.
+     * 업스트림 호스트별 공유 WebClient 묶음을 생성한다.
      * <p>
-     * - 연결 타임아웃: `ghcrProperties.getTimeout()` 밀리초
-     * - 응답 타임아웃: 동일한 값
-     * - 읽기/쓰기 타임아웃 핸들러 추가
-     * - 최대 메모리 버퍼: 16MB (응답 바디용)
-     * - 기본 헤더: Accept/Content-Type = application/json
+     * - api.github.com, ghcr.io/v2, ghcr.io/token 각각 전용 커넥션 풀 사용
+     * - 클라이언트와 커넥션 풀은 처음 사용할 때(또는 기동 시 미리 초기화할 때) 생성
+     * - 인증 헤더는 포함하지 않음 (요청마다 지정)
+     * - api.github.com, ghcr.io/v2 호출은 테넌트 수용 제어 → Rate Limit 스케줄러 → 테넌트 공정 대기열을 거침
+     * - 호출 종류별 제한 시간, hedged 요청, 호스트별 서킷 브레이커 적용 (ghcr.io/v2와 ghcr.io/token은 브레이커 공유)
+     * - 필터 키와 메트릭 `host` 태그는 설정된 URL의 호스트 이름 ({@link GhcrProperties#upstreamHosts()})
+     * - 모든 호출(재시도, hedged 요청 포함)은 업스트림 타이머로 기록
+     *
+     * @param rateLimitScheduler Rate Limit 스케줄러
+     * @param tenantScheduler    테넌트별 수용 제어/공정 대기열
+     * @param resilience         업스트림 지연/장애 대응 필터
+     * @param upstreamMetrics    업스트림 호출 메트릭 필터
+     * @return 구성된 GhcrWebClients 인스턴스
+     */
+    @Bean
+    public GhcrWebClients ghcrWebClients(RateLimitScheduler rateLimitScheduler, TenantScheduler tenantScheduler,
+                                         UpstreamResilience resilience, UpstreamMetrics upstreamMetrics) {
+        String githubApi = ghcrProperties.githubApiHost();
+        String registry = ghcrProperties.registryHost();
+        return new GhcrWebClients(
+                () -> buildClient("github-api", ghcrProperties.getGithubApiUrl(), GITHUB_V3_JSON, upstreamMetrics,
+                        tenantScheduler.admission(), rateLimitScheduler.filter(githubApi),
+                        tenantScheduler.filter(githubApi), resilience.filter(githubApi)),
+                () -> buildClient("ghcr-registry", ghcrProperties.getUrl(), MediaType.APPLICATION_JSON_VALUE,
+                        upstreamMetrics, tenantScheduler.admission(), rateLimitScheduler.filter(registry),
+                        tenantScheduler.filter(registry), resilience.filter(registry)),
+                () -> buildClient("ghcr-token", ghcrProperties.getTokenUrl(), MediaType.APPLICATION_JSON_VALUE,
+                        upstreamMetrics, resilience.filter(ghcrProperties.tokenHost())));
+    }
+
+    /**
+     * 애플리케이션에서 사용할 기본 WebClient 빈을 반환한다.
+     * GHCR 레지스트리(`ghcrProperties.getUrl()`) 클라이언트와 동일한 인스턴스이다.
+     * 주입될 때까지 레지스트리 클라이언트를 만들지 않도록 지연 생성한다.
      *
      * @return 구성된 WebClient 인스턴스
      */
     @Bean
-    public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
+    @Lazy
+    public WebClient webClient(GhcrWebClients ghcrWebClients) {
+        return ghcrWebClients.getRegistryClient();
+    }
+
+    /**
+     * 이름이 지정된 커넥션 풀을 생성한다.
+     * 유휴/최대 수명 기반 제거와 백그라운드 정리를 적용한다.
+     * 활성/대기 커넥션 수와 획득 대기 시간을 `reactor.netty.connection.provider.*` 메트릭으로 노출한다.
+     *
+     * @param name 풀 이름 (메트릭/로그 식별용)
+     * @return ConnectionProvider
+     */
+    private ConnectionProvider connectionProvider(String name) {
+        GhcrProperties.Pool pool = ghcrProperties.getPool();
+        return ConnectionProvider.builder(name)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * 전용 커넥션 풀을 사용하는 WebClient를 생성한다.
+     * <p>
+     * - 연결 타임아웃: `ghcrProperties.getTimeout()` 밀리초
+     * - 응답 타임아웃: 동일한 값 (요청 단위로 적용되므로 풀에 반납된 유휴 커넥션에는 영향 없음).
+     *   응답 헤더까지는 호출 종류별 제한 시간(`resilience.call-timeouts`)이 먼저 적용된다
+     * - HTTP/2 우선 협상 (설정 시), TCP keep-alive
+     * - 최대 메모리 버퍼: 16MB (응답 바디용)
+     * - 호출 시간/커넥션 획득 시간 메트릭 기록 (`upstreamMetrics`가 가장 안쪽 필터)
+     *
+     * @param name            커넥션 풀 이름
+     * @param baseUrl         기본 URL
+     * @param accept          기본 Accept 헤더 값
+     * @param upstreamMetrics 업스트림 호출 메트릭 필터
+     * @param filters         추가 요청 필터 (앞에 있을수록 바깥쪽)
+     * @return 커넥션 풀, HttpClient, WebClient 묶음
+     */
+    private GhcrWebClients.Client buildClient(String name, String baseUrl, String accept,
+                                              UpstreamMetrics upstreamMetrics, ExchangeFilterFunction... filters) {
+        GhcrProperties.Pool pool = ghcrProperties.getPool();
+        ConnectionProvider provider = connectionProvider(name);
+        HttpClient httpClient = HttpClient.create(provider)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, ghcrProperties.getTimeout())
+                .option(ChannelOption.SO_KEEPALIVE, pool.isKeepAlive())
+                .keepAlive(pool.isKeepAlive())
                 .responseTimeout(Duration.ofMillis(ghcrProperties.getTimeout()))
-                .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(ghcrProperties.getTimeout(), TimeUnit.MILLISECONDS))
-                        .addHandlerLast(new WriteTimeoutHandler(ghcrProperties.getTimeout(), TimeUnit.MILLISECONDS)));
+                .doOnRequest((request, connection) ->
+                        upstreamMetrics.recordConnectionAcquired(request.currentContextView(), provider.name()));
+        if (pool.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
 
         ExchangeStrategies strategies = ExchangeStrategies.builder()
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
                 .build();
 
-        return WebClient.builder()
-                .baseUrl(ghcrProperties.getUrl())
+        WebClient webClient = WebClient.builder()
+                .baseUrl(baseUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(strategies)
-                .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader(HttpHeaders.ACCEPT, accept)
+                .filters(list -> {
+                    list.addAll(List.of(filters));
+                    list.add(upstreamMetrics);
+                })
                 .build();
+        return new GhcrWebClients.Client(name, baseUrl, provider, httpClient, webClient);
     }
 }
@@ -1,30 +1,55 @@
 package com.example.ghcrdemo.controller;
 
+import com.example.ghcrdemo.config.GhcrProperties;
 import com.example.ghcrdemo.dto.AuthRequest;
+import com.example.ghcrdemo.dto.BatchManifestRequest;
+import com.example.ghcrdemo.dto.BatchTagResult;
+import com.example.ghcrdemo.dto.BatchTagsRequest;
 import com.example.ghcrdemo.dto.ErrorResponse;
 import com.example.ghcrdemo.dto.GhcrCatalogResponse;
 import com.example.ghcrdemo.dto.GhcrTagsResponse;
+import com.example.ghcrdemo.dto.TagQueryParams;
 import com.example.ghcrdemo.service.GitHubPackagesService;
+import com.example.ghcrdemo.service.ManifestReference;
+import com.example.ghcrdemo.service.ManifestService;
+import com.example.ghcrdemo.service.RateLimitExceededException;
+import com.example.ghcrdemo.service.TagQuery;
+import com.example.ghcrdemo.service.TagQueryTimeoutException;
+import com.example.ghcrdemo.service.TagSyncEngine;
+import com.example.ghcrdemo.service.UpstreamBusyException;
+import com.example.ghcrdemo.service.UpstreamUnavailableException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/ghcr")
 @RequiredArgsConstructor
 /*
   GHCR 관련 REST API를 제공하는 컨트롤러 클래스.
-  인증 정보(`AuthRequest`)를 받아 패키지 목록 및 태그 정보를 조회한다.
+  인증 정보(`AuthRequest`)를 받아 패키지 목록, 태그 정보, 이미지 매니페스트 digest를 조회한다.
  */
 public class GhcrController {
 
     private final GitHubPackagesService gitHubPackagesService;
 
+    private final TagSyncEngine tagSyncEngine;
+
+    private final ManifestService manifestService;
+
+    private final GhcrProperties ghcrProperties;
+
     /**
      * 인증 정보를 받아 사용자의 컨테이너 패키지 목록을 동기적으로 조회한다.
      *
@@ -40,6 +65,10 @@ public class GhcrController {
             log.error("GitHub API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
             return ResponseEntity.status(e.getStatusCode())
                     .body(new ErrorResponse("GitHub API error: " + e.getMessage(), e.getStatusCode().value()));
+        } catch (UpstreamBusyException e) {
+            return serviceUnavailable(e);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
         } catch (Exception e) {
             log.error("Unexpected error: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -50,20 +79,35 @@ public class GhcrController {
     /**
      * 주어진 레포지토리에 대해 태그 목록을 동기적으로 조회한다.
      * `repository` 경로 변수는 "owner/name" 또는 "name" 형식을 허용한다.
+     * 쿼리 파라미터(`prefix`, `glob`, `regex`, `semver`, `prerelease`, `sort`, `limit`)로 서버에서 필터/정렬할 수 있다.
      *
      * @param repository  조회할 레포지토리 식별자 ("owner/name" 또는 "name")
+     * @param params      태그 필터/정렬 조건 (생략 가능)
      * @param authRequest 사용자 인증 정보 (username, token)
-     * @return 성공 시 `GhcrTagsResponse`, 실패 시 `ErrorResponse`를 포함한 ResponseEntity
+     * @return 성공 시 `GhcrTagsResponse`, 잘못된 조건(시간 초과한 정규식 포함) 400, 실패 시 `ErrorResponse`를 포함한 ResponseEntity
      */
     @PostMapping("/repositories/{repository}/tags")
-    public ResponseEntity<?> getTags(@PathVariable String repository, @RequestBody AuthRequest authRequest) {
+    public ResponseEntity<?> getTags(@PathVariable String repository, TagQueryParams params,
+                                     @RequestBody AuthRequest authRequest) {
+        TagQuery query;
         try {
-            GhcrTagsResponse response = gitHubPackagesService.getTags(repository, authRequest);
+            query = TagQuery.of(params);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        try {
+            GhcrTagsResponse response = gitHubPackagesService.getTags(repository, authRequest, query);
             return ResponseEntity.ok(response);
         } catch (WebClientResponseException e) {
             log.error("GHCR API error for repository {}: {} - {}", repository, e.getStatusCode(), e.getResponseBodyAsString());
             return ResponseEntity.status(e.getStatusCode())
                     .body(new ErrorResponse("GHCR API error: " + e.getMessage(), e.getStatusCode().value()));
+        } catch (UpstreamBusyException e) {
+            return serviceUnavailable(e);
+        } catch (RateLimitExceededException e) {
+            return tooManyRequests(e);
+        } catch (TagQueryTimeoutException e) {
+            return badRequest(e);
         } catch (Exception e) {
             log.error("Unexpected error for repository {}: {}", repository, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -75,29 +119,215 @@ public class GhcrController {
      * 인증 정보를 받아 사용자의 컨테이너 패키지 목록을 비동기적으로 조회한다.
      *
      * @param authRequest 사용자 인증 정보 (username, token)
-     * @return Mono\<ResponseEntity\<GhcrCatalogResponse\>\> 비동기 응답
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `GhcrCatalogResponse`, Rate Limit 초과 시 429, 업스트림 장애 시 503 `ErrorResponse`
      */
     @PostMapping("/async/repositories")
-    public Mono<ResponseEntity<GhcrCatalogResponse>> getCatalogAsync(@RequestBody AuthRequest authRequest) {
+    public Mono<ResponseEntity<?>> getCatalogAsync(@RequestBody AuthRequest authRequest) {
         return gitHubPackagesService.getCatalogAsync(authRequest)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(RateLimitExceededException.class, e -> Mono.just(tooManyRequests(e)))
+                .onErrorResume(UpstreamBusyException.class, e -> Mono.just(serviceUnavailable(e)))
                 .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
     }
 
     /**
      * 주어진 레포지토리에 대해 태그 목록을 비동기적으로 조회한다.
+     * 동기 조회와 같은 쿼리 파라미터로 서버에서 필터/정렬할 수 있다.
      *
      * @param repository  조회할 레포지토리 식별자 ("owner/name" 또는 "name")
+     * @param params      태그 필터/정렬 조건 (생략 가능)
      * @param authRequest 사용자 인증 정보 (username, token)
-     * @return Mono\<ResponseEntity\<GhcrTagsResponse\>\> 비동기 응답
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `GhcrTagsResponse`, 잘못된 조건 400, Rate Limit 초과 시 429,
+     * 업스트림 장애 시 503 `ErrorResponse`
      */
     @PostMapping("/async/repositories/{repository}/tags")
-    public Mono<ResponseEntity<GhcrTagsResponse>> getTagsAsync(@PathVariable String repository, @RequestBody AuthRequest authRequest) {
-        return gitHubPackagesService.getTagsAsync(repository, authRequest)
-                .map(ResponseEntity::ok)
+    public Mono<ResponseEntity<?>> getTagsAsync(@PathVariable String repository, TagQueryParams params,
+                                                @RequestBody AuthRequest authRequest) {
+        TagQuery query;
+        try {
+            query = TagQuery.of(params);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(badRequest(e));
+        }
+        return gitHubPackagesService.getTagsAsync(repository, authRequest, query)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(TagQueryTimeoutException.class, e -> Mono.just(badRequest(e)))
+                .onErrorResume(RateLimitExceededException.class, e -> Mono.just(tooManyRequests(e)))
+                .onErrorResume(UpstreamBusyException.class, e -> Mono.just(serviceUnavailable(e)))
+                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+
+    /**
+     * 주어진 레포지토리의 태그 중 `since` 버전 이후 추가/삭제된 것만 반환한다.
+     * 처음 호출하면 레포지토리가 백그라운드 동기화에 등록되고 전체 목록(`reset: true`)이 반환된다.
+     * 응답의 `version`을 다음 호출의 `since`로 보낸다.
+     *
+     * @param repository  조회할 레포지토리 식별자 ("owner/name" 또는 "name")
+     * @param since       마지막으로 받은 버전 (처음이면 0)
+     * @param authRequest 사용자 인증 정보 (username, token)
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `TagChangesResponse`, 업스트림 오류 시 `ErrorResponse`
+     */
+    @PostMapping("/async/repositories/{repository}/tags/changes")
+    public Mono<ResponseEntity<?>> getTagChanges(@PathVariable String repository,
+                                                 @RequestParam(defaultValue = "0") long since,
+                                                 @RequestBody AuthRequest authRequest) {
+        return tagSyncEngine.changesSince(repository, authRequest, since)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(RateLimitExceededException.class, e -> Mono.just(tooManyRequests(e)))
+                .onErrorResume(UpstreamBusyException.class, e -> Mono.just(serviceUnavailable(e)))
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(ResponseEntity.status(e.getStatusCode())
+                        .body(new ErrorResponse("GHCR API error: " + e.getMessage(), e.getStatusCode().value()))))
+                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+
+    /**
+     * 여러 레포지토리의 태그 목록을 한 번의 요청으로 비동기 조회한다.
+     * 레포지토리별로 성공/실패 상태가 개별 반환되며, 일부 실패해도 200 응답이다.
+     *
+     * @param batchTagsRequest 인증 정보와 레포지토리 목록
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `BatchTagsResponse`, 요청 오류(빈 레포지토리 이름 포함) 시 400 `ErrorResponse`
+     */
+    @PostMapping("/async/tags/batch")
+    public Mono<ResponseEntity<?>> getTagsBatch(@RequestBody BatchTagsRequest batchTagsRequest) {
+        List<String> repositories = batchTagsRequest.getRepositories();
+        if (batchTagsRequest.getAuth() == null || repositories == null || repositories.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("auth and repositories are required", 400)));
+        }
+        int maxRepositories = ghcrProperties.getBatch().getMaxRepositories();
+        if (repositories.size() > maxRepositories) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Too many repositories (max " + maxRepositories + ")", 400)));
+        }
+        if (repositories.stream().anyMatch(repository -> repository == null || repository.isBlank())) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("repositories must not contain null or blank entries", 400)));
+        }
+        return gitHubPackagesService.getTagsBatch(repositories, batchTagsRequest.getAuth())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+
+    /**
+     * 이미지 참조(태그 또는 digest)를 매니페스트 digest로 확인한다.
+     * digest는 레지스트리 `HEAD` 요청으로 확인하고, `platforms=true`일 때만 매니페스트 본문으로 플랫폼별 이미지 정보를 채운다.
+     *
+     * @param repository  레포지토리 식별자 ("owner/name" 또는 "name")
+     * @param reference   태그 또는 `sha256:<hex>` digest
+     * @param platforms   플랫폼별 이미지 정보 포함 여부
+     * @param authRequest 사용자 인증 정보 (username, token)
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `ManifestResolution`, 잘못된 참조 400, 없는 참조 404,
+     * Rate Limit 초과 시 429, 업스트림 장애 시 503 `ErrorResponse`
+     */
+    @PostMapping("/async/repositories/{repository}/manifests/{reference}")
+    public Mono<ResponseEntity<?>> resolveManifest(@PathVariable String repository, @PathVariable String reference,
+                                                   @RequestParam(defaultValue = "false") boolean platforms,
+                                                   @RequestBody AuthRequest authRequest) {
+        ManifestReference manifestReference;
+        try {
+            manifestReference = ManifestReference.of(repository, reference);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(badRequest(e));
+        }
+        return manifestService.resolve(manifestReference, authRequest, platforms)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(RateLimitExceededException.class, e -> Mono.just(tooManyRequests(e)))
+                .onErrorResume(UpstreamBusyException.class, e -> Mono.just(serviceUnavailable(e)))
+                .onErrorResume(WebClientResponseException.class, e -> Mono.just(ResponseEntity.status(e.getStatusCode())
+                        .body(new ErrorResponse("GHCR API error: " + e.getMessage(), e.getStatusCode().value()))))
+                .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+    }
+
+    /**
+     * 여러 이미지 참조를 한 번의 요청으로 digest로 확인한다.
+     * 참조별로 성공/실패 상태가 개별 반환되며, 일부 실패해도 200 응답이다.
+     *
+     * @param batchManifestRequest 인증 정보, 이미지 참조 목록, 플랫폼 정보 포함 여부
+     * @return Mono\<ResponseEntity\<?\>\> 성공 시 `BatchManifestResponse`, 요청 오류(빈 참조 포함) 시 400 `ErrorResponse`
+     */
+    @PostMapping("/async/manifests/resolve")
+    public Mono<ResponseEntity<?>> resolveManifests(@RequestBody BatchManifestRequest batchManifestRequest) {
+        List<String> references = batchManifestRequest.getReferences();
+        if (batchManifestRequest.getAuth() == null || references == null || references.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("auth and references are required", 400)));
+        }
+        int maxReferences = ghcrProperties.getManifest().getMaxReferences();
+        if (references.size() > maxReferences) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Too many references (max " + maxReferences + ")", 400)));
+        }
+        if (references.stream().anyMatch(reference -> reference == null || reference.isBlank())) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("references must not contain null or blank entries", 400)));
+        }
+        return manifestService.resolveBatch(references, batchManifestRequest.getAuth(), batchManifestRequest.isPlatforms())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
                 .onErrorReturn(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
     }
 
+    /**
+     * 전체 인벤토리(레포지토리 + 태그)를 레포지토리 단위로 `application/x-ndjson` 스트리밍한다.
+     * 각 레포지토리는 태그 조회가 끝나는 즉시 한 줄로 전송된다.
+     *
+     * @param authRequest 사용자 인증 정보 (username, token)
+     * @return Flux\<BatchTagResult\> 레포지토리별 태그 결과 스트림
+     */
+    @PostMapping(value = "/async/inventory", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchTagResult> streamInventory(@RequestBody AuthRequest authRequest) {
+        return gitHubPackagesService.streamInventory(authRequest);
+    }
+
+    /**
+     * 전체 인벤토리를 `text/event-stream`(SSE)으로 스트리밍한다.
+     * 레포지토리마다 `repository` 이벤트를 보낸다.
+     *
+     * @param authRequest 사용자 인증 정보 (username, token)
+     * @return Flux\<ServerSentEvent\<BatchTagResult\>\> 레포지토리별 이벤트 스트림
+     */
+    @PostMapping(value = "/async/inventory/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BatchTagResult>> streamInventoryEvents(@RequestBody AuthRequest authRequest) {
+        return gitHubPackagesService.streamInventory(authRequest)
+                .map(result -> ServerSentEvent.builder(result).event("repository").build());
+    }
+
+    /**
+     * 잘못된 요청 파라미터를 400 응답으로 변환한다.
+     *
+     * @param e 검증 예외
+     * @return 400 `ErrorResponse`
+     */
+    private ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST.value()));
+    }
+
+    /**
+     * 업스트림 동시 호출 한도 초과, 업스트림 장애(제한 시간 초과, 서킷 열림)를 503 응답으로 변환한다.
+     *
+     * @param e 한도 초과/장애 예외
+     * @return 503 `ErrorResponse` (Retry-After: 서킷이 닫힐 때까지 남은 시간, 한도 초과는 1)
+     */
+    private ResponseEntity<?> serviceUnavailable(UpstreamBusyException e) {
+        log.warn("Rejected request: {}", e.getMessage());
+        long retryAfter = e instanceof UpstreamUnavailableException unavailable ? unavailable.getRetryAfterSeconds() : 1;
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new ErrorResponse(e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    /**
+     * 업스트림 Rate Limit 초과를 429 응답으로 변환한다.
+     *
+     * @param e Rate Limit 초과 예외
+     * @return 429 `ErrorResponse` (Retry-After: 업스트림이 안내한 대기 시간)
+     */
+    private ResponseEntity<?> tooManyRequests(RateLimitExceededException e) {
+        log.warn("Rate limited: {} (retry after {}s)", e.getMessage(), e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+
     /**
      * 간단한 헬스체크 엔드포인트.
      *
@@ -0,0 +1,60 @@
+package com.example.ghcrdemo.controller;
+
+import com.example.ghcrdemo.dto.ErrorResponse;
+import com.example.ghcrdemo.dto.WebhookResult;
+import com.example.ghcrdemo.service.GitHubWebhookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/ghcr/webhooks")
+@RequiredArgsConstructor
+/*
+  GitHub 웹훅 수신 컨트롤러.
+  패키지 게시/갱신 이벤트를 받아 해당 레포지토리의 캐시 항목만 갱신한다.
+ */
+public class GitHubWebhookController {
+
+    private final GitHubWebhookService gitHubWebhookService;
+
+    /**
+     * GitHub 웹훅을 받는다 (`Content type: application/json`으로 설정).
+     * 서명은 본문 원문으로 검증하므로 본문을 바이트 그대로 받는다.
+     *
+     * @param event     `X-GitHub-Event` (package, registry_package, ping 등)
+     * @param delivery  `X-GitHub-Delivery` (로그용)
+     * @param signature `X-Hub-Signature-256`
+     * @param body      요청 본문
+     * @return 처리 시 202 `WebhookResult`, 서명 불일치 401, 비밀 값 미설정 503, 잘못된 본문 400
+     */
+    @PostMapping("/github")
+    public ResponseEntity<?> receive(@RequestHeader(value = "X-GitHub-Event", required = false) String event,
+                                     @RequestHeader(value = "X-GitHub-Delivery", required = false) String delivery,
+                                     @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+                                     @RequestBody byte[] body) {
+        if (!gitHubWebhookService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ErrorResponse("Webhook receiver is not configured", 503));
+        }
+        if (!gitHubWebhookService.verify(body, signature)) {
+            log.warn("Rejected webhook delivery {} ({}): invalid signature", delivery, event);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid signature", 401));
+        }
+        try {
+            WebhookResult result = gitHubWebhookService.handle(event, body);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("Bad webhook delivery {} ({}): {}", delivery, event, e.getMessage());
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage(), 400));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 여러 이미지 참조를 한 번에 digest로 확인하는 배치 요청 DTO.
+ */
+@Data
+public class BatchManifestRequest {
+    /**
+     * 사용자 인증 정보 (username, token)
+     */
+    private AuthRequest auth;
+
+    /**
+     * 이미지 참조 목록 ("[owner/]name[:tag]" 또는 "[owner/]name@sha256:…", 태그 생략 시 latest)
+     */
+    private List<String> references;
+
+    /**
+     * 플랫폼별 이미지 정보 포함 여부
+     */
+    private boolean platforms;
+}
@@ -0,0 +1,27 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 배치 매니페스트 조회 응답 DTO.
+ * 요청한 참조 순서대로 참조별 결과를 보관한다.
+ */
+@Data
+public class BatchManifestResponse {
+    /**
+     * 참조별 조회 결과
+     */
+    private List<BatchManifestResult> results;
+
+    /**
+     * 성공한 참조 수
+     */
+    private int succeeded;
+
+    /**
+     * 실패한 참조 수
+     */
+    private int failed;
+}
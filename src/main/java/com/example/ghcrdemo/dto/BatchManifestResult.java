@@ -0,0 +1,63 @@
+package com.example.ghcrdemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * 배치 매니페스트 조회에서 이미지 참조 하나의 결과를 표현하는 DTO.
+ * 성공 시 확인된 매니페스트를, 실패 시 에러 메시지와 HTTP 상태 코드를 포함한다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchManifestResult {
+    /**
+     * 요청한 이미지 참조
+     */
+    private String reference;
+
+    /**
+     * 조회 결과 상태 (200이면 성공, 그 외는 잘못된 참조/업스트림/타임아웃 오류 코드)
+     */
+    private int status;
+
+    /**
+     * 확인된 매니페스트 (성공 시)
+     */
+    private ManifestResolution manifest;
+
+    /**
+     * 에러 메시지 (실패 시)
+     */
+    private String error;
+
+    /**
+     * 성공 결과를 생성한다.
+     *
+     * @param reference 이미지 참조
+     * @param manifest  확인된 매니페스트
+     * @return BatchManifestResult
+     */
+    public static BatchManifestResult success(String reference, ManifestResolution manifest) {
+        BatchManifestResult result = new BatchManifestResult();
+        result.setReference(reference);
+        result.setStatus(200);
+        result.setManifest(manifest);
+        return result;
+    }
+
+    /**
+     * 실패 결과를 생성한다.
+     *
+     * @param reference 이미지 참조
+     * @param status    HTTP 상태 코드
+     * @param error     에러 메시지
+     * @return BatchManifestResult
+     */
+    public static BatchManifestResult failure(String reference, int status, String error) {
+        BatchManifestResult result = new BatchManifestResult();
+        result.setReference(reference);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+}
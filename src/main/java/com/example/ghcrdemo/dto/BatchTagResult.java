@@ -0,0 +1,65 @@
+package com.example.ghcrdemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 배치 태그 조회 및 인벤토리 스트림에서 레포지토리 하나의 결과를 표현하는 DTO.
+ * 성공 시 태그 목록을, 실패 시 에러 메시지와 HTTP 상태 코드를 포함한다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchTagResult {
+    /**
+     * 레포지토리 이름 ("owner/name")
+     */
+    private String name;
+
+    /**
+     * 조회 결과 상태 (200이면 성공, 그 외는 업스트림/타임아웃 오류 코드)
+     */
+    private int status;
+
+    /**
+     * 태그 목록 (성공 시)
+     */
+    private List<String> tags;
+
+    /**
+     * 에러 메시지 (실패 시)
+     */
+    private String error;
+
+    /**
+     * 성공 결과를 생성한다.
+     *
+     * @param name 레포지토리 이름
+     * @param tags 태그 목록
+     * @return BatchTagResult
+     */
+    public static BatchTagResult success(String name, List<String> tags) {
+        BatchTagResult result = new BatchTagResult();
+        result.setName(name);
+        result.setStatus(200);
+        result.setTags(tags);
+        return result;
+    }
+
+    /**
+     * 실패 결과를 생성한다.
+     *
+     * @param name   레포지토리 이름
+     * @param status HTTP 상태 코드
+     * @param error  에러 메시지
+     * @return BatchTagResult
+     */
+    public static BatchTagResult failure(String name, int status, String error) {
+        BatchTagResult result = new BatchTagResult();
+        result.setName(name);
+        result.setStatus(status);
+        result.setError(error);
+        return result;
+    }
+}
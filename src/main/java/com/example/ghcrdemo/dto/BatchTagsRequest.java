@@ -0,0 +1,22 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 여러 레포지토리의 태그를 한 번에 조회하는 배치 요청 DTO.
+ * 하나의 인증 정보와 레포지토리 목록을 포함한다.
+ */
+@Data
+public class BatchTagsRequest {
+    /**
+     * 사용자 인증 정보 (username, token)
+     */
+    private AuthRequest auth;
+
+    /**
+     * 조회할 레포지토리 목록 ("owner/name" 또는 "name")
+     */
+    private List<String> repositories;
+}
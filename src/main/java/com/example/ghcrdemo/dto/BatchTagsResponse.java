@@ -0,0 +1,27 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 배치 태그 조회 응답 DTO.
+ * 요청한 레포지토리 순서대로 레포지토리별 결과를 보관한다.
+ */
+@Data
+public class BatchTagsResponse {
+    /**
+     * 레포지토리별 조회 결과
+     */
+    private List<BatchTagResult> results;
+
+    /**
+     * 성공한 레포지토리 수
+     */
+    private int succeeded;
+
+    /**
+     * 실패한 레포지토리 수
+     */
+    private int failed;
+}
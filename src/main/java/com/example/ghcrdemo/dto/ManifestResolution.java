@@ -0,0 +1,44 @@
+package com.example.ghcrdemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 이미지 참조(`repository:tag` 또는 `repository@digest`)를 digest로 확인한 결과 DTO.
+ * 플랫폼 정보는 요청한 경우에만 포함된다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ManifestResolution {
+    /**
+     * 레포지토리 이름 ("owner/name")
+     */
+    private String name;
+
+    /**
+     * 요청한 참조 (태그 또는 digest)
+     */
+    private String reference;
+
+    /**
+     * 매니페스트 digest (`Docker-Content-Digest`, 예: "sha256:…")
+     */
+    private String digest;
+
+    /**
+     * 매니페스트 미디어 타입 (이미지 인덱스 또는 단일 이미지 매니페스트)
+     */
+    private String mediaType;
+
+    /**
+     * 매니페스트 본문 크기 (bytes)
+     */
+    private long size;
+
+    /**
+     * 플랫폼별 이미지 (요청 시). 단일 이미지 매니페스트면 항목 하나.
+     */
+    private List<PlatformManifest> platforms;
+}
@@ -0,0 +1,47 @@
+package com.example.ghcrdemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * 이미지 인덱스에 포함된 플랫폼별 이미지 매니페스트 DTO.
+ * 단일 이미지 매니페스트는 인덱스에 플랫폼 정보가 없으므로 `os`/`architecture`가 비어 있다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlatformManifest {
+    /**
+     * 이미지 매니페스트 digest
+     */
+    private String digest;
+
+    /**
+     * 이미지 매니페스트 미디어 타입
+     */
+    private String mediaType;
+
+    /**
+     * 이미지 매니페스트 본문 크기 (bytes)
+     */
+    private long size;
+
+    /**
+     * 운영체제 (예: linux)
+     */
+    private String os;
+
+    /**
+     * CPU 아키텍처 (예: amd64, arm64)
+     */
+    private String architecture;
+
+    /**
+     * 아키텍처 변형 (예: v8)
+     */
+    private String variant;
+
+    /**
+     * 이미지 크기 (config + 레이어, 압축된 크기 기준 bytes)
+     */
+    private Long imageSize;
+}
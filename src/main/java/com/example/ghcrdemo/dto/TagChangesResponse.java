@@ -0,0 +1,44 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 태그 변경(delta) 조회 응답 DTO.
+ * 클라이언트가 보낸 버전(watermark) 이후 추가/삭제된 태그만 담는다.
+ */
+@Data
+public class TagChangesResponse {
+    /**
+     * 레포지토리 이름 ("owner/name")
+     */
+    private String name;
+
+    /**
+     * 현재 버전. 다음 조회 시 `since`로 보낸다.
+     */
+    private long version;
+
+    /**
+     * true면 `added`가 전체 태그 목록이며 클라이언트는 기존 목록을 교체해야 한다
+     * (첫 조회, 또는 보관된 변경 기록보다 오래된 watermark).
+     */
+    private boolean reset;
+
+    /**
+     * 추가된 태그
+     */
+    private List<String> added;
+
+    /**
+     * 삭제된 태그
+     */
+    private List<String> removed;
+
+    /**
+     * 마지막 업스트림 동기화 시각
+     */
+    private Instant syncedAt;
+}
@@ -0,0 +1,46 @@
+package com.example.ghcrdemo.dto;
+
+import lombok.Data;
+
+/**
+ * 태그 목록 조회의 필터/정렬 쿼리 파라미터.
+ * 모두 생략하면 업스트림 목록을 그대로 반환하며, 여러 필터를 주면 모두 만족하는 태그만 반환한다.
+ */
+@Data
+public class TagQueryParams {
+    /**
+     * 접두사 (예: "sha-")
+     */
+    private String prefix;
+
+    /**
+     * glob 패턴, `*`와 `?`만 지원 (예: "v2.*")
+     */
+    private String glob;
+
+    /**
+     * 정규식, 태그의 일부와 일치하면 포함 (예: "^build-\\d+$")
+     */
+    private String regex;
+
+    /**
+     * semver 범위 (예: "^2.1", "~1.4.0", "2.x", ">=1.2.0 <2.0.0")
+     */
+    private String semver;
+
+    /**
+     * pre-release(`-rc.1` 등)를 semver 필터/정렬에 포함할지 여부
+     */
+    private boolean prerelease;
+
+    /**
+     * 정렬: name(이름순), semver(최신 버전 우선, semver 태그만), date(업스트림 순서)
+     * 생략 시 semver 필터가 있으면 semver, 아니면 name
+     */
+    private String sort;
+
+    /**
+     * 최대 반환 개수 (top-N)
+     */
+    private Integer limit;
+}
@@ -0,0 +1,79 @@
+package com.example.ghcrdemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * GitHub 웹훅 처리 결과 DTO.
+ * 처리한 이벤트와 갱신한 캐시 항목 수를 포함한다.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WebhookResult {
+    /**
+     * `X-GitHub-Event` 값 (예: registry_package)
+     */
+    private String event;
+
+    /**
+     * 이벤트 action (예: published)
+     */
+    private String action;
+
+    /**
+     * 처리 결과 ("processed" 또는 "ignored")
+     */
+    private String result;
+
+    /**
+     * 대상 레포지토리 ("owner/name", 처리한 경우)
+     */
+    private String repository;
+
+    /**
+     * 만료시킨 캐시 항목 수
+     */
+    private Integer expiredEntries;
+
+    /**
+     * 즉시 동기화한 태그 구독 수
+     */
+    private Integer refreshedSubscriptions;
+
+    /**
+     * 처리 결과를 생성한다.
+     *
+     * @param event                  이벤트
+     * @param action                 action
+     * @param repository             레포지토리
+     * @param expiredEntries         만료시킨 캐시 항목 수
+     * @param refreshedSubscriptions 즉시 동기화한 구독 수
+     * @return WebhookResult
+     */
+    public static WebhookResult processed(String event, String action, String repository, int expiredEntries,
+                                          int refreshedSubscriptions) {
+        WebhookResult result = new WebhookResult();
+        result.setEvent(event);
+        result.setAction(action);
+        result.setResult("processed");
+        result.setRepository(repository);
+        result.setExpiredEntries(expiredEntries);
+        result.setRefreshedSubscriptions(refreshedSubscriptions);
+        return result;
+    }
+
+    /**
+     * 처리 대상이 아닌 이벤트의 결과를 생성한다.
+     *
+     * @param event  이벤트
+     * @param action action
+     * @return WebhookResult
+     */
+    public static WebhookResult ignored(String event, String action) {
+        WebhookResult result = new WebhookResult();
+        result.setEvent(event);
+        result.setAction(action);
+        result.setResult("ignored");
+        return result;
+    }
+}
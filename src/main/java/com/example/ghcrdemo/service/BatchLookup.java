@@ -0,0 +1,94 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 배치 조회(태그 목록, 매니페스트 참조) 공통 처리.
+ * <p>
+ * 같은 키는 한 번만 조회하고, `batch.concurrency` 만큼 병렬로 조회하되 결과는 요청 순서대로 모은다.
+ * 키 하나의 실패는 배치 전체를 실패시키지 않고 키별 오류 상태({@link Failure})로 바뀐다.
+ */
+@Slf4j
+final class BatchLookup {
+
+    private BatchLookup() {
+    }
+
+    /**
+     * 키마다 조회를 실행하고 결과를 요청 순서대로 모은다.
+     *
+     * @param keys    조회할 키 (중복은 한 번만 조회)
+     * @param lookup  키 하나의 조회 (키 하나의 제한 시간은 `batch.repository-timeout`)
+     * @param failure 실패를 결과로 바꾸는 함수 (키, 변환된 실패)
+     * @param batch   배치 설정
+     * @param <T>     키별 결과 타입
+     * @return Mono\<List\<T\>\> 요청 순서대로 정렬된 키별 결과
+     */
+    static <T> Mono<List<T>> run(Flux<String> keys, Function<String, Mono<T>> lookup,
+                                 BiFunction<String, Failure, T> failure, GhcrProperties.Batch batch) {
+        return keys.distinct()
+                .flatMapSequential(key -> recover(key, Mono.defer(() -> lookup.apply(key))
+                        .timeout(batch.getRepositoryTimeout()), failure), batch.getConcurrency())
+                .collectList();
+    }
+
+    /**
+     * 키 하나의 조회 실패를 키별 결과로 바꾼다 (순서 없는 스트리밍 조회용).
+     *
+     * @param key     조회 키
+     * @param result  조회 결과
+     * @param failure 실패를 결과로 바꾸는 함수 (키, 변환된 실패)
+     * @param <T>     키별 결과 타입
+     * @return Mono\<T\> 성공 또는 실패 결과
+     */
+    static <T> Mono<T> recover(String key, Mono<T> result, BiFunction<String, Failure, T> failure) {
+        return result.onErrorResume(error -> {
+            log.warn("Batch lookup failed for {}: {}", key, error.getMessage());
+            return Mono.just(failure.apply(key, Failure.of(error)));
+        });
+    }
+
+    /**
+     * 키별 실패의 HTTP 상태 코드와 메시지. 컨트롤러의 예외 처리와 같은 상태 코드를 사용한다.
+     *
+     * @param status  HTTP 상태 코드
+     * @param message 오류 메시지
+     */
+    record Failure(int status, String message) {
+
+        /**
+         * 오류를 상태 코드로 변환한다.
+         *
+         * @param error 발생한 오류
+         * @return Failure 변환된 실패
+         */
+        static Failure of(Throwable error) {
+            if (error instanceof IllegalArgumentException) {
+                return new Failure(HttpStatus.BAD_REQUEST.value(), error.getMessage());
+            }
+            if (error instanceof WebClientResponseException e) {
+                return new Failure(e.getStatusCode().value(), "GHCR API error: " + e.getMessage());
+            }
+            if (error instanceof RateLimitExceededException) {
+                return new Failure(HttpStatus.TOO_MANY_REQUESTS.value(), error.getMessage());
+            }
+            if (error instanceof TimeoutException) {
+                return new Failure(HttpStatus.GATEWAY_TIMEOUT.value(), "Timed out");
+            }
+            if (error instanceof UpstreamBusyException) {
+                return new Failure(HttpStatus.SERVICE_UNAVAILABLE.value(), error.getMessage());
+            }
+            return new Failure(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error: " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.ghcrdemo.service;
+
+import java.time.Duration;
+
+/**
+ * 업스트림 호스트 하나의 서킷 브레이커.
+ * <p>
+ * 최근 `window`개 호출의 실패율이 기준 이상이면 열고(OPEN), 열린 동안은 호출을 허용하지 않는다.
+ * `openDuration`이 지나면 반열림(HALF_OPEN)으로 바꿔 `halfOpenCalls`개의 시험 호출만 허용하고,
+ * 모두 성공하면 닫고(CLOSED) 하나라도 실패하면 다시 연다.
+ * 허용된 호출은 결과를 {@link #onSuccess}, {@link #onFailure}, {@link #onIgnored}(취소) 중 하나로 한 번 알려야 한다.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    /**
+     * 최근 호출 결과 (true = 실패), 원형 버퍼.
+     */
+    private final boolean[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(int window, int minimumCalls, double failureRate, Duration openDuration, int halfOpenCalls) {
+        this.outcomes = new boolean[Math.max(1, window)];
+        this.minimumCalls = minimumCalls;
+        this.failureRate = failureRate;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * 호출을 허용할지 결정한다.
+     *
+     * @return 허용 여부 (false면 호출하지 말 것)
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits == 0) {
+                    yield false;
+                }
+                halfOpenPermits--;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                state = State.CLOSED;
+                next = 0;
+                recorded = 0;
+                failures = 0;
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && failures >= failureRate * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * 결과 없이 끝난 호출(취소)의 허용을 반환한다.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * 다음 시험 호출까지 남은 시간을 반환한다 (닫혀 있으면 0).
+     *
+     * @return 남은 시간
+     */
+    synchronized Duration retryAfter() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)));
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.ghcrdemo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * 캐시에 오래 머무는 문자열 목록(태그, 레포지토리 이름)을 위한 메모리 절약형 불변 목록.
+ * <p>
+ * 서로 다른 문자열만 정렬해 하나의 byte 배열에 front coding(앞 항목과 같은 접두사는 길이만 기록)된
+ * UTF-8로 저장하고, 원래 순서는 항목별 사전 번호(int)로 기록한다 (정렬된 중복 없는 목록이면 생략).
+ * `sha-<40 hex>`처럼 소문자 16진수로만 이루어진 접미사는 두 글자를 한 byte로 묶는다.
+ * `v1.2.3`, `sha-...` 같은 태그가 String 객체(헤더 + 배열) 하나씩일 때보다 힙 사용량이 몇 배 줄어든다.
+ * <p>
+ * 문자열은 조회할 때 디코딩되므로, 응답 DTO에는 이 목록을 그대로 담아 직렬화 시점에만 디코딩되게 한다.
+ * 사전은 {@value #BLOCK_SIZE}개 단위 블록으로 나뉘며 블록 첫 항목은 접두사 없이 저장되므로
+ * {@link #get(int)}는 블록 안에서 최대 {@value #BLOCK_SIZE}개 항목을 복원한다. 순회는 순차적으로 복원한다.
+ */
+public final class CompactStringList extends AbstractList<String> {
+
+    private static final int BLOCK_SIZE = 16;
+
+    /**
+     * 이보다 짧은 16진수 접미사는 그대로 저장한다 (버전 숫자 등).
+     */
+    private static final int MIN_HEX_LENGTH = 8;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final CompactStringList EMPTY = new CompactStringList(new byte[0], new int[0], 0, null, 0);
+
+    /**
+     * 항목: varint(앞 항목과 공유하는 byte 수) + varint(접미사 길이 << 1 | 16진수 여부) + 접미사.
+     */
+    private final byte[] data;
+
+    /**
+     * 블록별 첫 항목의 data 위치.
+     */
+    private final int[] blockOffsets;
+
+    /**
+     * 서로 다른 문자열 수.
+     */
+    private final int dictionarySize;
+
+    /**
+     * 위치 → 사전 번호 (null이면 위치 = 사전 번호).
+     */
+    private final int[] order;
+
+    /**
+     * 가장 긴 항목의 UTF-8 길이 (복원 버퍼 크기).
+     */
+    private final int maxLength;
+
+    private CompactStringList(byte[] data, int[] blockOffsets, int dictionarySize, int[] order, int maxLength) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.dictionarySize = dictionarySize;
+        this.order = order;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * 순서와 중복을 그대로 유지하는 목록을 만든다.
+     *
+     * @param items 문자열 목록 (null 항목 불가)
+     * @return CompactStringList (이미 CompactStringList면 그대로 반환)
+     */
+    public static CompactStringList copyOf(Collection<String> items) {
+        if (items instanceof CompactStringList compact) {
+            return compact;
+        }
+        String[] values = items.toArray(String[]::new);
+        String[] dictionary = sortedUnique(values);
+        int[] order = null;
+        if (!Arrays.equals(values, dictionary)) {
+            order = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                order[i] = Arrays.binarySearch(dictionary, values[i]);
+            }
+        }
+        return encode(dictionary, order);
+    }
+
+    /**
+     * 정렬된 중복 없는 목록(집합)을 만든다.
+     *
+     * @param items 문자열 목록 (null 항목 불가)
+     * @return CompactStringList
+     */
+    public static CompactStringList sortedSetOf(Collection<String> items) {
+        if (items instanceof CompactStringList compact && compact.order == null) {
+            return compact;
+        }
+        return encode(sortedUnique(items.toArray(String[]::new)), null);
+    }
+
+    private static String[] sortedUnique(String[] values) {
+        String[] sorted = values.clone();
+        for (String value : sorted) {
+            Objects.requireNonNull(value, "item");
+        }
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (unique == 0 || !sorted[i].equals(sorted[unique - 1])) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+
+    private static CompactStringList encode(String[] dictionary, int[] order) {
+        if (dictionary.length == 0 && order == null) {
+            return EMPTY;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(dictionary.length * 8);
+        int[] blockOffsets = new int[(dictionary.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        byte[] previous = new byte[0];
+        int maxLength = 0;
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] current = dictionary[i].getBytes(StandardCharsets.UTF_8);
+            int shared = 0;
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = out.size();
+            } else {
+                int limit = Math.min(previous.length, current.length);
+                while (shared < limit && previous[shared] == current[shared]) {
+                    shared++;
+                }
+            }
+            int suffixLength = current.length - shared;
+            boolean hex = isHex(current, shared);
+            writeVarint(out, shared);
+            writeVarint(out, suffixLength << 1 | (hex ? 1 : 0));
+            if (hex) {
+                for (int j = shared; j < current.length; j += 2) {
+                    int high = Character.digit(current[j], 16);
+                    int low = j + 1 < current.length ? Character.digit(current[j + 1], 16) : 0;
+                    out.write(high << 4 | low);
+                }
+            } else {
+                out.write(current, shared, suffixLength);
+            }
+            previous = current;
+            maxLength = Math.max(maxLength, current.length);
+        }
+        return new CompactStringList(out.toByteArray(), blockOffsets, dictionary.length, order, maxLength);
+    }
+
+    private static boolean isHex(byte[] bytes, int from) {
+        if (bytes.length - from < MIN_HEX_LENGTH) {
+            return false;
+        }
+        for (int i = from; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (!(b >= '0' && b <= '9') && !(b >= 'a' && b <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @Override
+    public String get(int index) {
+        Objects.checkIndex(index, size());
+        return entry(order == null ? index : order[index]);
+    }
+
+    @Override
+    public int size() {
+        return order == null ? dictionarySize : order.length;
+    }
+
+    /**
+     * 서로 다른 문자열 수를 반환한다.
+     *
+     * @return 사전 크기
+     */
+    public int distinctSize() {
+        return dictionarySize;
+    }
+
+    /**
+     * 인코딩된 데이터의 대략적인 힙 사용량(byte)을 반환한다 (배열 내용 기준, 객체 헤더 제외).
+     *
+     * @return 힙 사용량 추정치
+     */
+    public long footprint() {
+        return data.length + 4L * blockOffsets.length + (order == null ? 0 : 4L * order.length);
+    }
+
+    /**
+     * 사전(정렬된 서로 다른 문자열)에서 문자열의 위치를 찾는다.
+     * 정렬된 집합({@link #sortedSetOf})이면 목록 위치와 같다.
+     *
+     * @param value 찾을 문자열
+     * @return 사전 번호, 없으면 (-(삽입 위치) - 1)
+     */
+    public int dictionarySearch(String value) {
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        // 마지막으로 value 이하인 블록
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = entry(mid * BLOCK_SIZE).compareTo(value);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return mid * BLOCK_SIZE;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        Cursor cursor = new Cursor(high * BLOCK_SIZE);
+        int end = Math.min(dictionarySize, (high + 1) * BLOCK_SIZE);
+        for (int id = high * BLOCK_SIZE; id < end; id++) {
+            int result = cursor.next().compareTo(value);
+            if (result == 0) {
+                return id;
+            }
+            if (result > 0) {
+                return -id - 1;
+            }
+        }
+        return -end - 1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof String value && dictionarySearch(value) >= 0;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        if (order != null) {
+            return super.iterator();
+        }
+        return new Iterator<>() {
+            private final Cursor cursor = new Cursor(0);
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < dictionarySize;
+            }
+
+            @Override
+            public String next() {
+                if (next >= dictionarySize) {
+                    throw new NoSuchElementException();
+                }
+                next++;
+                return cursor.next();
+            }
+        };
+    }
+
+    /**
+     * 사전 번호의 문자열을 복원한다.
+     */
+    private String entry(int id) {
+        Cursor cursor = new Cursor(id - id % BLOCK_SIZE);
+        for (int i = id % BLOCK_SIZE; i > 0; i--) {
+            cursor.skip();
+        }
+        return cursor.next();
+    }
+
+    /**
+     * 사전을 블록 첫 항목부터 순서대로 복원하는 커서.
+     */
+    private final class Cursor {
+
+        private final byte[] buffer = new byte[maxLength];
+        private int position;
+        private int length;
+
+        private Cursor(int blockStart) {
+            this.position = blockStart < dictionarySize ? blockOffsets[blockStart / BLOCK_SIZE] : data.length;
+        }
+
+        String next() {
+            skip();
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+
+        void skip() {
+            int shared = readVarint();
+            int header = readVarint();
+            int suffixLength = header >>> 1;
+            if ((header & 1) != 0) {
+                for (int i = 0; i < suffixLength; i++) {
+                    int packed = data[position + i / 2];
+                    buffer[shared + i] = HEX_DIGITS[(i % 2 == 0 ? packed >>> 4 : packed) & 0x0F];
+                }
+                position += (suffixLength + 1) / 2;
+            } else {
+                System.arraycopy(data, position, buffer, shared, suffixLength);
+                position += suffixLength;
+            }
+            length = shared + suffixLength;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.dto.AuthRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 인증 정보 기반 캐시 키 생성 유틸리티.
+ * PAT 원문이 캐시 키나 로그에 남지 않도록 SHA-256 해시로 변환한다.
+ */
+public final class CredentialKeys {
+
+    private CredentialKeys() {
+    }
+
+    /**
+     * 인증 정보(username, token)의 해시를 반환한다.
+     *
+     * @param authRequest 인증 정보
+     * @return 16진수 SHA-256 해시
+     */
+    public static String hash(AuthRequest authRequest) {
+        return hash(authRequest.getUsername(), authRequest.getToken());
+    }
+
+    /**
+     * 주어진 값들을 구분자(\0)로 이어 SHA-256 해시를 계산한다.
+     *
+     * @param parts 해시할 값 목록 (null은 빈 문자열로 처리)
+     * @return 16진수 SHA-256 해시
+     */
+    public static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.config.GhcrWebClients;
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GHCR Bearer 토큰 발급 및 캐시를 담당하는 서비스 클래스.
+ * (username, token, scope) 해시를 키로 토큰을 캐시하고, 만료 직전에 다시 발급받는다.
+ * 같은 키에 대한 동시 요청은 하나의 업스트림 호출을 공유한다 (single-flight).
+ */
+@Slf4j
+@Service
+public class GhcrTokenService {
+
+    /**
+     * JWT payload 파싱용 ObjectMapper 인스턴스.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 업스트림 호스트별 공유 WebClient.
+     */
+    private final GhcrWebClients webClients;
+
+    /**
+     * 토큰 캐시 설정.
+     */
+    private final GhcrProperties.TokenCache settings;
+
+    /**
+     * (username, token, scope) 해시 → 토큰 캐시.
+     * 크기 제한을 넘으면 오래 사용되지 않은 항목부터 제거된다.
+     */
+    private final AsyncCache<String, CachedToken> cache;
+
+    /**
+     * 업스트림 토큰 발급 횟수.
+     */
+    private final LongAdder refreshCount = new LongAdder();
+
+    public GhcrTokenService(GhcrWebClients webClients, GhcrProperties ghcrProperties) {
+        this.webClients = webClients;
+        this.settings = ghcrProperties.getTokenCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfter(new TokenExpiry(settings.getRefreshSkew()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * 주어진 scope에 대한 GHCR Bearer 토큰을 반환한다.
+     * 캐시에 유효한 토큰이 있으면 업스트림 호출 없이 반환한다.
+     *
+     * @param authRequest 인증 정보
+     * @param scope       요청할 scope (예: repository:owner/repo:pull)
+     * @return Mono\<String\> 토큰 문자열
+     */
+    public Mono<String> getToken(AuthRequest authRequest, String scope) {
+        String key = CredentialKeys.hash(authRequest.getUsername(), authRequest.getToken(), scope);
+        // 구독 취소가 공유 중인 발급 요청까지 취소하지 않도록 suppressCancel 사용
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> fetchToken(authRequest, scope).toFuture()), true)
+                .map(CachedToken::token);
+    }
+
+    /**
+     * 특정 인증 정보/scope의 캐시된 토큰을 제거한다 (예: 401 응답 시).
+     *
+     * @param authRequest 인증 정보
+     * @param scope       scope
+     */
+    public void invalidate(AuthRequest authRequest, String scope) {
+        cache.synchronous().invalidate(CredentialKeys.hash(authRequest.getUsername(), authRequest.getToken(), scope));
+    }
+
+    /**
+     * 캐시 통계(hit/miss/refresh, 현재 크기)를 반환한다.
+     *
+     * @return TokenCacheStats
+     */
+    public TokenCacheStats stats() {
+        CacheStats stats = cache.synchronous().stats();
+        return new TokenCacheStats(stats.hitCount(), stats.missCount(), refreshCount.sum(),
+                cache.synchronous().estimatedSize());
+    }
+
+    /**
+     * GHCR 토큰 엔드포인트를 직접 호출해 Bearer 토큰을 받아온다.
+     *
+     * @param authRequest 인증 정보
+     * @param scope       요청할 scope
+     * @return Mono\<CachedToken\> 토큰과 만료 시각
+     */
+    private Mono<CachedToken> fetchToken(AuthRequest authRequest, String scope) {
+        String encodedToken = Base64.getEncoder()
+                .encodeToString((authRequest.getUsername() + ":" + authRequest.getToken()).getBytes(StandardCharsets.UTF_8));
+
+        return webClients.getTokenClient().get()
+                .uri(uriBuilder -> uriBuilder
+                        .queryParam("service", "ghcr.io")
+                        .queryParam("scope", scope)
+                        .build())
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + encodedToken)
+                .attribute(UpstreamMetrics.CALL_ATTRIBUTE, "token")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .doOnSubscribe(subscription -> refreshCount.increment())
+                .map(jsonNode -> {
+                    String token = jsonNode.get("token").asText();
+                    return new CachedToken(token, resolveExpiry(jsonNode, token));
+                });
+    }
+
+    /**
+     * 토큰 만료 시각을 결정한다.
+     * 우선순위: 응답의 `expires_in` → JWT `exp` 클레임 → 기본 TTL.
+     *
+     * @param response 토큰 응답 JSON
+     * @param token    토큰 문자열
+     * @return 만료 시각
+     */
+    private Instant resolveExpiry(JsonNode response, String token) {
+        Instant now = Instant.now();
+        JsonNode expiresIn = response.get("expires_in");
+        if (expiresIn != null && expiresIn.canConvertToLong() && expiresIn.asLong() > 0) {
+            return now.plusSeconds(expiresIn.asLong());
+        }
+        Instant jwtExpiry = parseJwtExpiry(token);
+        if (jwtExpiry != null) {
+            return jwtExpiry;
+        }
+        return now.plus(settings.getDefaultTtl());
+    }
+
+    /**
+     * 토큰이 JWT 형식이면 `exp` 클레임을 읽는다.
+     *
+     * @param token 토큰 문자열
+     * @return 만료 시각, JWT가 아니거나 `exp`가 없으면 null
+     */
+    private Instant parseJwtExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+            JsonNode exp = claims.get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            log.debug("Bearer token is not a parsable JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 캐시된 토큰과 만료 시각.
+     *
+     * @param token     토큰 문자열
+     * @param expiresAt 만료 시각
+     */
+    record CachedToken(String token, Instant expiresAt) {
+    }
+
+    /**
+     * 토큰 캐시 통계.
+     *
+     * @param hitCount     캐시 hit 횟수
+     * @param missCount    캐시 miss 횟수
+     * @param refreshCount 업스트림 토큰 발급 횟수
+     * @param size         현재 캐시 항목 수 (추정치)
+     */
+    public record TokenCacheStats(long hitCount, long missCount, long refreshCount, long size) {
+    }
+
+    /**
+     * 토큰 만료 시각보다 `refreshSkew`만큼 먼저 항목을 만료시키는 Expiry 구현.
+     */
+    private record TokenExpiry(Duration refreshSkew) implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt()).minus(refreshSkew);
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
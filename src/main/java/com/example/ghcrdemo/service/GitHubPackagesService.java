@@ -1,23 +1,39 @@
 package com.example.ghcrdemo.service;
 
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.config.GhcrWebClients;
 import com.example.ghcrdemo.dto.AuthRequest;
+import com.example.ghcrdemo.dto.BatchTagResult;
+import com.example.ghcrdemo.dto.BatchTagsResponse;
 import com.example.ghcrdemo.dto.GhcrCatalogResponse;
 import com.example.ghcrdemo.dto.GhcrTagsResponse;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * GitHub 패키지(및 GHCR) 관련 API 호출을 담당하는 서비스 클래스.
  * 동기 및 비동기 방식으로 레포지토리 목록(catalog)과 태그 목록(tags)을 조회하는 기능 제공.
+ * 모든 목록 조회는 페이지네이션을 끝까지 따라가며, GitHub API는 마지막 페이지가 확인되면 나머지 페이지를 병렬로 조회한다.
+ * GitHub API 목록 응답은 전체를 메모리에 올리지 않고 필요한 필드만 스트리밍으로 추출한다.
+ * 조회 결과는 {@link ResponseCache}에 보관되며, TTL이 지나면 페이지별 `ETag`로 조건부 재검증한다.
+ * 동기 조회는 캐시 로더(실제 업스트림 로드)에서만 {@link UpstreamCallLimiter} 한도를 점유하므로,
+ * 캐시 hit와 진행 중인 로드에 합류한 요청은 한도를 기다리지 않는다.
  */
 @Slf4j
 @Service
@@ -25,9 +41,50 @@ import java.util.List;
 public class GitHubPackagesService {
 
     /**
-     * JSON 파싱용 ObjectMapper 인스턴스.
+     * 패키지 목록 응답에서 `name`, `owner.login`만 스트리밍으로 추출해 "owner/name"을 만드는 추출기.
      */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final JsonArrayStreamExtractor<String> PACKAGES_EXTRACTOR = new JsonArrayStreamExtractor<>(
+            List.of("name", "owner.login"),
+            element -> element.value(0) != null && element.value(1) != null
+                    ? element.value(1) + "/" + element.value(0)
+                    : null);
+
+    /**
+     * 버전 목록 응답에서 `id`, `metadata.container.tags`만 스트리밍으로 추출하는 추출기.
+     */
+    private static final JsonArrayStreamExtractor<VersionTags> VERSIONS_EXTRACTOR = new JsonArrayStreamExtractor<>(
+            List.of("id", "metadata.container.tags"),
+            element -> new VersionTags(element.value(0), element.values(1)));
+
+    /**
+     * 업스트림 호스트별 공유 WebClient (커넥션 풀 재사용).
+     */
+    private final GhcrWebClients webClients;
+
+    /**
+     * GHCR Bearer 토큰 발급/캐시 서비스.
+     */
+    private final GhcrTokenService tokenService;
+
+    /**
+     * 카탈로그/태그 목록 응답 캐시.
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * 태그 목록별 조회 색인.
+     */
+    private final TagIndexCache tagIndexCache;
+
+    /**
+     * 동기 엔드포인트의 업스트림 동시 호출 제한.
+     */
+    private final UpstreamCallLimiter upstreamCallLimiter;
+
+    /**
+     * GHCR 관련 설정 프로퍼티 (페이지네이션/캐시 설정 포함).
+     */
+    private final GhcrProperties ghcrProperties;
 
     /**
      * GitHub API를 호출해 사용자의 컨테이너 패키지 목록을 동기적으로 반환한다.
@@ -38,32 +95,24 @@ public class GitHubPackagesService {
     public GhcrCatalogResponse getCatalog(AuthRequest authRequest) {
         log.info("Fetching GitHub packages catalog for user: {}", authRequest.getUsername());
 
-        WebClient authWebClient = createAuthenticatedWebClient(authRequest);
-
-        String response = authWebClient.get()
-                .uri("/users/{username}/packages?package_type=container", authRequest.getUsername())
-                .retrieve()
-                .bodyToMono(String.class)
-                .doOnError(error -> log.error("Error fetching GitHub packages catalog: {}", error.getMessage()))
+        return fetchRepositories(authRequest, load -> upstreamCallLimiter.limit(authRequest, load))
+                .map(this::toCatalogResponse)
                 .block();
-
-        return parsePackagesResponse(response);
     }
 
     /**
      * 주어진 repository에 대해 태그 목록을 동기적으로 조회한다.
      * repository가 "owner/name" 형태가 아니면 authRequest의 username을 owner로 사용한다.
+     * query가 있으면 태그 목록의 색인({@link TagIndex})으로 필터/정렬/개수 제한을 적용한다.
      *
      * @param repository  "owner/package" 또는 "package"
      * @param authRequest 인증 정보
+     * @param query       태그 조회 조건 (null이면 전체 목록, 최신 버전 우선)
      * @return GhcrTagsResponse 태그 목록 DTO
      */
-    public GhcrTagsResponse getTags(String repository, AuthRequest authRequest) {
+    public GhcrTagsResponse getTags(String repository, AuthRequest authRequest, TagQuery query) {
         log.info("Fetching tags for repository: {} for user: {}", repository, authRequest.getUsername());
 
-        // ghcr.io/v2 대신 api.github.com을 사용하여 일관성을 유지합니다.
-        WebClient restWebClient = createAuthenticatedWebClient(authRequest);
-
         // repository 이름에서 owner와 package_name 분리
         String[] parts = repository.split("/");
         String owner = parts.length > 1 ? parts[0] : authRequest.getUsername();
@@ -71,46 +120,19 @@ public class GitHubPackagesService {
 
         // GitHub REST API: /users/{org}/packages/container/{package_name}/versions
         // 이 API는 해당 컨테이너의 모든 버전(태그 포함) 정보를 JSON으로 반환합니다.
-        return restWebClient.get()
-                .uri("/users/{owner}/packages/container/{packageName}/versions", owner, packageName)
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(jsonNode -> {
-                    // 버전(metadata) 목록에서 태그를 추출
-                    List<String> tags = new ArrayList<>();
-                    if (jsonNode.isArray()) {
-                        for (JsonNode version : jsonNode) {
-                            JsonNode metadata = version.get("metadata");
-                            if (metadata != null && metadata.has("container")) {
-                                JsonNode containerNode = metadata.get("container");
-                                if (containerNode != null) {
-                                    JsonNode tagsNode = containerNode.get("tags");
-                                    if (tagsNode != null && tagsNode.isArray()) {
-                                        for (JsonNode t : tagsNode) {
-                                            String tag = t.asText();
-                                            tags.add(tag);
-                                            log.debug("Found tag='{}' for {}/{} (version={})",
-                                                    tag, owner, packageName,
-                                                    version.has("id") ? version.get("id").asText() : "unknown");
-                                        }
-                                    } else {
-                                        log.debug("No tags array in container metadata for {}/{} (version={})",
-                                                owner, packageName,
-                                                version.has("id") ? version.get("id").asText() : "unknown");
-                                    }
-                                } else {
-                                    log.debug("No container metadata for {}/{} (version={})",
-                                            owner, packageName,
-                                            version.has("id") ? version.get("id").asText() : "unknown");
-                                }
-                            }
-                        }
-                    }
-                    GhcrTagsResponse response = new GhcrTagsResponse();
-                    response.setName(repository);
-                    response.setTags(tags);
-                    return response;
-                })
+        // ghcr.io/v2 대신 api.github.com을 사용하여 일관성을 유지합니다.
+        GitHubListing versions = new GitHubListing("versions",
+                uriBuilder -> uriBuilder.path("/users/{owner}/packages/container/{packageName}/versions"),
+                new Object[]{owner, packageName},
+                response -> VERSIONS_EXTRACTOR.extract(response.bodyToFlux(DataBuffer.class))
+                        .concatMapIterable(version -> logVersionTags(version, owner, packageName)));
+
+        return responseCache.getPages(
+                        ResponseCache.key(authRequest, "versions:" + owner + "/" + packageName),
+                        ghcrProperties.getCache().getTagsTtl(),
+                        stale -> upstreamCallLimiter.limit(authRequest, loadGitHubListing(authRequest, versions, stale)))
+                .transform(pages -> selectTags(pages, query))
+                .map(tags -> toTagsResponse(repository, tags))
                 .block();
     }
 
@@ -121,42 +143,35 @@ public class GitHubPackagesService {
      * @return Mono\<GhcrCatalogResponse\> 비동기 응답
      */
     public Mono<GhcrCatalogResponse> getCatalogAsync(AuthRequest authRequest) {
-        WebClient authWebClient = createAuthenticatedWebClient(authRequest);
-        return authWebClient.get()
-                .uri("/users/{username}/packages?package_type=container", authRequest.getUsername())
-                .retrieve()
-                .bodyToMono(String.class)
-                .doOnError(error -> log.error("Error fetching GitHub packages catalog: {}", error.getMessage()))
-                .map(this::parsePackagesResponse);
+        return fetchRepositories(authRequest)
+                .map(this::toCatalogResponse);
     }
 
     /**
      * 비동기 방식으로 repository의 태그를 조회한다.
      * GHCR에서 직접 Bearer 토큰을 받아 ghcr.io/v2 엔드포인트로 요청한다.
+     * `tags/list`의 `Link: rel="next"`를 따라 `last=` 기준으로 모든 페이지를 순차 조회한다.
+     * 캐시 hit 시에는 토큰 발급과 태그 조회 모두 생략된다.
+     * 조회 실패 시 빈 태그 목록을 반환하지만, Rate Limit 초과({@link RateLimitExceededException})와
+     * 업스트림 장애({@link UpstreamUnavailableException}: 서킷 열림, 제한 시간 초과)는 그대로 전파한다.
+     * query가 있으면 태그 목록의 색인({@link TagIndex})으로 필터/정렬/개수 제한을 적용한다.
      *
      * @param repository  "owner/package" 또는 "package"
      * @param authRequest 인증 정보
+     * @param query       태그 조회 조건 (null이면 전체 목록, 이름순)
      * @return Mono\<GhcrTagsResponse\> 비동기 응답
      */
-    public Mono<GhcrTagsResponse> getTagsAsync(String repository, AuthRequest authRequest) {
-        String repoToUse = repository.contains("/") ? repository : authRequest.getUsername() + "/" + repository;
-
-        return getGhcrBearerTokenAsync(authRequest, repoToUse)
-                .flatMap(bearerToken ->
-                        WebClient.builder()
-                                .baseUrl("https://ghcr.io/v2")
-                                .defaultHeader("Authorization", "Bearer " + bearerToken)
-                                .defaultHeader("Accept", "application/json")
-                                .build()
-                                .get()
-                                .uri("/{repository}/tags/list", repoToUse)
-                                .retrieve()
-                                .bodyToMono(GhcrTagsResponse.class)
-                                .doOnSuccess(response -> log.info("Tags fetched successfully for {}: {} tags", repoToUse,
-                                        response.getTags() != null ? response.getTags().size() : 0))
-                )
-                .onErrorResume(error -> {
-                    // 실패 시 빈 응답 반환
+    public Mono<GhcrTagsResponse> getTagsAsync(String repository, AuthRequest authRequest, TagQuery query) {
+        String repoToUse = qualifyRepository(repository, authRequest);
+
+        return fetchRegistryTagPages(repoToUse, authRequest)
+                .transform(pages -> selectTags(pages, query))
+                .map(tags -> toTagsResponse(repoToUse, tags))
+                .doOnSuccess(response -> log.info("Tags fetched successfully for {}: {} tags", repoToUse,
+                        response.getTags().size()))
+                .onErrorResume(error -> !(error instanceof RateLimitExceededException
+                        || error instanceof UpstreamUnavailableException || error instanceof TagQueryTimeoutException), error -> {
+                    // 실패 시 빈 응답 반환 (Rate Limit/업스트림 장애는 호출자가 재시도할 수 있도록, 조건 시간 초과는 400으로 그대로 전파)
                     log.error("Failed to fetch tags for {}: {}", repoToUse, error.getMessage());
                     GhcrTagsResponse emptyResponse = new GhcrTagsResponse();
                     emptyResponse.setName(repoToUse);
@@ -166,87 +181,541 @@ public class GitHubPackagesService {
     }
 
     /**
-     * API에서 받은 JSON 문자열을 파싱해 GhcrCatalogResponse로 변환한다.
+     * 여러 레포지토리의 태그를 한 번에 비동기로 조회한다.
+     * <p>
+     * `getTagsAsync`와 같은 GHCR 경로를 사용하며, 동시 요청 수는 `batch.concurrency`로 제한된다.
+     * 레포지토리마다 `batch.repository-timeout`이 적용되어 느린 레포지토리가 전체 응답을 붙잡지 않는다.
+     * 실패는 빈 태그가 아니라 레포지토리별 오류 상태로 반환된다.
+     * 중복 레포지토리는 한 번만 조회하며, 토큰은 GhcrTokenService 캐시를 통해 공유된다.
+     *
+     * @param repositories 레포지토리 목록 ("owner/package" 또는 "package")
+     * @param authRequest  인증 정보
+     * @return Mono\<BatchTagsResponse\> 요청 순서대로 정렬된 레포지토리별 결과
+     */
+    public Mono<BatchTagsResponse> getTagsBatch(List<String> repositories, AuthRequest authRequest) {
+        GhcrProperties.Batch batch = ghcrProperties.getBatch();
+        log.info("Fetching tags for {} repositories for user: {}", repositories.size(), authRequest.getUsername());
+
+        return BatchLookup.run(Flux.fromIterable(repositories).map(repository -> qualifyRepository(repository, authRequest)),
+                        repoToUse -> fetchRegistryTagList(repoToUse, authRequest)
+                                .map(tags -> BatchTagResult.success(repoToUse, tags)),
+                        GitHubPackagesService::toBatchFailure,
+                        batch)
+                .map(results -> {
+                    BatchTagsResponse response = new BatchTagsResponse();
+                    response.setResults(results);
+                    response.setSucceeded((int) results.stream().filter(result -> result.getStatus() == 200).count());
+                    response.setFailed(results.size() - response.getSucceeded());
+                    return response;
+                });
+    }
+
+    /**
+     * 사용자의 전체 인벤토리(레포지토리 + 태그)를 스트리밍으로 조회한다.
+     * <p>
+     * 카탈로그를 조회한 뒤 레포지토리별 태그를 `batch.concurrency` 만큼 병렬로 조회하고,
+     * 완료되는 순서대로 즉시 방출한다 (순서 보장 없음).
+     * 구독이 취소되면(클라이언트 연결 종료) 진행 중인 업스트림 호출도 함께 취소되며,
+     * 하위 구독자의 요청량만큼만 새 레포지토리 조회를 시작한다.
+     *
+     * @param authRequest 인증 정보
+     * @return Flux\<BatchTagResult\> 레포지토리별 태그 결과 스트림
+     */
+    public Flux<BatchTagResult> streamInventory(AuthRequest authRequest) {
+        GhcrProperties.Batch batch = ghcrProperties.getBatch();
+        log.info("Streaming inventory for user: {}", authRequest.getUsername());
+
+        return fetchRepositories(authRequest)
+                .flatMapIterable(repositories -> repositories)
+                .flatMap(repository -> BatchLookup.recover(repository, fetchRegistryTagList(repository, authRequest)
+                        .timeout(batch.getRepositoryTimeout())
+                        .map(tags -> BatchTagResult.success(repository, tags)), GitHubPackagesService::toBatchFailure),
+                        batch.getConcurrency())
+                .doOnCancel(() -> log.info("Inventory stream cancelled for user: {}", authRequest.getUsername()));
+    }
+
+    /**
+     * 레지스트리 `tags/list`로 태그 목록을 조회한다 (캐시 사용, 오류는 그대로 전파).
+     * 캐시 hit 시에는 토큰 발급과 태그 조회 모두 생략된다.
+     * {@link TagSyncEngine}의 백그라운드 동기화도 이 경로를 사용한다.
      *
-     * @param response JSON 문자열
-     * @return GhcrCatalogResponse 파싱 결과
+     * @param repoToUse   "owner/package"
+     * @param authRequest 인증 정보
+     * @return Mono\<List\<String\>\> 태그 목록
+     */
+    Mono<List<String>> fetchRegistryTagList(String repoToUse, AuthRequest authRequest) {
+        return fetchRegistryTagPages(repoToUse, authRequest).map(ResponseCache::flatten);
+    }
+
+    /**
+     * {@link #fetchRegistryTagList}와 같지만 캐시된 페이지 목록을 그대로 반환한다 (색인 재사용용).
+     *
+     * @param repoToUse   "owner/package"
+     * @param authRequest 인증 정보
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록
+     */
+    private Mono<List<ListingPage>> fetchRegistryTagPages(String repoToUse, AuthRequest authRequest) {
+        return responseCache.getPages(ResponseCache.key(authRequest, "registry-tags:" + repoToUse),
+                ghcrProperties.getCache().getTagsTtl(),
+                stale -> getGhcrBearerTokenAsync(authRequest, repoToUse)
+                        .flatMap(bearerToken -> loadRegistryListing(repoToUse, bearerToken, stale))
+                        // 토큰이 거부되면 캐시에서 제거해 다음 요청이 새로 발급받도록 한다
+                        .doOnError(WebClientResponseException.Unauthorized.class,
+                                e -> tokenService.invalidate(authRequest, pullScope(repoToUse)))
+                        .contextWrite(RateLimitScheduler.withCredential(authRequest)));
+    }
+
+    /**
+     * 조회 조건이 있으면 태그 색인으로 선택하고, 없으면 전체 목록을 반환한다.
+     * 색인은 페이지 목록(태그 집합의 버전)마다 한 번만 만든다.
+     * `regex` 조건은 평가가 제한 시간까지 걸릴 수 있으므로 이벤트 루프 밖(`boundedElastic`)에서 평가한다.
+     *
+     * @param pages 캐시된 페이지 목록
+     * @param query 조회 조건 (null 가능)
+     * @return Mono\<List\<String\>\> 태그 목록 (`regex` 시간 초과는 {@link TagQueryTimeoutException})
      */
-    private GhcrCatalogResponse parsePackagesResponse(String response) {
-        try {
-            JsonNode root = objectMapper.readTree(response);
-            List<String> repositories = new ArrayList<>();
+    private Mono<List<String>> selectTags(Mono<List<ListingPage>> pages, TagQuery query) {
+        if (query == null) {
+            return pages.map(ResponseCache::flatten);
+        }
+        return (query.hasRegex() ? pages.publishOn(Schedulers.boundedElastic()) : pages)
+                .map(loaded -> tagIndexCache.get(loaded).select(query));
+    }
+
+    private static BatchTagResult toBatchFailure(String repository, BatchLookup.Failure failure) {
+        return BatchTagResult.failure(repository, failure.status(), failure.message());
+    }
+
+    /**
+     * "name" 형태의 레포지토리를 "owner/name"으로 바꾼다 (owner = 요청 username).
+     *
+     * @param repository  "owner/package" 또는 "package"
+     * @param authRequest 인증 정보
+     * @return "owner/package"
+     */
+    String qualifyRepository(String repository, AuthRequest authRequest) {
+        return repository.contains("/") ? repository : authRequest.getUsername() + "/" + repository;
+    }
 
-            if (root != null && root.isArray()) {
-                for (JsonNode packageNode : root) {
-                    String packageName = packageNode.get("name").asText();
-                    String owner = packageNode.get("owner").get("login").asText();
-                    repositories.add(owner + "/" + packageName);
-                }
+    /**
+     * 사용자의 컨테이너 패키지 목록을 모든 페이지에 걸쳐 "owner/name" 형태로 조회한다 (캐시 사용).
+     *
+     * @param authRequest 인증 정보
+     * @return Mono\<List\<String\>\> 레포지토리 이름 목록 (페이지 순서 유지)
+     */
+    private Mono<List<String>> fetchRepositories(AuthRequest authRequest) {
+        return fetchRepositories(authRequest, Function.identity());
+    }
+
+    /**
+     * {@link #fetchRepositories(AuthRequest)}와 같지만 캐시 로더(실제 업스트림 로드)를 감싼다 (동기 조회의 실행 한도용).
+     *
+     * @param authRequest 인증 정보
+     * @param limit       업스트림 로드 → 감싼 로드
+     * @return Mono\<List\<String\>\> "owner/name" 목록
+     */
+    private Mono<List<String>> fetchRepositories(AuthRequest authRequest,
+                                                 Function<Mono<List<ListingPage>>, Mono<List<ListingPage>>> limit) {
+        GitHubListing packages = new GitHubListing("catalog",
+                uriBuilder -> uriBuilder.path("/users/{username}/packages")
+                        .queryParam("package_type", "container"),
+                new Object[]{authRequest.getUsername()},
+                response -> PACKAGES_EXTRACTOR.extract(response.bodyToFlux(DataBuffer.class))
+                        // 빈 페이지로 바꾸면 ETag와 함께 캐시되어 304 재검증마다 잘린 목록이 유지되므로 오류를 그대로 전달
+                        .doOnError(DecodingException.class,
+                                e -> log.error("Error parsing packages response: {}", e.getMessage(), e)));
+
+        return responseCache.get(ResponseCache.key(authRequest, "catalog:" + authRequest.getUsername()),
+                        ghcrProperties.getCache().getCatalogTtl(),
+                        stale -> limit.apply(loadGitHubListing(authRequest, packages, stale)))
+                .doOnError(error -> log.error("Error fetching GitHub packages catalog: {}", error.getMessage()));
+    }
+
+    /**
+     * GitHub API 목록을 조회한다.
+     * 이전 페이지 목록이 있고 모든 페이지에 `ETag`가 있으면 조건부 재검증을, 아니면 전체 조회를 한다.
+     *
+     * @param authRequest 인증 정보
+     * @param listing     목록 리소스
+     * @param stale       만료된 이전 페이지 목록 (없으면 null)
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록 (변경 없으면 `stale` 그대로)
+     */
+    private Mono<List<ListingPage>> loadGitHubListing(AuthRequest authRequest, GitHubListing listing,
+                                                      List<ListingPage> stale) {
+        Mono<List<ListingPage>> pages = stale == null || stale.stream().anyMatch(page -> page.etag() == null)
+                ? fetchGitHubPages(authRequest, listing).collectList()
+                : revalidateGitHubPages(authRequest, listing, stale);
+        return pages.contextWrite(RateLimitScheduler.withCredential(authRequest));
+    }
+
+    /**
+     * GitHub REST API 목록 리소스를 모든 페이지에 걸쳐 조회한다.
+     * <p>
+     * 첫 페이지 응답의 `Link: rel="last"`로 마지막 페이지 번호를 알 수 있으면
+     * 나머지 페이지를 `pagination.concurrency` 만큼 병렬로 조회한다.
+     * `last` 없이 `next`만 있으면 순차적으로 따라간다.
+     * 결과는 페이지 순서대로 방출되며, 동시에 보관되는 페이지는 병렬도 이내로 제한된다.
+     * 페이지 수가 `pagination.max-pages`를 넘으면 그 페이지까지만 조회하고 경고를 남긴다.
+     *
+     * @param authRequest 인증 정보
+     * @param listing     목록 리소스
+     * @return Flux\<ListingPage\> 모든 페이지
+     */
+    private Flux<ListingPage> fetchGitHubPages(AuthRequest authRequest, GitHubListing listing) {
+        GhcrProperties.Pagination pagination = ghcrProperties.getPagination();
+        return fetchGitHubPage(authRequest, listing, 1, null).flatMapMany(first -> {
+            int lastPage = Math.min(first.lastPage(), pagination.getMaxPages());
+            if (first.lastPage() > pagination.getMaxPages()) {
+                log.warn("Truncating {} listing at page limit {} ({} pages available)", listing.call(),
+                        pagination.getMaxPages(), first.lastPage());
+            }
+            if (lastPage > 1) {
+                log.debug("Fetching {} remaining pages with concurrency {}", lastPage - 1, pagination.getConcurrency());
+                return Flux.just(first.page()).concatWith(Flux.range(2, lastPage - 1)
+                        .flatMapSequential(page -> fetchGitHubPage(authRequest, listing, page, null)
+                                .map(PageResult::page), pagination.getConcurrency()));
             }
+            if (lastPage < 0 && first.hasNext()) {
+                return Flux.just(first.page()).concatWith(fetchGitHubPagesSequentially(authRequest, listing, 2));
+            }
+            return Flux.just(first.page());
+        });
+    }
+
+    /**
+     * `rel="last"`가 없는 응답을 위해 `rel="next"`를 따라 페이지를 순차 조회한다.
+     *
+     * @param authRequest 인증 정보
+     * @param listing     목록 리소스
+     * @param page        조회할 페이지 번호
+     * @return Flux\<ListingPage\> 해당 페이지 이후 모든 페이지
+     */
+    private Flux<ListingPage> fetchGitHubPagesSequentially(AuthRequest authRequest, GitHubListing listing, int page) {
+        if (page > ghcrProperties.getPagination().getMaxPages()) {
+            log.warn("Truncating {} listing at page limit {}", listing.call(),
+                    ghcrProperties.getPagination().getMaxPages());
+            return Flux.empty();
+        }
+        return fetchGitHubPage(authRequest, listing, page, null).flatMapMany(result -> result.hasNext()
+                ? Flux.just(result.page()).concatWith(fetchGitHubPagesSequentially(authRequest, listing, page + 1))
+                : Flux.just(result.page()));
+    }
+
+    /**
+     * 캐시된 페이지들을 `If-None-Match`로 병렬 재검증한다.
+     * <p>
+     * - 모든 페이지가 304: 이전 목록 유지 (마지막 페이지가 가득 차 있으면 다음 페이지가 생겼는지 확인)
+     * - 일부 페이지만 변경되고 페이지 수가 같음: 변경된 페이지만 교체
+     * - 페이지 수가 바뀜: 전체 다시 조회
+     *
+     * @param authRequest 인증 정보
+     * @param listing     목록 리소스
+     * @param stale       이전 페이지 목록
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록 (변경 없으면 `stale` 그대로)
+     */
+    private Mono<List<ListingPage>> revalidateGitHubPages(AuthRequest authRequest, GitHubListing listing,
+                                                          List<ListingPage> stale) {
+        return Flux.fromIterable(stale)
+                .flatMapSequential(page -> fetchGitHubPage(authRequest, listing, Integer.parseInt(page.cursor()),
+                        page.etag()), ghcrProperties.getPagination().getConcurrency())
+                .collectList()
+                .flatMap(results -> {
+                    if (results.stream().allMatch(PageResult::notModified)) {
+                        ListingPage lastCached = stale.get(stale.size() - 1);
+                        if (lastCached.items().size() < ghcrProperties.getPagination().getPerPage()
+                                || stale.size() >= ghcrProperties.getPagination().getMaxPages()) {
+                            return Mono.just(stale);
+                        }
+                        // 마지막 페이지가 가득 차 있으면 다음 페이지가 새로 생겼는지 확인
+                        return fetchGitHubPage(authRequest, listing, stale.size() + 1, null)
+                                .flatMap(probe -> probe.page().items().isEmpty()
+                                        ? Mono.just(stale)
+                                        : fetchGitHubPages(authRequest, listing).collectList());
+                    }
+                    boolean samePageCount = true;
+                    List<ListingPage> merged = new ArrayList<>(stale.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        PageResult result = results.get(i);
+                        if (!result.notModified() && result.pageCount(i + 1) != stale.size()) {
+                            samePageCount = false;
+                        }
+                        merged.add(result.notModified() ? stale.get(i) : result.page());
+                    }
+                    if (samePageCount) {
+                        log.debug("Revalidated listing: {} of {} pages changed",
+                                results.stream().filter(result -> !result.notModified()).count(), stale.size());
+                        return Mono.just(merged);
+                    }
+                    return fetchGitHubPages(authRequest, listing).collectList();
+                });
+    }
+
+    /**
+     * GitHub REST API의 한 페이지를 조회한다.
+     * `etag`가 주어지면 조건부 요청을 보내고 304는 변경 없음으로 반환한다.
+     * 오류 상태 코드는 `retrieve()`와 동일하게 WebClientResponseException으로 변환한다.
+     *
+     * @param authRequest 인증 정보
+     * @param listing     목록 리소스
+     * @param page        페이지 번호 (1부터 시작)
+     * @param etag        이전 응답의 `ETag` (없으면 null)
+     * @return Mono\<PageResult\> 페이지 조회 결과
+     */
+    private Mono<PageResult> fetchGitHubPage(AuthRequest authRequest, GitHubListing listing, int page, String etag) {
+        return webClients.getGithubApiClient().get()
+                .uri(uriBuilder -> listing.resource().apply(uriBuilder)
+                        .queryParam("per_page", ghcrProperties.getPagination().getPerPage())
+                        .queryParam("page", page)
+                        .build(listing.uriVariables()))
+                .attribute(UpstreamMetrics.CALL_ATTRIBUTE, listing.call())
+                .headers(headers -> {
+                    applyGitHubAuth(headers, authRequest);
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(PageResult.NOT_MODIFIED);
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return listing.decoder().apply(response)
+                            .collectList()
+                            .map(items -> new PageResult(new ListingPage(String.valueOf(page), headers.getETag(), items),
+                                    false, LinkHeader.lastPage(headers), LinkHeader.hasRel(headers, "next"), null));
+                });
+    }
+
+    /**
+     * 레지스트리 태그 목록을 조회한다.
+     * 이전 페이지 목록이 있고 모든 페이지에 `ETag`가 있으면 조건부 재검증을, 아니면 전체 조회를 한다.
+     * 재검증 결과 하나라도 바뀌었거나 마지막 페이지가 가득 차 있으면 `last` 기준 위치가 바뀔 수 있으므로 전체 조회한다.
+     *
+     * @param repository  "owner/package"
+     * @param bearerToken GHCR Bearer 토큰
+     * @param stale       만료된 이전 페이지 목록 (없으면 null)
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록 (변경 없으면 `stale` 그대로)
+     */
+    private Mono<List<ListingPage>> loadRegistryListing(String repository, String bearerToken,
+                                                        List<ListingPage> stale) {
+        if (stale == null || stale.stream().anyMatch(page -> page.etag() == null)
+                || stale.get(stale.size() - 1).items().size() >= ghcrProperties.getPagination().getRegistryPageSize()) {
+            return fetchRegistryTags(repository, bearerToken).collectList();
+        }
+        return Flux.fromIterable(stale)
+                .flatMapSequential(page -> fetchRegistryTagsPage(repository, bearerToken, page.cursor(), page.etag()),
+                        ghcrProperties.getPagination().getConcurrency())
+                .all(PageResult::notModified)
+                .flatMap(notModified -> notModified
+                        ? Mono.just(stale)
+                        : fetchRegistryTags(repository, bearerToken).collectList());
+    }
+
+    /**
+     * 레지스트리 `tags/list`를 `n`/`last` 파라미터로 끝까지 순차 조회한다.
+     * `pagination.max-pages`에 이르렀는데 다음 페이지가 남아 있으면 경고를 남기고 멈춘다.
+     *
+     * @param repository  "owner/package"
+     * @param bearerToken GHCR Bearer 토큰
+     * @return Flux\<ListingPage\> 페이지 스트림
+     */
+    private Flux<ListingPage> fetchRegistryTags(String repository, String bearerToken) {
+        int maxPages = ghcrProperties.getPagination().getMaxPages();
+        return Flux.defer(() -> {
+            AtomicInteger fetched = new AtomicInteger(1);
+            return fetchRegistryTagsPage(repository, bearerToken, null, null)
+                    .expand(result -> {
+                        if (result.nextCursor() == null) {
+                            return Mono.empty();
+                        }
+                        if (fetched.getAndIncrement() >= maxPages) {
+                            log.warn("Truncating tags-list of {} at page limit {}", repository, maxPages);
+                            return Mono.empty();
+                        }
+                        return fetchRegistryTagsPage(repository, bearerToken, result.nextCursor(), null);
+                    })
+                    .map(PageResult::page);
+        });
+    }
 
-            GhcrCatalogResponse catalogResponse = new GhcrCatalogResponse();
-            catalogResponse.setRepositories(repositories);
-            return catalogResponse;
-        } catch (Exception e) {
-            log.error("Error parsing packages response: {}", e.getMessage(), e);
-            GhcrCatalogResponse errorResponse = new GhcrCatalogResponse();
-            errorResponse.setRepositories(new ArrayList<>());
-            return errorResponse;
+    /**
+     * 레지스트리 `tags/list`의 한 페이지를 조회한다.
+     *
+     * @param repository  "owner/package"
+     * @param bearerToken GHCR Bearer 토큰
+     * @param last        이전 페이지의 마지막 태그 (첫 페이지는 null)
+     * @param etag        이전 응답의 `ETag` (없으면 null)
+     * @return Mono\<PageResult\> 페이지 태그와 다음 페이지 시작점
+     */
+    private Mono<PageResult> fetchRegistryTagsPage(String repository, String bearerToken, String last, String etag) {
+        return webClients.getRegistryClient().get()
+                .uri(uriBuilder -> {
+                    uriBuilder.pathSegment(repository.split("/"))
+                            .pathSegment("tags", "list")
+                            .queryParam("n", ghcrProperties.getPagination().getRegistryPageSize());
+                    if (last != null) {
+                        uriBuilder.queryParam("last", last);
+                    }
+                    return uriBuilder.build();
+                })
+                .attribute(UpstreamMetrics.CALL_ATTRIBUTE, "tags-list")
+                .headers(headers -> {
+                    headers.setBearerAuth(bearerToken);
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(PageResult.NOT_MODIFIED);
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    String next = LinkHeader.parse(headers).get("next");
+                    String nextLast = next != null ? LinkHeader.queryParam(next, "last") : null;
+                    return response.bodyToMono(GhcrTagsResponse.class)
+                            .map(body -> body.getTags() != null ? body.getTags() : List.<String>of())
+                            .defaultIfEmpty(List.of())
+                            .map(tags -> new PageResult(new ListingPage(last, headers.getETag(), tags),
+                                    false, -1, nextLast != null, nextLast));
+                });
+    }
+
+    /**
+     * 버전 하나에서 추출한 태그를 디버그 로그로 남기고 반환한다.
+     *
+     * @param version     버전별 태그
+     * @param owner       패키지 소유자
+     * @param packageName 패키지 이름
+     * @return 태그 목록
+     */
+    private List<String> logVersionTags(VersionTags version, String owner, String packageName) {
+        if (log.isDebugEnabled()) {
+            String versionId = version.id() != null ? version.id() : "unknown";
+            if (version.tags().isEmpty()) {
+                log.debug("No tags in container metadata for {}/{} (version={})", owner, packageName, versionId);
+            }
+            for (String tag : version.tags()) {
+                log.debug("Found tag='{}' for {}/{} (version={})", tag, owner, packageName, versionId);
+            }
         }
+        return version.tags();
     }
 
     /**
-     * 인증 헤더(token)를 포함한 WebClient를 생성한다 (GitHub API용).
+     * 레포지토리 목록으로 GhcrCatalogResponse를 만든다.
      *
+     * @param repositories 레포지토리 이름 목록
+     * @return GhcrCatalogResponse
+     */
+    private GhcrCatalogResponse toCatalogResponse(List<String> repositories) {
+        GhcrCatalogResponse catalogResponse = new GhcrCatalogResponse();
+        catalogResponse.setRepositories(repositories);
+        return catalogResponse;
+    }
+
+    /**
+     * 레포지토리 이름과 태그 목록으로 GhcrTagsResponse를 만든다.
+     *
+     * @param repository 레포지토리 이름
+     * @param tags       태그 목록
+     * @return GhcrTagsResponse
+     */
+    private GhcrTagsResponse toTagsResponse(String repository, List<String> tags) {
+        GhcrTagsResponse response = new GhcrTagsResponse();
+        response.setName(repository);
+        response.setTags(tags);
+        return response;
+    }
+
+    /**
+     * GitHub API용 인증 헤더(token)를 요청 헤더에 설정한다.
+     * 공유 클라이언트를 사용하므로 인증 정보는 요청 단위로 지정한다.
+     *
+     * @param headers     요청 헤더
      * @param authRequest 인증 정보
-     * @return WebClient 구성된 클라이언트
      */
-    private WebClient createAuthenticatedWebClient(AuthRequest authRequest) {
-        return WebClient.builder()
-                .baseUrl("https://api.github.com")
-                .defaultHeader("Authorization", "token " + authRequest.getToken())
-                .defaultHeader("Accept", "application/vnd.github.v3+json")
-                .build();
+    private void applyGitHubAuth(HttpHeaders headers, AuthRequest authRequest) {
+        headers.set(HttpHeaders.AUTHORIZATION, "token " + authRequest.getToken());
     }
 
     /**
      * GHCR에서 사용할 Bearer 토큰을 비동기 방식으로 발급받는다.
-     * 내부적으로 getBearerTokenDirect를 호출한다.
+     * 내부적으로 GhcrTokenService의 토큰 캐시를 사용한다. {@link ManifestService}도 이 경로를 사용한다.
      *
      * @param authRequest 인증 정보
      * @param repository  "owner/package"
      * @return Mono\<String\> 발급된 토큰
      */
-    private Mono<String> getGhcrBearerTokenAsync(AuthRequest authRequest, String repository) {
-        String repoScope = "repository:" + repository + ":pull";
-        return getBearerTokenDirect(authRequest, repoScope)
+    Mono<String> getGhcrBearerTokenAsync(AuthRequest authRequest, String repository) {
+        return tokenService.getToken(authRequest, pullScope(repository))
                 .doOnSuccess(token -> log.debug("GHCR Bearer token obtained for {} (len={})", repository, token.length()))
                 .doOnError(e -> log.error("Bearer token failed for {}: {}", repository, e.getMessage()));
     }
 
     /**
-     * GHCR 토큰 엔드포인트를 직접 호출해 Bearer 토큰을 받아온다.
+     * 레포지토리 pull scope 문자열을 만든다.
      *
-     * @param authRequest 인증 정보
-     * @param scope       요청할 scope (예: repository:owner/repo:pull)
-     * @return Mono\<String\> 토큰 문자열
+     * @param repository "owner/package"
+     * @return scope (예: repository:owner/repo:pull)
+     */
+    static String pullScope(String repository) {
+        return "repository:" + repository + ":pull";
+    }
+
+    /**
+     * GitHub REST API 목록 리소스 정의.
+     *
+     * @param call         호출 종류 (메트릭 태그)
+     * @param resource     리소스 경로/쿼리를 지정하는 함수 (per_page, page는 자동 추가)
+     * @param uriVariables 경로 변수 값
+     * @param decoder      한 페이지 응답을 항목 스트림으로 변환하는 함수
      */
-    private Mono<String> getBearerTokenDirect(AuthRequest authRequest, String scope) {
-        // GitHub 토큰 서비스 직접 호출 (fallback)
-        String encodedToken = java.util.Base64.getEncoder()
-                .encodeToString((authRequest.getUsername() + ":" + authRequest.getToken()).getBytes(StandardCharsets.UTF_8));
+    private record GitHubListing(String call,
+                                 Function<UriBuilder, UriBuilder> resource,
+                                 Object[] uriVariables,
+                                 Function<ClientResponse, Flux<String>> decoder) {
+    }
 
-        return WebClient.builder()
-                .baseUrl("https://ghcr.io/token")
-                .defaultHeader("Authorization", "Basic " + encodedToken)
-                .build()
-                .get()
-                .uri(uriBuilder -> uriBuilder
-                        .queryParam("service", "ghcr.io")
-                        .queryParam("scope", scope)
-                        .build())
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(jsonNode -> jsonNode.get("token").asText());
+    /**
+     * 한 페이지 조회 결과.
+     *
+     * @param page        페이지 (304면 null)
+     * @param notModified 조건부 요청 결과 변경 없음(304) 여부
+     * @param lastPage    `Link: rel="last"`의 페이지 번호 (없으면 -1)
+     * @param hasNext     `Link: rel="next"` 존재 여부
+     * @param nextCursor  레지스트리 다음 페이지 `last` 값 (없으면 null)
+     */
+    private record PageResult(ListingPage page, boolean notModified, int lastPage, boolean hasNext,
+                              String nextCursor) {
+
+        static final PageResult NOT_MODIFIED = new PageResult(null, true, -1, false, null);
+
+        /**
+         * 응답 헤더로 알 수 있는 전체 페이지 수.
+         *
+         * @param pageNumber 이 결과의 페이지 번호
+         * @return 페이지 수, 알 수 없으면 -1
+         */
+        int pageCount(int pageNumber) {
+            if (lastPage > 0) {
+                return lastPage;
+            }
+            return hasNext ? -1 : pageNumber;
+        }
+    }
+
+    /**
+     * 패키지 버전 하나의 id와 태그 목록.
+     *
+     * @param id   버전 id
+     * @param tags `metadata.container.tags` 값
+     */
+    private record VersionTags(String id, List<String> tags) {
     }
 }
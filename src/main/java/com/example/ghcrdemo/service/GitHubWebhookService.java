@@ -0,0 +1,179 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.dto.WebhookResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GitHub `package` / `registry_package` 웹훅을 받아 해당 레포지토리의 캐시 항목만 갱신하는 서비스.
+ * <p>
+ * `X-Hub-Signature-256`(요청 본문의 HMAC-SHA256)을 `webhook.secret`으로 검증한 뒤,
+ * 컨테이너 패키지의 `published`/`updated` 이벤트에 대해 다음을 수행한다.
+ * <ul>
+ *     <li>모든 인증 정보의 `registry-tags:owner/name`, `versions:owner/name` 캐시 항목 만료
+ *     (`published`는 `catalog:owner`도 만료)</li>
+ *     <li>{@link TagSyncEngine}에 등록된 해당 레포지토리 구독 즉시 동기화</li>
+ *     <li>{@link ManifestService}의 해당 레포지토리 태그 → digest 확인 결과 제거 (digest 참조는 유지)</li>
+ * </ul>
+ * 만료된 항목은 `ETag`를 유지하므로 다음 조회는 조건부 요청이 된다.
+ * 같은 이벤트가 다시 전달되어도 결과는 같다.
+ */
+@Slf4j
+@Service
+public class GitHubWebhookService {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final Set<String> HANDLED_ACTIONS = Set.of("published", "updated");
+
+    private final GhcrProperties.Webhook settings;
+    private final ResponseCache responseCache;
+    private final TagSyncEngine tagSyncEngine;
+    private final ManifestService manifestService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder ignoredCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public GitHubWebhookService(GhcrProperties ghcrProperties, ResponseCache responseCache,
+                                TagSyncEngine tagSyncEngine, ManifestService manifestService) {
+        this.settings = ghcrProperties.getWebhook();
+        this.responseCache = responseCache;
+        this.tagSyncEngine = tagSyncEngine;
+        this.manifestService = manifestService;
+        if (!isEnabled()) {
+            log.info("GitHub webhook receiver disabled (webhook.secret not set)");
+        }
+    }
+
+    /**
+     * 웹훅 비밀 값이 설정되어 있는지 확인한다. 없으면 모든 웹훅을 거부한다.
+     *
+     * @return 설정 여부
+     */
+    public boolean isEnabled() {
+        return settings.getSecret() != null && !settings.getSecret().isBlank();
+    }
+
+    /**
+     * `X-Hub-Signature-256` 헤더를 검증한다 (상수 시간 비교).
+     *
+     * @param body      요청 본문 원문
+     * @param signature 헤더 값 (`sha256=<hex>`)
+     * @return 서명이 일치하면 true
+     */
+    public boolean verify(byte[] body, String signature) {
+        if (!isEnabled() || signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            rejectedCount.increment();
+            return false;
+        }
+        byte[] expected = sign(settings.getSecret(), body);
+        byte[] actual;
+        try {
+            actual = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            rejectedCount.increment();
+            return false;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            rejectedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 검증된 웹훅을 처리한다.
+     *
+     * @param event `X-GitHub-Event` 헤더 값
+     * @param body  요청 본문 원문
+     * @return WebhookResult 처리 결과
+     * @throws IllegalArgumentException 본문이 JSON이 아니거나 패키지 정보가 없는 경우
+     */
+    public WebhookResult handle(String event, byte[] body) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid webhook payload: " + e.getMessage(), e);
+        }
+        String action = root.path("action").asText(null);
+        JsonNode pkg = switch (event == null ? "" : event) {
+            case "package" -> root.path("package");
+            case "registry_package" -> root.path("registry_package");
+            default -> null;
+        };
+        if (pkg == null || !HANDLED_ACTIONS.contains(action)
+                || !"container".equalsIgnoreCase(pkg.path("package_type").asText())) {
+            ignoredCount.increment();
+            log.debug("Ignored webhook: event={} action={}", event, action);
+            return WebhookResult.ignored(event, action);
+        }
+        String owner = pkg.path("owner").path("login").asText("");
+        String name = pkg.path("name").asText("");
+        if (owner.isEmpty() || name.isEmpty()) {
+            throw new IllegalArgumentException("Webhook payload has no package owner/name");
+        }
+        String repository = owner + "/" + name;
+        int expired = responseCache.expire("registry-tags:" + repository)
+                + responseCache.expire("versions:" + repository)
+                + manifestService.expireTags(repository);
+        if ("published".equals(action)) {
+            expired += responseCache.expire("catalog:" + owner);
+        }
+        int refreshed = tagSyncEngine.refresh(repository);
+        processedCount.increment();
+        log.info("Webhook {} {} for {}: expired {} cache entries, refreshed {} subscriptions",
+                event, action, repository, expired, refreshed);
+        return WebhookResult.processed(event, action, repository, expired, refreshed);
+    }
+
+    /**
+     * 본문의 HMAC-SHA256 서명을 계산한다.
+     *
+     * @param secret 웹훅 비밀 값
+     * @param body   요청 본문
+     * @return 서명 바이트
+     */
+    static byte[] sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(body);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * 웹훅 처리 통계를 반환한다.
+     *
+     * @return WebhookStats
+     */
+    public WebhookStats stats() {
+        return new WebhookStats(processedCount.sum(), ignoredCount.sum(), rejectedCount.sum());
+    }
+
+    /**
+     * 웹훅 처리 통계.
+     *
+     * @param processedCount 캐시를 갱신한 웹훅 수
+     * @param ignoredCount   처리 대상이 아닌 이벤트 수
+     * @param rejectedCount  서명 검증 실패 수
+     */
+    public record WebhookStats(long processedCount, long ignoredCount, long rejectedCount) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ghcrdemo.service;
+
+import reactor.util.context.Context;
+
+import java.util.function.Function;
+
+/**
+ * hedged 요청이 바깥 필터의 실행 허가(Rate Limit 예산, 테넌트 공정 대기열 슬롯)를 하나 더 받기 위한 훅.
+ * <p>
+ * {@link RateLimitScheduler}와 {@link TenantScheduler}가 안쪽 호출의 구독 컨텍스트에 넣고,
+ * {@link UpstreamResilience}가 두 번째 요청을 보내기 직전에 사용한다. hedged 요청은 선택 사항이므로
+ * 기다리지 않고 바로 얻을 수 있을 때만 허가하며, 하나라도 얻지 못하면 보내지 않는다.
+ */
+@FunctionalInterface
+interface HedgePermits {
+
+    /**
+     * 허가 훅을 담는 Reactor 컨텍스트 키.
+     */
+    String CONTEXT_KEY = HedgePermits.class.getName();
+
+    /**
+     * 허가를 바로 얻을 수 있으면 얻는다.
+     *
+     * @return 허가 반납 함수 (한 번만 호출), 얻지 못하면 null
+     */
+    Runnable tryAcquire();
+
+    /**
+     * 컨텍스트의 기존 훅(바깥 필터)에 이 훅을 더한다 (`contextWrite`에 사용).
+     * 바깥 훅부터 얻고, 안쪽 훅을 얻지 못하면 바깥 허가를 반납한다.
+     *
+     * @param permits 추가할 훅
+     * @return 컨텍스트 변환 함수
+     */
+    static Function<Context, Context> add(HedgePermits permits) {
+        return context -> {
+            HedgePermits outer = context.getOrDefault(CONTEXT_KEY, null);
+            if (outer == null) {
+                return context.put(CONTEXT_KEY, permits);
+            }
+            HedgePermits both = () -> {
+                Runnable outerRelease = outer.tryAcquire();
+                if (outerRelease == null) {
+                    return null;
+                }
+                Runnable innerRelease = permits.tryAcquire();
+                if (innerRelease == null) {
+                    outerRelease.run();
+                    return null;
+                }
+                return () -> {
+                    innerRelease.run();
+                    outerRelease.run();
+                };
+            };
+            return context.put(CONTEXT_KEY, both);
+        };
+    }
+}
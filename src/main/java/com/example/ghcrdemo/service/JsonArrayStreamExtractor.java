@@ -0,0 +1,336 @@
+package com.example.ghcrdemo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 최상위 JSON 배열 응답을 DataBuffer 스트림에서 점진적으로 파싱하는 추출기.
+ * <p>
+ * Jackson non-blocking 파서로 버퍼가 도착하는 대로 토큰을 읽고,
+ * 배열의 각 원소(객체)에서 지정한 경로(예: `owner.login`, `metadata.container.tags`)의 값만 모은다.
+ * 원소가 끝날 때마다 결과를 방출하므로 응답 전체를 String/JsonNode로 올리지 않으며
+ * `maxInMemorySize` 제한에도 걸리지 않는다.
+ * 지정 경로와 무관한 하위 객체/배열은 값을 만들지 않고 건너뛴다.
+ *
+ * @param <T> 원소별 추출 결과 타입
+ */
+public final class JsonArrayStreamExtractor<T> {
+
+    /**
+     * non-blocking 파서 생성용 JsonFactory (스레드 안전).
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 원소 객체 기준 추출 경로 트리.
+     */
+    private final PathNode root = new PathNode();
+
+    /**
+     * 추출 경로 수.
+     */
+    private final int pathCount;
+
+    /**
+     * 원소별 추출 값 → 결과 변환 함수 (null 반환 시 해당 원소는 건너뜀).
+     */
+    private final Function<Element, T> mapper;
+
+    /**
+     * 추출기를 생성한다.
+     *
+     * @param paths  원소 객체 기준 점(.) 구분 경로 목록. {@link Element}에서 같은 순서의 인덱스로 조회한다.
+     * @param mapper 원소별 추출 값 → 결과 변환 함수
+     */
+    public JsonArrayStreamExtractor(List<String> paths, Function<Element, T> mapper) {
+        for (int i = 0; i < paths.size(); i++) {
+            PathNode node = root;
+            for (String name : paths.get(i).split("\\.")) {
+                node = node.children.computeIfAbsent(name, k -> new PathNode());
+            }
+            node.index = i;
+        }
+        this.pathCount = paths.size();
+        this.mapper = mapper;
+    }
+
+    /**
+     * 응답 바디 스트림에서 원소별 결과를 추출한다.
+     * 전달받은 DataBuffer는 파싱 후 즉시 해제된다.
+     *
+     * @param body 응답 바디 DataBuffer 스트림
+     * @return Flux\<T\> 원소별 추출 결과 (원소 순서 유지)
+     */
+    public Flux<T> extract(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            ParseState state = new ParseState();
+            return body.concatMapIterable(buffer -> {
+                        try {
+                            return state.feed(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(state.finish())))
+                    .doFinally(signal -> state.close());
+        });
+    }
+
+    /**
+     * 바이트 배열 전체를 동기적으로 파싱한다 (벤치마크/오프라인 재생용).
+     *
+     * @param json JSON 바이트
+     * @return 원소별 추출 결과 목록
+     */
+    public List<T> extract(byte[] json) {
+        ParseState state = new ParseState();
+        try {
+            List<T> results = new ArrayList<>(state.feed(json, 0, json.length));
+            results.addAll(state.finish());
+            return results;
+        } finally {
+            state.close();
+        }
+    }
+
+    /**
+     * 배열 원소 하나에서 추출한 값.
+     * 경로별로 첫 번째 값 또는 전체 값 목록을 조회할 수 있다.
+     */
+    public static final class Element {
+
+        /**
+         * 경로 인덱스별 값 (String 또는 List\<String\>).
+         */
+        private final Object[] slots;
+
+        private Element(int pathCount) {
+            this.slots = new Object[pathCount];
+        }
+
+        /**
+         * 경로의 첫 번째 값을 반환한다.
+         *
+         * @param index 경로 인덱스
+         * @return 값, 없으면 null
+         */
+        @SuppressWarnings("unchecked")
+        public String value(int index) {
+            Object slot = slots[index];
+            if (slot instanceof List<?> list) {
+                return list.isEmpty() ? null : ((List<String>) list).get(0);
+            }
+            return (String) slot;
+        }
+
+        /**
+         * 경로의 모든 값을 반환한다 (배열 경로용).
+         *
+         * @param index 경로 인덱스
+         * @return 값 목록, 없으면 빈 목록
+         */
+        @SuppressWarnings("unchecked")
+        public List<String> values(int index) {
+            Object slot = slots[index];
+            if (slot == null) {
+                return List.of();
+            }
+            return slot instanceof List<?> list ? (List<String>) list : List.of((String) slot);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void add(int index, String value) {
+            Object slot = slots[index];
+            if (slot == null) {
+                slots[index] = value;
+            } else if (slot instanceof List<?> list) {
+                ((List<String>) list).add(value);
+            } else {
+                List<String> list = new ArrayList<>(4);
+                list.add((String) slot);
+                list.add(value);
+                slots[index] = list;
+            }
+        }
+    }
+
+    /**
+     * 추출 경로 트리 노드.
+     */
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private int index = -1;
+    }
+
+    /**
+     * 파싱 중인 컨테이너(객체/배열) 프레임.
+     *
+     * @param node  대응하는 경로 노드
+     * @param array 배열 여부
+     */
+    private record Frame(PathNode node, boolean array) {
+    }
+
+    /**
+     * 구독 하나에 대한 파서 상태.
+     */
+    private final class ParseState {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+        private String currentField;
+        private int skipDepth;
+        private int depth;
+        private Element element;
+
+        private ParseState() {
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to create non-blocking JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return feed(bytes, 0, bytes.length);
+        }
+
+        List<T> feed(byte[] bytes, int offset, int length) {
+            try {
+                feeder.feedInput(bytes, offset, offset + length);
+                return drain();
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+        }
+
+        List<T> finish() {
+            try {
+                feeder.endOfInput();
+                return drain();
+            } catch (IOException e) {
+                throw new DecodingException("JSON decoding error: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // 파서 종료 실패는 무시
+            }
+        }
+
+        private List<T> drain() throws IOException {
+            List<T> results = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                T result = onToken(token);
+                if (result != null) {
+                    if (results == null) {
+                        results = new ArrayList<>();
+                    }
+                    results.add(result);
+                }
+            }
+            return results != null ? results : List.of();
+        }
+
+        private T onToken(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return null;
+            }
+            switch (token) {
+                case FIELD_NAME -> currentField = parser.currentName();
+                case START_ARRAY, START_OBJECT -> onStructStart(token == JsonToken.START_ARRAY);
+                case END_ARRAY, END_OBJECT -> {
+                    return onStructEnd();
+                }
+                case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_TRUE, VALUE_FALSE -> onScalar();
+                default -> {
+                    // VALUE_NULL 등은 무시
+                }
+            }
+            return null;
+        }
+
+        private void onStructStart(boolean array) {
+            depth++;
+            if (depth == 1) {
+                // 최상위가 배열이 아니면(예: 오류 객체) 원소 없이 건너뜀
+                if (!array) {
+                    skipDepth = 1;
+                    depth--;
+                }
+                return;
+            }
+            if (depth == 2) {
+                if (array) {
+                    skipDepth = 1;
+                    depth--;
+                    return;
+                }
+                element = new Element(pathCount);
+                frames.push(new Frame(root, false));
+                return;
+            }
+            Frame parent = frames.peek();
+            PathNode node = parent.array() ? parent.node() : parent.node().children.get(currentField);
+            if (node == null || (node.children.isEmpty() && node.index < 0)) {
+                skipDepth = 1;
+                depth--;
+                return;
+            }
+            frames.push(new Frame(node, array));
+        }
+
+        private T onStructEnd() {
+            depth--;
+            if (depth == 0) {
+                return null;
+            }
+            frames.pop();
+            if (depth == 1) {
+                Element finished = element;
+                element = null;
+                return mapper.apply(finished);
+            }
+            return null;
+        }
+
+        private void onScalar() throws IOException {
+            Frame frame = frames.peek();
+            if (frame == null) {
+                return;
+            }
+            PathNode node = frame.array() ? frame.node() : frame.node().children.get(currentField);
+            if (node != null && node.index >= 0) {
+                element.add(node.index, parser.getText());
+            }
+        }
+    }
+}
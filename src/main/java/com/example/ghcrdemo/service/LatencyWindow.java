@@ -0,0 +1,56 @@
+package com.example.ghcrdemo.service;
+
+import java.util.Arrays;
+
+/**
+ * 최근 호출 지연 시간 표본과 백분위수.
+ * <p>
+ * 최근 `capacity`개 표본을 원형 버퍼로 보관하고, 백분위수는 표본이 일정 수 이상 바뀌었을 때만 다시 계산한다
+ * (조회마다 정렬하지 않음).
+ */
+final class LatencyWindow {
+
+    /**
+     * 이만큼 새 표본이 쌓이면 백분위수를 다시 계산한다.
+     */
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final long[] samples;
+    private final double quantile;
+    private final int minSamples;
+    private int next;
+    private int count;
+    private int sinceComputed;
+    private long cached = -1;
+
+    LatencyWindow(int capacity, double quantile, int minSamples) {
+        this.samples = new long[Math.max(1, capacity)];
+        this.quantile = quantile;
+        this.minSamples = Math.min(Math.max(1, minSamples), samples.length);
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        sinceComputed++;
+    }
+
+    /**
+     * 백분위수를 반환한다.
+     *
+     * @return 나노초, 표본이 부족하면 -1
+     */
+    synchronized long percentile() {
+        if (count < minSamples) {
+            return -1;
+        }
+        if (cached < 0 || sinceComputed >= RECOMPUTE_INTERVAL) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            cached = sorted[Math.clamp((long) Math.ceil(quantile * count) - 1, 0, count - 1)];
+            sinceComputed = 0;
+        }
+        return cached;
+    }
+}
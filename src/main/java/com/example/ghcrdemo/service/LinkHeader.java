@@ -0,0 +1,91 @@
+package com.example.ghcrdemo.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RFC 8288 `Link` 헤더 파싱 유틸리티.
+ * GitHub REST API(`rel="next"`, `rel="last"`)와 레지스트리 `tags/list`(`rel="next"`)의 페이지네이션에 사용한다.
+ */
+final class LinkHeader {
+
+    private LinkHeader() {
+    }
+
+    /**
+     * `Link` 헤더를 rel → URL 맵으로 파싱한다.
+     * 예: `<https://api.github.com/...&page=2>; rel="next", <...&page=5>; rel="last"`
+     *
+     * @param headers 응답 헤더
+     * @return rel → URL 맵 (헤더가 없으면 빈 맵)
+     */
+    static Map<String, String> parse(HttpHeaders headers) {
+        Map<String, String> links = new HashMap<>();
+        for (String header : headers.getOrEmpty(HttpHeaders.LINK)) {
+            for (String part : header.split(",")) {
+                int open = part.indexOf('<');
+                int close = part.indexOf('>', open + 1);
+                if (open < 0 || close < 0) {
+                    continue;
+                }
+                String url = part.substring(open + 1, close);
+                for (String param : part.substring(close + 1).split(";")) {
+                    String[] kv = param.trim().split("=", 2);
+                    if (kv.length == 2 && kv[0].trim().equals("rel")) {
+                        for (String rel : kv[1].replace("\"", "").trim().split("\\s+")) {
+                            links.put(rel, url);
+                        }
+                    }
+                }
+            }
+        }
+        return links;
+    }
+
+    /**
+     * `rel="last"` 링크의 `page` 파라미터로 마지막 페이지 번호를 구한다.
+     *
+     * @param headers 응답 헤더
+     * @return 마지막 페이지 번호, `last` 링크가 없으면 -1
+     */
+    static int lastPage(HttpHeaders headers) {
+        String last = parse(headers).get("last");
+        if (last == null) {
+            return -1;
+        }
+        String page = queryParam(last, "page");
+        try {
+            return page != null ? Integer.parseInt(page) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 지정한 rel 링크가 존재하는지 확인한다.
+     *
+     * @param headers 응답 헤더
+     * @param rel     rel 값 (예: next)
+     * @return 존재 여부
+     */
+    static boolean hasRel(HttpHeaders headers, String rel) {
+        return parse(headers).containsKey(rel);
+    }
+
+    /**
+     * URL에서 디코딩된 쿼리 파라미터 값을 꺼낸다.
+     *
+     * @param url  URL (절대 또는 상대 경로)
+     * @param name 파라미터 이름
+     * @return 파라미터 값, 없으면 null
+     */
+    static String queryParam(String url, String name) {
+        String value = UriComponentsBuilder.fromUriString(url).build().getQueryParams().getFirst(name);
+        return value != null ? UriUtils.decode(value, StandardCharsets.UTF_8) : null;
+    }
+}
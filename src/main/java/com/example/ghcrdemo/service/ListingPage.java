@@ -0,0 +1,19 @@
+package com.example.ghcrdemo.service;
+
+import java.util.List;
+
+/**
+ * 페이지네이션된 목록 응답의 한 페이지.
+ * 캐시에 페이지 단위로 보관되며, 만료 후에는 `ETag`로 페이지별 조건부 재검증을 한다.
+ * 항목은 {@link CompactStringList}로 압축해 보관한다.
+ *
+ * @param cursor 페이지 위치 (GitHub API: 페이지 번호, 레지스트리: `last` 값, 첫 페이지는 null 가능)
+ * @param etag   응답의 `ETag` (없으면 null)
+ * @param items  페이지 항목 (레포지토리 이름 또는 태그)
+ */
+public record ListingPage(String cursor, String etag, List<String> items) {
+
+    public ListingPage {
+        items = CompactStringList.copyOf(items);
+    }
+}
@@ -0,0 +1,547 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * 응답 캐시 항목을 로컬 파일에 보관하는 스냅샷 저장소.
+ * <p>
+ * 재시작 직후 캐시가 비어 전체 인벤토리 요청이 한꺼번에 업스트림으로 몰리는 것을 막기 위해 사용한다.
+ * 파일은 append-only 로그이며, 읽기는 memory-mapped 버퍼로 한다.
+ * <pre>
+ * header (32 bytes): magic "GHCRSNP1" | version | createdAt | reserved | CRC32(앞 24 bytes) | padding
+ * record:            length | CRC32(payload) | payload
+ * payload:           type(1=entry, 0=삭제, 2=재검증) | key | fetchedAt | pages(cursor, etag, items...)
+ * </pre>
+ * <ul>
+ *     <li>시작 시에는 헤더만 확인하고, 키 → 위치 색인은 처음 조회할 때 만든다.</li>
+ *     <li>같은 키는 마지막 기록이 유효하며, 끝부분의 잘린/손상된 기록은 버린다.</li>
+ *     <li>저장은 메모리에 모았다가 `snapshot.flush-interval`마다 파일 끝에 덧붙인다.</li>
+ *     <li>304 재검증은 페이지 없이 키와 조회 시각만 기록한다(재검증 기록). 변경 없는 목록도 재시작 후 복원된다.</li>
+ *     <li>기록 수가 유효 키 수의 `snapshot.compaction-ratio`배를 넘으면 유효 기록만 새 파일로 옮긴다.</li>
+ *     <li>`cache.max-stale`보다 오래된 항목은 복원하지 않는다.</li>
+ * </ul>
+ * 키에는 인증 정보 원문이 아닌 해시만 포함되며, 파일과 (새로 만드는) 디렉터리는 소유자만 접근할 수 있게 만든다.
+ * <p>
+ * {@link #save}, {@link #touch}, {@link #remove}는 잠금 없이 대기열에만 넣으므로 이벤트 루프에서 호출해도 된다.
+ * {@link #read}와 {@link #flush}는 파일 I/O(첫 조회 시 전체 색인, fsync, 압축)를 하므로 블로킹 스레드에서 호출해야 한다.
+ */
+@Slf4j
+@Component
+public class ListingSnapshotStore implements DisposableBean {
+
+    private static final long MAGIC = 0x4748_4352_534E_5031L; // "GHCRSNP1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte TYPE_TOMBSTONE = 0;
+    private static final byte TYPE_ENTRY = 1;
+    private static final byte TYPE_TOUCH = 2;
+
+    private final GhcrProperties.Snapshot settings;
+    private final Duration maxAge;
+    private final Path path;
+
+    /**
+     * 아직 파일에 쓰지 않은 변경 (키 → 변경). 잠금 없이 갱신한다.
+     */
+    private final Map<String, Change> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 키 → 파일 내 마지막 항목 기록 위치.
+     */
+    private final Map<String, Long> index = new HashMap<>();
+
+    /**
+     * 키 → 항목 기록 이후 재검증 기록의 조회 시각.
+     */
+    private final Map<String, Instant> touched = new HashMap<>();
+
+    private final LongAdder restoredCount = new LongAdder();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long appendPosition;
+    private long recordCount;
+    private boolean indexed;
+    private Disposable flusher;
+
+    public ListingSnapshotStore(GhcrProperties ghcrProperties) {
+        this.settings = ghcrProperties.getSnapshot();
+        this.maxAge = ghcrProperties.getCache().getMaxStale();
+        this.path = Path.of(settings.getPath());
+        if (settings.isEnabled()) {
+            open();
+            flusher = Flux.interval(settings.getFlushInterval(), Schedulers.boundedElastic())
+                    .subscribe(tick -> flush());
+        }
+    }
+
+    /**
+     * 스냅샷이 켜져 있는지 확인한다.
+     *
+     * @return `snapshot.enabled`
+     */
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * 스냅샷에서 항목을 읽는다. 파일 I/O를 하므로 이벤트 루프에서 호출하지 않는다.
+     *
+     * @param key 캐시 키
+     * @return 항목, 없거나 너무 오래되었으면 null
+     */
+    public Entry read(String key) {
+        Change unsaved = pending.get(key);
+        Entry entry;
+        if (unsaved != null && unsaved.type() != TYPE_TOUCH) {
+            entry = unsaved.entry();
+        } else {
+            entry = readFile(key);
+            if (entry != null && unsaved != null && unsaved.fetchedAt().isAfter(entry.fetchedAt())) {
+                entry = new Entry(key, entry.pages(), unsaved.fetchedAt());
+            }
+        }
+        if (entry == null || entry.fetchedAt().plus(maxAge).isBefore(Instant.now())) {
+            return null;
+        }
+        restoredCount.increment();
+        return entry;
+    }
+
+    private synchronized Entry readFile(String key) {
+        if (channel == null) {
+            return null;
+        }
+        ensureIndexed();
+        Long position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+        Entry entry = decode(record(position));
+        Instant touchedAt = touched.get(key);
+        return entry != null && touchedAt != null ? new Entry(key, entry.pages(), touchedAt) : entry;
+    }
+
+    /**
+     * 항목을 저장 대기열에 넣는다 (다음 flush 때 파일에 기록).
+     *
+     * @param key       캐시 키
+     * @param pages     페이지 목록
+     * @param fetchedAt 조회 시각
+     */
+    public void save(String key, List<ListingPage> pages, Instant fetchedAt) {
+        if (settings.isEnabled()) {
+            pending.put(key, new Change(TYPE_ENTRY, new Entry(key, pages, fetchedAt), fetchedAt));
+        }
+    }
+
+    /**
+     * 변경 없음(304)으로 재검증된 항목의 조회 시각을 갱신한다.
+     * 아직 기록되지 않은 항목이면 그 항목의 조회 시각을 바꾸고, 삭제 대기 중이면 무시한다.
+     *
+     * @param key       캐시 키
+     * @param fetchedAt 재검증 시각
+     */
+    public void touch(String key, Instant fetchedAt) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        pending.compute(key, (ignored, current) -> {
+            if (current == null || current.type() == TYPE_TOUCH) {
+                return new Change(TYPE_TOUCH, null, fetchedAt);
+            }
+            if (current.type() == TYPE_ENTRY) {
+                return new Change(TYPE_ENTRY, new Entry(key, current.entry().pages(), fetchedAt), fetchedAt);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * 항목 삭제를 기록한다.
+     *
+     * @param key 캐시 키
+     */
+    public void remove(String key) {
+        if (settings.isEnabled()) {
+            pending.put(key, new Change(TYPE_TOMBSTONE, null, null));
+        }
+    }
+
+    /**
+     * 대기 중인 변경을 파일 끝에 기록하고, 필요하면 압축한다.
+     * 기록하는 동안 들어온 변경은 대기열에 남아 다음 flush 때 기록된다.
+     */
+    public synchronized void flush() {
+        if (channel == null || pending.isEmpty()) {
+            return;
+        }
+        try {
+            ensureIndexed();
+            int written = 0;
+            for (Map.Entry<String, Change> item : List.copyOf(pending.entrySet())) {
+                String key = item.getKey();
+                Change change = item.getValue();
+                // 파일에 항목이 없는 키의 재검증 기록은 복원할 대상이 없으므로 생략
+                if (change.type() != TYPE_TOUCH || index.containsKey(key)) {
+                    ByteBuffer record = encode(key, change);
+                    long position = appendPosition;
+                    while (record.hasRemaining()) {
+                        appendPosition += channel.write(record, appendPosition);
+                    }
+                    apply(key, change.type(), position, change.fetchedAt());
+                    recordCount++;
+                    written++;
+                }
+                pending.remove(key, change);
+            }
+            channel.force(false);
+            log.debug("Snapshot flushed {} records ({} bytes)", written, appendPosition);
+            if (recordCount > Math.max(1_000, index.size() * settings.getCompactionRatio())) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 기록 하나를 색인에 반영한다.
+     */
+    private void apply(String key, byte type, long position, Instant fetchedAt) {
+        switch (type) {
+            case TYPE_ENTRY -> {
+                index.put(key, position);
+                touched.remove(key);
+            }
+            case TYPE_TOUCH -> {
+                if (index.containsKey(key)) {
+                    touched.put(key, fetchedAt);
+                }
+            }
+            default -> {
+                index.remove(key);
+                touched.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 통계를 반환한다.
+     *
+     * @return SnapshotStats
+     */
+    public synchronized SnapshotStats stats() {
+        return new SnapshotStats(index.size(), recordCount, appendPosition, restoredCount.sum());
+    }
+
+    @Override
+    public void destroy() {
+        if (flusher != null) {
+            flusher.dispose();
+        }
+        flush();
+        synchronized (this) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close snapshot {}: {}", path, e.getMessage());
+                }
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 파일을 열고 헤더를 확인한다. 없거나 손상되었으면 새로 만든다.
+     */
+    private void open() {
+        try {
+            if (path.getParent() != null) {
+                PrivateFiles.createDirectories(path.getParent());
+            }
+            PrivateFiles.createFile(path);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() >= HEADER_SIZE && headerVersion() == FORMAT_VERSION) {
+                appendPosition = channel.size();
+                log.info("Snapshot {} opened ({} bytes)", path, appendPosition);
+                return;
+            }
+            if (channel.size() > 0) {
+                log.warn("Snapshot {} has an invalid header; starting a new snapshot", path);
+            }
+            channel.truncate(0);
+            channel.write(header(), 0);
+            channel.force(true);
+            appendPosition = HEADER_SIZE;
+            indexed = true;
+        } catch (IOException e) {
+            log.warn("Snapshot disabled; cannot open {}: {}", path, e.getMessage());
+            channel = null;
+        }
+    }
+
+    /**
+     * 헤더의 형식 버전을 반환한다.
+     *
+     * @return 형식 버전, 헤더가 손상되었으면 -1
+     */
+    private int headerVersion() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, 24);
+        return header.getLong(0) == MAGIC && header.getInt(24) == (int) crc.getValue() ? header.getInt(8) : -1;
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putLong(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis()).putInt(0);
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, 24);
+        header.putInt((int) crc.getValue()).putInt(0);
+        return header.flip();
+    }
+
+    /**
+     * 파일 전체를 훑어 키 → 위치 색인을 만든다 (처음 한 번).
+     * 길이/CRC가 맞지 않는 기록을 만나면 그 위치부터 잘라낸다.
+     */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        try {
+            long size = channel.size();
+            ByteBuffer buffer = map(size);
+            long position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                int length = buffer.getInt((int) position);
+                int checksum = buffer.getInt((int) position + 4);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > size
+                        || checksum != crc(buffer, position + RECORD_HEADER_SIZE, length)) {
+                    break;
+                }
+                ByteBuffer payload = buffer.slice((int) position + RECORD_HEADER_SIZE, length);
+                String key = readString(payload.position(1));
+                byte type = payload.get(0);
+                apply(key, type, position, type == TYPE_TOUCH ? Instant.ofEpochMilli(payload.getLong()) : null);
+                recordCount++;
+                position += RECORD_HEADER_SIZE + length;
+            }
+            if (position < size) {
+                log.warn("Snapshot {} has a damaged tail at {}; truncating {} bytes", path, position, size - position);
+                mapped = null;
+                channel.truncate(position);
+            }
+            appendPosition = position;
+            log.info("Snapshot {} indexed: {} entries from {} records", path, index.size(), recordCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 유효한 기록만 새 파일에 옮겨 쓰고 교체한다.
+     */
+    private void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Map<String, Long> positions = new HashMap<>();
+        Files.deleteIfExists(compacted);
+        PrivateFiles.createFile(compacted);
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+            out.write(header());
+            long position = HEADER_SIZE;
+            for (Map.Entry<String, Long> item : index.entrySet()) {
+                ByteBuffer record = record(item.getValue());
+                Instant touchedAt = touched.get(item.getKey());
+                ByteBuffer copy;
+                if (touchedAt != null) {
+                    // 재검증된 항목은 새 조회 시각으로 다시 기록
+                    Entry entry = decode(record);
+                    copy = encode(item.getKey(), new Change(TYPE_ENTRY,
+                            new Entry(item.getKey(), entry.pages(), touchedAt), touchedAt));
+                } else {
+                    // 길이/CRC 헤더를 포함한 기록을 그대로 복사
+                    copy = mapped.slice(item.getValue().intValue(), RECORD_HEADER_SIZE + record.remaining());
+                }
+                positions.put(item.getKey(), position);
+                while (copy.hasRemaining()) {
+                    position += out.write(copy);
+                }
+            }
+            out.force(true);
+        }
+        channel.close();
+        mapped = null;
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        appendPosition = channel.size();
+        index.clear();
+        index.putAll(positions);
+        touched.clear();
+        recordCount = positions.size();
+        log.info("Snapshot {} compacted to {} entries ({} bytes)", path, recordCount, appendPosition);
+    }
+
+    /**
+     * 위치의 기록 payload를 반환한다 (필요하면 파일을 다시 매핑).
+     */
+    private ByteBuffer record(long position) {
+        ByteBuffer buffer = map(appendPosition);
+        int length = buffer.getInt((int) position);
+        return buffer.slice((int) position + RECORD_HEADER_SIZE, length);
+    }
+
+    private ByteBuffer map(long size) {
+        try {
+            if (mapped == null || mapped.capacity() < size) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int crc(ByteBuffer buffer, long offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice((int) offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer encode(String key, Change change) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(change.type());
+        writeString(out, key);
+        if (change.type() == TYPE_TOUCH) {
+            out.writeLong(change.fetchedAt().toEpochMilli());
+        } else if (change.type() == TYPE_ENTRY) {
+            Entry entry = change.entry();
+            out.writeLong(entry.fetchedAt().toEpochMilli());
+            out.writeInt(entry.pages().size());
+            for (ListingPage page : entry.pages()) {
+                writeString(out, page.cursor());
+                writeString(out, page.etag());
+                out.writeInt(page.items().size());
+                for (String item : page.items()) {
+                    writeString(out, item);
+                }
+            }
+        }
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private static Entry decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        if (in.get() != TYPE_ENTRY) {
+            return null;
+        }
+        String key = readString(in);
+        Instant fetchedAt = Instant.ofEpochMilli(in.getLong());
+        int pageCount = in.getInt();
+        List<ListingPage> pages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            String cursor = readString(in);
+            String etag = readString(in);
+            int itemCount = in.getInt();
+            List<String> items = new ArrayList<>(itemCount);
+            for (int j = 0; j < itemCount; j++) {
+                items.add(readString(in));
+            }
+            pages.add(new ListingPage(cursor, etag, items));
+        }
+        return new Entry(key, List.copyOf(pages), fetchedAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 스냅샷 항목.
+     *
+     * @param key       캐시 키
+     * @param pages     페이지 목록
+     * @param fetchedAt 조회 시각
+     */
+    public record Entry(String key, List<ListingPage> pages, Instant fetchedAt) {
+    }
+
+    /**
+     * 기록 대기 중인 변경.
+     *
+     * @param type      기록 종류 (항목, 삭제, 재검증)
+     * @param entry     항목 (항목 기록만)
+     * @param fetchedAt 조회 시각 (삭제는 null)
+     */
+    private record Change(byte type, Entry entry, Instant fetchedAt) {
+    }
+
+    /**
+     * 스냅샷 통계.
+     *
+     * @param entries       유효 항목 수 (색인 기준)
+     * @param records       파일 내 기록 수
+     * @param sizeBytes     파일 크기
+     * @param restoredCount 스냅샷에서 복원한 횟수
+     */
+    public record SnapshotStats(int entries, long records, long sizeBytes, long restoredCount) {
+    }
+}
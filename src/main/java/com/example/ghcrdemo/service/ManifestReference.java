@@ -0,0 +1,103 @@
+package com.example.ghcrdemo.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * 이미지 매니페스트 참조 (`repository:tag` 또는 `repository@sha256:…`).
+ * <p>
+ * digest 참조는 내용이 바뀌지 않으므로(content-addressed) 태그 참조와 달리 오래 캐시할 수 있다.
+ *
+ * @param repository "owner/package" 또는 "package"
+ * @param tag        태그 (digest 참조면 null)
+ * @param digest     digest (태그 참조면 null)
+ */
+public record ManifestReference(String repository, String tag, String digest) {
+
+    /**
+     * 태그를 생략했을 때 사용하는 태그.
+     */
+    public static final String DEFAULT_TAG = "latest";
+
+    private static final Pattern REPOSITORY = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*(/[A-Za-z0-9][A-Za-z0-9._-]*)*");
+    private static final Pattern TAG = Pattern.compile("[A-Za-z0-9_][A-Za-z0-9_.-]{0,127}");
+    private static final Pattern DIGEST = Pattern.compile("sha256:[a-f0-9]{64}");
+
+    /**
+     * 레포지토리와 참조(태그 또는 digest)로 만든다.
+     *
+     * @param repository "owner/package" 또는 "package"
+     * @param reference  태그 또는 `sha256:<hex>`
+     * @return ManifestReference
+     * @throws IllegalArgumentException 레포지토리, 태그, digest 형식이 잘못된 경우
+     */
+    public static ManifestReference of(String repository, String reference) {
+        if (repository == null || !REPOSITORY.matcher(repository).matches()) {
+            throw new IllegalArgumentException("Invalid repository: " + repository);
+        }
+        if (reference != null && reference.startsWith("sha256:")) {
+            if (!DIGEST.matcher(reference).matches()) {
+                throw new IllegalArgumentException("Invalid digest: " + reference);
+            }
+            return new ManifestReference(repository, null, reference);
+        }
+        if (reference == null || !TAG.matcher(reference).matches()) {
+            throw new IllegalArgumentException("Invalid tag: " + reference);
+        }
+        return new ManifestReference(repository, reference, null);
+    }
+
+    /**
+     * `[owner/]name[:tag|@sha256:<hex>]` 형식의 문자열을 해석한다. 태그가 없으면 `latest`.
+     *
+     * @param value 이미지 참조 문자열
+     * @return ManifestReference
+     * @throws IllegalArgumentException 형식이 잘못된 경우
+     */
+    public static ManifestReference parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid reference: null");
+        }
+        int at = value.indexOf('@');
+        if (at >= 0) {
+            return of(value.substring(0, at), value.substring(at + 1));
+        }
+        int colon = value.lastIndexOf(':');
+        if (colon > value.lastIndexOf('/')) {
+            return of(value.substring(0, colon), value.substring(colon + 1));
+        }
+        return of(value, DEFAULT_TAG);
+    }
+
+    /**
+     * owner가 없는 레포지토리에 owner를 붙인다.
+     *
+     * @param owner 기본 owner (요청 username)
+     * @return "owner/package" 레포지토리의 참조
+     */
+    public ManifestReference qualify(String owner) {
+        return repository.contains("/") ? this : new ManifestReference(owner + "/" + repository, tag, digest);
+    }
+
+    /**
+     * digest 참조 여부.
+     *
+     * @return digest로 고정된 참조면 true
+     */
+    public boolean pinned() {
+        return digest != null;
+    }
+
+    /**
+     * 레지스트리 `manifests/{reference}` 경로에 쓰는 값.
+     *
+     * @return 태그 또는 digest
+     */
+    public String reference() {
+        return pinned() ? digest : tag;
+    }
+
+    @Override
+    public String toString() {
+        return pinned() ? repository + "@" + digest : repository + ":" + tag;
+    }
+}
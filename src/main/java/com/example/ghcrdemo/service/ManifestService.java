@@ -0,0 +1,380 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.config.GhcrWebClients;
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.example.ghcrdemo.dto.BatchManifestResponse;
+import com.example.ghcrdemo.dto.BatchManifestResult;
+import com.example.ghcrdemo.dto.ManifestResolution;
+import com.example.ghcrdemo.dto.PlatformManifest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이미지 참조(`repository:tag`, `repository@digest`)를 매니페스트 digest로 확인하는 서비스.
+ * <p>
+ * digest는 레지스트리 `HEAD /v2/{repository}/manifests/{reference}`의 `Docker-Content-Digest`로 확인하며,
+ * 매니페스트 본문은 플랫폼 정보를 요청했을 때만 받는다.
+ * <ul>
+ *     <li>태그 참조: 인증 정보별로 `cache.tags-ttl` 동안 결과를 재사용 (업스트림 장애 시 만료된 결과로 응답)</li>
+ *     <li>digest 참조: 내용이 바뀌지 않으므로 인증 정보별 접근 확인 결과를 `manifest.digest-ttl` 동안 재사용</li>
+ *     <li>매니페스트 본문: {@link ManifestStore}에 digest 기준으로 만료 없이 보관 (인증 정보와 무관)</li>
+ * </ul>
+ * 따라서 같은 인증 정보로 고정된 digest를 반복 조회하면 플랫폼 정보를 포함해도 업스트림 호출이 없다.
+ * 토큰과 Rate Limit은 태그 조회({@link GitHubPackagesService#getTagsAsync})와 같은 경로를 사용한다.
+ */
+@Slf4j
+@Service
+public class ManifestService {
+
+    /**
+     * 이미지 인덱스 / 단일 이미지 매니페스트 미디어 타입 (OCI, Docker).
+     */
+    private static final List<MediaType> MANIFEST_TYPES = List.of(
+            MediaType.parseMediaType("application/vnd.oci.image.index.v1+json"),
+            MediaType.parseMediaType("application/vnd.docker.distribution.manifest.list.v2+json"),
+            MediaType.parseMediaType("application/vnd.oci.image.manifest.v1+json"),
+            MediaType.parseMediaType("application/vnd.docker.distribution.manifest.v2+json"));
+
+    private static final String DIGEST_HEADER = "Docker-Content-Digest";
+
+    private final GhcrWebClients webClients;
+    private final GitHubPackagesService gitHubPackagesService;
+    private final GhcrTokenService tokenService;
+    private final ManifestStore manifestStore;
+    private final GhcrProperties ghcrProperties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 참조 키(인증 정보 해시 + 참조) → 확인 결과.
+     */
+    private final Cache<String, Resolved> references;
+
+    /**
+     * 같은 참조의 동시 확인을 하나의 HEAD 요청으로 합치는 single-flight.
+     */
+    private final SingleFlight<String, Descriptor> resolving = new SingleFlight<>();
+
+    /**
+     * 같은 digest의 동시 본문 조회를 하나로 합치는 single-flight.
+     */
+    private final SingleFlight<String, byte[]> fetching = new SingleFlight<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder staleServedCount = new LongAdder();
+
+    public ManifestService(GhcrWebClients webClients, GitHubPackagesService gitHubPackagesService,
+                           GhcrTokenService tokenService, ManifestStore manifestStore, GhcrProperties ghcrProperties) {
+        this.webClients = webClients;
+        this.gitHubPackagesService = gitHubPackagesService;
+        this.tokenService = tokenService;
+        this.manifestStore = manifestStore;
+        this.ghcrProperties = ghcrProperties;
+        this.references = Caffeine.newBuilder()
+                .maximumSize(ghcrProperties.getCache().getMaxSize())
+                .expireAfterWrite(max(ghcrProperties.getCache().getMaxStale(), ghcrProperties.getManifest().getDigestTtl()))
+                .build();
+    }
+
+    /**
+     * 이미지 참조를 digest로 확인한다.
+     *
+     * @param reference   이미지 참조 (owner가 없으면 요청 username)
+     * @param authRequest 인증 정보
+     * @param platforms   플랫폼별 이미지 정보 포함 여부 (매니페스트 본문 조회)
+     * @return Mono\<ManifestResolution\> 확인 결과 (없는 참조는 404 WebClientResponseException)
+     */
+    public Mono<ManifestResolution> resolve(ManifestReference reference, AuthRequest authRequest, boolean platforms) {
+        ManifestReference qualified = reference.qualify(authRequest.getUsername());
+        return descriptor(qualified, authRequest)
+                .flatMap(descriptor -> {
+                    ManifestResolution resolution = new ManifestResolution();
+                    resolution.setName(qualified.repository());
+                    resolution.setReference(qualified.reference());
+                    resolution.setDigest(descriptor.digest());
+                    resolution.setMediaType(descriptor.mediaType());
+                    resolution.setSize(descriptor.size());
+                    if (!platforms) {
+                        return Mono.just(resolution);
+                    }
+                    return platforms(qualified.repository(), descriptor, authRequest).map(list -> {
+                        resolution.setPlatforms(list);
+                        return resolution;
+                    });
+                });
+    }
+
+    /**
+     * 여러 이미지 참조를 한 번에 확인한다.
+     * <p>
+     * 동시 요청 수는 `batch.concurrency`, 참조 하나의 제한 시간은 `batch.repository-timeout`이다.
+     * 실패는 참조별 오류 상태로 반환되며(잘못된 형식은 400), 같은 참조는 한 번만 확인한다.
+     *
+     * @param references  이미지 참조 목록 (null/빈 값 없음, 컨트롤러에서 검증)
+     * @param authRequest 인증 정보
+     * @param platforms   플랫폼별 이미지 정보 포함 여부
+     * @return Mono\<BatchManifestResponse\> 요청 순서대로 정렬된 참조별 결과
+     */
+    public Mono<BatchManifestResponse> resolveBatch(List<String> references, AuthRequest authRequest, boolean platforms) {
+        GhcrProperties.Batch batch = ghcrProperties.getBatch();
+        log.info("Resolving {} manifest references for user: {}", references.size(), authRequest.getUsername());
+
+        return BatchLookup.run(Flux.fromIterable(references),
+                        value -> Mono.fromCallable(() -> ManifestReference.parse(value))
+                                .flatMap(reference -> resolve(reference, authRequest, platforms))
+                                .map(resolution -> BatchManifestResult.success(value, resolution)),
+                        (value, failure) -> BatchManifestResult.failure(value, failure.status(), failure.message()),
+                        batch)
+                .map(results -> {
+                    BatchManifestResponse response = new BatchManifestResponse();
+                    response.setResults(results);
+                    response.setSucceeded((int) results.stream().filter(result -> result.getStatus() == 200).count());
+                    response.setFailed(results.size() - response.getSucceeded());
+                    return response;
+                });
+    }
+
+    /**
+     * 레포지토리의 태그 참조 확인 결과를 모든 인증 정보에 대해 제거한다 (웹훅으로 태그가 바뀐 경우).
+     * digest 참조는 내용이 바뀌지 않으므로 유지한다. 키 전체를 훑으므로 드문 이벤트에만 사용한다.
+     *
+     * @param repository "owner/name" (대소문자 무시)
+     * @return 제거된 항목 수
+     */
+    public int expireTags(String repository) {
+        String prefix = "manifest:" + repository + ":";
+        int expired = 0;
+        for (String key : references.asMap().keySet()) {
+            int start = key.indexOf('|') + 1;
+            if (key.regionMatches(true, start, prefix, 0, prefix.length()) && references.asMap().remove(key) != null) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 참조 확인 통계를 반환한다.
+     *
+     * @return ManifestStats
+     */
+    public ManifestStats stats() {
+        return new ManifestStats(hitCount.sum(), missCount.sum(), staleServedCount.sum(), resolving.coalescedCount(),
+                references.estimatedSize());
+    }
+
+    /**
+     * 캐시된 확인 결과를 반환하거나 HEAD 요청으로 확인한다.
+     */
+    private Mono<Descriptor> descriptor(ManifestReference reference, AuthRequest authRequest) {
+        String key = ResponseCache.key(authRequest, "manifest:" + reference);
+        Duration ttl = reference.pinned()
+                ? ghcrProperties.getManifest().getDigestTtl()
+                : ghcrProperties.getCache().getTagsTtl();
+        return Mono.defer(() -> {
+            Resolved cached = references.getIfPresent(key);
+            if (cached != null && cached.resolvedAt().plus(ttl).isAfter(Instant.now())) {
+                hitCount.increment();
+                return Mono.just(cached.descriptor());
+            }
+            missCount.increment();
+            return resolving.execute(key, () -> head(reference, authRequest)
+                    .doOnNext(descriptor -> references.put(key, new Resolved(descriptor, Instant.now())))
+                    .onErrorResume(error -> cached != null && UpstreamResilience.isUnavailable(error), error -> {
+                        // 업스트림 장애 동안은 만료된 확인 결과로 응답
+                        staleServedCount.increment();
+                        log.warn("Serving stale manifest reference {}: {}", reference, error.getMessage());
+                        return Mono.just(cached.descriptor());
+                    }));
+        });
+    }
+
+    /**
+     * `HEAD manifests/{reference}`로 digest, 미디어 타입, 크기를 확인한다.
+     * 응답에 `Docker-Content-Digest`가 없으면 본문을 받아 직접 계산한다.
+     */
+    private Mono<Descriptor> head(ManifestReference reference, AuthRequest authRequest) {
+        String repository = reference.repository();
+        return gitHubPackagesService.getGhcrBearerTokenAsync(authRequest, repository)
+                .flatMap(bearerToken -> webClients.getRegistryClient().head()
+                        .uri(uriBuilder -> uriBuilder.pathSegment(repository.split("/"))
+                                .pathSegment("manifests", reference.reference())
+                                .build())
+                        .attribute(UpstreamMetrics.CALL_ATTRIBUTE, "manifest-head")
+                        .headers(headers -> {
+                            headers.setBearerAuth(bearerToken);
+                            headers.setAccept(MANIFEST_TYPES);
+                        })
+                        .exchangeToMono(response -> {
+                            if (response.statusCode().isError()) {
+                                return response.createException().flatMap(Mono::error);
+                            }
+                            HttpHeaders headers = response.headers().asHttpHeaders();
+                            String digest = headers.getFirst(DIGEST_HEADER);
+                            MediaType mediaType = headers.getContentType();
+                            long size = headers.getContentLength();
+                            return response.releaseBody().then(Mono.justOrEmpty(digest != null && mediaType != null && size >= 0
+                                    ? new Descriptor(digest, mediaType.toString(), size)
+                                    : null));
+                        })
+                        .switchIfEmpty(Mono.defer(() -> fetch(repository, reference.reference(), bearerToken)
+                                .flatMap(body -> {
+                                    String digest = ManifestStore.digestOf(body);
+                                    return manifestStore.write(digest, body).thenReturn(new Descriptor(digest,
+                                            readTree(body).path("mediaType").asText(null), body.length));
+                                }))))
+                .flatMap(descriptor -> reference.pinned() && !reference.digest().equals(descriptor.digest())
+                        ? Mono.error(new IllegalStateException("Registry returned digest " + descriptor.digest()
+                        + " for " + reference))
+                        : Mono.just(descriptor))
+                // 토큰이 거부되면 캐시에서 제거해 다음 요청이 새로 발급받도록 한다
+                .doOnError(WebClientResponseException.Unauthorized.class,
+                        e -> tokenService.invalidate(authRequest, GitHubPackagesService.pullScope(repository)))
+                .contextWrite(RateLimitScheduler.withCredential(authRequest));
+    }
+
+    /**
+     * 매니페스트의 플랫폼별 이미지 정보를 만든다.
+     * 이미지 인덱스면 하위 매니페스트마다, 단일 이미지면 자신에 대해 config + 레이어 크기를 더한다.
+     */
+    private Mono<List<PlatformManifest>> platforms(String repository, Descriptor descriptor, AuthRequest authRequest) {
+        return body(repository, descriptor.digest(), authRequest).flatMap(body -> {
+            JsonNode root = readTree(body);
+            JsonNode manifests = root.path("manifests");
+            if (!manifests.isArray()) {
+                PlatformManifest platform = platform(descriptor.digest(), descriptor.mediaType(), descriptor.size(),
+                        null);
+                platform.setImageSize(imageSize(root));
+                return Mono.just(List.of(platform));
+            }
+            return Flux.fromIterable(manifests)
+                    .flatMapSequential(child -> {
+                        PlatformManifest platform = platform(child.path("digest").asText(),
+                                child.path("mediaType").asText(null), child.path("size").asLong(), child.path("platform"));
+                        return body(repository, platform.getDigest(), authRequest)
+                                .map(childBody -> {
+                                    platform.setImageSize(imageSize(readTree(childBody)));
+                                    return platform;
+                                });
+                    }, ghcrProperties.getPagination().getConcurrency())
+                    .collectList();
+        });
+    }
+
+    /**
+     * 매니페스트 본문을 저장소에서 읽거나, 없으면 digest로 받아 저장한다.
+     * digest로 받으므로 본문은 인증 정보와 관계없이 공유된다 (접근 확인은 HEAD 단계에서 이미 거침).
+     */
+    private Mono<byte[]> body(String repository, String digest, AuthRequest authRequest) {
+        return manifestStore.read(digest)
+                .switchIfEmpty(Mono.defer(() -> fetching.execute(digest, () ->
+                        gitHubPackagesService.getGhcrBearerTokenAsync(authRequest, repository)
+                                .flatMap(bearerToken -> fetch(repository, digest, bearerToken))
+                                .flatMap(body -> digest.equals(ManifestStore.digestOf(body))
+                                        ? manifestStore.write(digest, body).thenReturn(body)
+                                        : Mono.error(new IllegalStateException("Manifest body does not match digest " + digest)))
+                                .contextWrite(RateLimitScheduler.withCredential(authRequest)))));
+    }
+
+    /**
+     * `GET manifests/{reference}`로 매니페스트 본문을 받는다.
+     */
+    private Mono<byte[]> fetch(String repository, String reference, String bearerToken) {
+        return webClients.getRegistryClient().get()
+                .uri(uriBuilder -> uriBuilder.pathSegment(repository.split("/"))
+                        .pathSegment("manifests", reference)
+                        .build())
+                .attribute(UpstreamMetrics.CALL_ATTRIBUTE, "manifest")
+                .headers(headers -> {
+                    headers.setBearerAuth(bearerToken);
+                    headers.setAccept(MANIFEST_TYPES);
+                })
+                .retrieve()
+                .bodyToMono(byte[].class);
+    }
+
+    private static PlatformManifest platform(String digest, String mediaType, long size, JsonNode platform) {
+        PlatformManifest result = new PlatformManifest();
+        result.setDigest(digest);
+        result.setMediaType(mediaType);
+        result.setSize(size);
+        if (platform != null && !platform.isMissingNode()) {
+            result.setOs(platform.path("os").asText(null));
+            result.setArchitecture(platform.path("architecture").asText(null));
+            result.setVariant(platform.path("variant").asText(null));
+        }
+        return result;
+    }
+
+    /**
+     * 이미지 매니페스트의 config + 레이어 크기 합 (인덱스면 null).
+     */
+    private static Long imageSize(JsonNode manifest) {
+        if (!manifest.has("layers")) {
+            return null;
+        }
+        long size = manifest.path("config").path("size").asLong();
+        for (JsonNode layer : manifest.path("layers")) {
+            size += layer.path("size").asLong();
+        }
+        return size;
+    }
+
+    private JsonNode readTree(byte[] body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid manifest body", e);
+        }
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * 매니페스트 확인 결과.
+     *
+     * @param digest    digest
+     * @param mediaType 미디어 타입
+     * @param size      본문 크기
+     */
+    private record Descriptor(String digest, String mediaType, long size) {
+    }
+
+    /**
+     * 캐시된 확인 결과와 확인 시각.
+     */
+    private record Resolved(Descriptor descriptor, Instant resolvedAt) {
+    }
+
+    /**
+     * 매니페스트 참조 확인 통계.
+     *
+     * @param hitCount         캐시된 확인 결과로 응답한 횟수
+     * @param missCount        업스트림 확인이 필요했던 횟수
+     * @param staleServedCount 업스트림 장애로 만료된 확인 결과로 응답한 횟수
+     * @param coalescedCount   진행 중인 확인에 합류한 횟수
+     * @param size             캐시된 참조 수
+     */
+    public record ManifestStats(long hitCount, long missCount, long staleServedCount, long coalescedCount,
+                                long size) {
+    }
+}
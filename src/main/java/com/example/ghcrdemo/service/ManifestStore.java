@@ -0,0 +1,221 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 이미지 매니페스트 본문을 digest로 보관하는 디스크 저장소 (content-addressed).
+ * <p>
+ * 매니페스트는 digest가 같으면 내용도 같으므로 만료 없이 보관한다.
+ * 파일은 `manifest.store-path/sha256/<hex>`에 임시 파일 → 원자적 이동으로 기록하고,
+ * 읽을 때 SHA-256을 다시 계산해 손상된 파일은 삭제한다.
+ * 힙에는 digest → 크기 색인만 두며, 전체 크기가 `manifest.store-max-size`를 넘으면
+ * 색인(W-TinyLFU)이 고른 항목의 파일을 지운다. 시작 시 디렉터리를 훑어 색인을 복원한다.
+ * 파일과 디렉터리는 소유자만 읽을 수 있게 만든다.
+ */
+@Slf4j
+@Component
+public class ManifestStore {
+
+    private static final String ALGORITHM = "sha256";
+    private static final Pattern HEX = Pattern.compile("[a-f0-9]{64}");
+
+    private final Path directory;
+
+    /**
+     * digest → 파일 크기 (저장소가 꺼져 있으면 null).
+     */
+    private final Cache<String, Long> index;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public ManifestStore(GhcrProperties ghcrProperties) {
+        GhcrProperties.Manifest settings = ghcrProperties.getManifest();
+        this.directory = Path.of(settings.getStorePath()).resolve(ALGORITHM);
+        this.index = settings.isStoreEnabled() ? open(settings.getStoreMaxSize().toBytes()) : null;
+    }
+
+    /**
+     * 매니페스트 본문을 읽는다.
+     *
+     * @param digest `sha256:<hex>`
+     * @return Mono\<byte[]\> 본문, 없거나 손상되었으면 empty
+     */
+    public Mono<byte[]> read(String digest) {
+        if (index == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> readNow(digest)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 매니페스트 본문을 저장한다. 본문의 digest가 다르면 저장하지 않는다.
+     *
+     * @param digest `sha256:<hex>`
+     * @param body   매니페스트 본문
+     * @return Mono\<Void\> 기록 완료 (실패해도 오류 없이 완료)
+     */
+    public Mono<Void> write(String digest, byte[] body) {
+        if (index == null || index.getIfPresent(digest) != null) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> writeNow(digest, body)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 본문의 digest(`sha256:<hex>`)를 계산한다.
+     *
+     * @param body 매니페스트 본문
+     * @return digest
+     */
+    public static String digestOf(byte[] body) {
+        try {
+            return ALGORITHM + ":" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 저장소 통계를 반환한다.
+     *
+     * @return ManifestStoreStats
+     */
+    public ManifestStoreStats stats() {
+        if (index == null) {
+            return new ManifestStoreStats(0, 0, hitCount.sum(), missCount.sum());
+        }
+        long size = index.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+        return new ManifestStoreStats(index.estimatedSize(), size, hitCount.sum(), missCount.sum());
+    }
+
+    /**
+     * 디렉터리를 만들고 기존 파일로 색인을 채운다. 실패하면 저장소를 끈다.
+     */
+    private Cache<String, Long> open(long maxBytes) {
+        Cache<String, Long> files = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, Long>weigher((digest, size) -> (int) Math.min(size, Integer.MAX_VALUE))
+                .removalListener((String digest, Long size, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        delete(digest);
+                    }
+                })
+                .build();
+        try {
+            PrivateFiles.createDirectories(directory);
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path file : entries) {
+                    String name = file.getFileName().toString();
+                    if (HEX.matcher(name).matches()) {
+                        files.put(ALGORITHM + ":" + name, Files.size(file));
+                    } else if (name.endsWith(".tmp")) {
+                        // 기록 도중 종료된 임시 파일
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            log.info("Manifest store {} opened: {} manifests", directory, files.estimatedSize());
+            return files;
+        } catch (IOException e) {
+            log.warn("Manifest store disabled; cannot open {}: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] readNow(String digest) {
+        if (index.getIfPresent(digest) == null) {
+            missCount.increment();
+            return null;
+        }
+        try {
+            byte[] body = Files.readAllBytes(file(digest));
+            if (!digest.equals(digestOf(body))) {
+                log.warn("Manifest {} in store is corrupt; removing", digest);
+                index.invalidate(digest);
+                delete(digest);
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return body;
+        } catch (NoSuchFileException e) {
+            index.invalidate(digest);
+            missCount.increment();
+            return null;
+        } catch (IOException e) {
+            log.warn("Failed to read manifest {}: {}", digest, e.getMessage());
+            missCount.increment();
+            return null;
+        }
+    }
+
+    private void writeNow(String digest, byte[] body) {
+        if (!digest.equals(digestOf(body))) {
+            log.warn("Not storing manifest: body does not match digest {}", digest);
+            return;
+        }
+        Path target = file(digest);
+        Path temporary = null;
+        try {
+            temporary = PrivateFiles.createTempFile(directory, target.getFileName() + "-", ".tmp");
+            Files.write(temporary, body);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.put(digest, (long) body.length);
+        } catch (IOException e) {
+            log.warn("Failed to store manifest {}: {}", digest, e.getMessage());
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // 다음 시작 시 정리
+                }
+            }
+        }
+    }
+
+    private void delete(String digest) {
+        try {
+            Files.deleteIfExists(file(digest));
+        } catch (IOException e) {
+            log.warn("Failed to delete manifest {}: {}", digest, e.getMessage());
+        }
+    }
+
+    private Path file(String digest) {
+        if (!digest.startsWith(ALGORITHM + ":") || !HEX.matcher(digest.substring(ALGORITHM.length() + 1)).matches()) {
+            throw new IllegalArgumentException("Unsupported digest: " + digest);
+        }
+        return directory.resolve(digest.substring(ALGORITHM.length() + 1));
+    }
+
+    /**
+     * 매니페스트 저장소 통계.
+     *
+     * @param entries   저장된 매니페스트 수
+     * @param sizeBytes 저장된 본문 크기 합
+     * @param hitCount  저장소에서 읽은 횟수
+     * @param missCount 저장소에 없어 업스트림에서 받아야 했던 횟수
+     */
+    public record ManifestStoreStats(long entries, long sizeBytes, long hitCount, long missCount) {
+    }
+}
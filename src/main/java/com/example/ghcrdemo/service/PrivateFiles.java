@@ -0,0 +1,73 @@
+package com.example.ghcrdemo.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * 디스크 저장소({@link ManifestStore}, {@link ListingSnapshotStore})용 파일 생성 유틸리티.
+ * 응답 본문이 다른 사용자에게 노출되지 않도록 소유자만 접근할 수 있는 권한으로 만든다.
+ * POSIX 권한을 지원하지 않는 파일 시스템에서는 기본 권한으로 만든다.
+ */
+final class PrivateFiles {
+
+    private PrivateFiles() {
+    }
+
+    /**
+     * 디렉터리가 없으면 소유자 전용 권한(rwx------)으로 만든다.
+     *
+     * @param directory 디렉터리 경로
+     * @throws IOException 생성 실패
+     */
+    static void createDirectories(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory, permissions("rwx------"));
+        } catch (UnsupportedOperationException e) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * 파일이 없으면 소유자 전용 권한(rw-------)으로 만든다.
+     *
+     * @param file 파일 경로
+     * @throws IOException 생성 실패
+     */
+    static void createFile(Path file) throws IOException {
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createFile(file, permissions("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(file);
+        }
+    }
+
+    /**
+     * 디렉터리 안에 소유자 전용 권한(rw-------)의 임시 파일을 만든다.
+     *
+     * @param directory 디렉터리 경로
+     * @param prefix    파일 이름 접두사
+     * @param suffix    파일 이름 접미사
+     * @return 만든 파일 경로
+     * @throws IOException 생성 실패
+     */
+    static Path createTempFile(Path directory, String prefix, String suffix) throws IOException {
+        try {
+            return Files.createTempFile(directory, prefix, suffix, permissions("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            return Files.createTempFile(directory, prefix, suffix);
+        }
+    }
+
+    private static FileAttribute<?> permissions(String permissions) {
+        return PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(permissions));
+    }
+}
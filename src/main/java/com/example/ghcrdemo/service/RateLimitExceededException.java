@@ -0,0 +1,33 @@
+package com.example.ghcrdemo.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 업스트림 Rate Limit 때문에 요청을 처리할 수 없을 때 발생하는 예외.
+ * 남은 호출 예산이 부족하거나, 429/보조 Rate Limit 응답 후 재시도 한도를 넘은 경우에 사용된다.
+ * 컨트롤러에서 429(Too Many Requests)와 `Retry-After`로 변환된다.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * 다시 시도하기까지 권장 대기 시간.
+     */
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * `Retry-After` 헤더 값(초, 최소 1)을 반환한다.
+     *
+     * @return 초 단위 대기 시간
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
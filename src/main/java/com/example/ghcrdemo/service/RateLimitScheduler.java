@@ -0,0 +1,395 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * GitHub/GHCR Rate Limit을 고려해 업스트림 요청을 스케줄링하는 컴포넌트.
+ * <p>
+ * 인증 정보(해시)와 업스트림 호스트별로 호출 예산을 두고, 모든 응답의
+ * `X-RateLimit-Remaining`, `X-RateLimit-Reset`, `Retry-After`를 기록한다.
+ * <ul>
+ *     <li>동시 요청 수는 AIMD로 조정: 성공 시 조금씩 늘리고, 429/보조 Rate Limit 시 절반으로 줄인다.</li>
+ *     <li>남은 예산이 `reserve` 이하이면 리셋 시각까지 대기시키고, 대기 시간이 너무 길면 즉시 거절한다.</li>
+ *     <li>429/보조 Rate Limit 응답은 안내된 대기 시간(+jitter) 후 재시도한다.</li>
+ * </ul>
+ * 구독 컨텍스트에 {@link #CREDENTIAL_KEY}({@link #withCredential(AuthRequest)})가 있는 요청에만 적용된다.
+ */
+@Slf4j
+@Component
+public class RateLimitScheduler {
+
+    /**
+     * 인증 정보 해시를 담는 Reactor 컨텍스트 키.
+     */
+    static final String CREDENTIAL_KEY = RateLimitScheduler.class.getName() + ".credential";
+
+    /**
+     * Rate Limit 설정.
+     */
+    private final GhcrProperties.RateLimit settings;
+
+    /**
+     * (호스트 + 인증 정보 해시) → 호출 예산. 오래 사용되지 않으면 제거된다.
+     */
+    private final Cache<String, Budget> budgets;
+
+    public RateLimitScheduler(GhcrProperties ghcrProperties) {
+        this.settings = ghcrProperties.getRateLimit();
+        this.budgets = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxTrackedCredentials())
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * 업스트림 호출 체인에 인증 정보를 연결한다 (`contextWrite`에 사용).
+     * {@link TenantScheduler}의 가중치 조회용 username도 함께 넣는다.
+     *
+     * @param authRequest 인증 정보
+     * @return 컨텍스트 변환 함수
+     */
+    static Function<Context, Context> withCredential(AuthRequest authRequest) {
+        String credential = CredentialKeys.hash(authRequest);
+        String username = authRequest.getUsername() != null ? authRequest.getUsername() : "";
+        return context -> context.put(CREDENTIAL_KEY, credential).put(TenantScheduler.USERNAME_KEY, username);
+    }
+
+    /**
+     * 업스트림 호스트용 WebClient 필터를 만든다.
+     *
+     * @param upstream 업스트림 식별자 (예: api.github.com)
+     * @return ExchangeFilterFunction
+     */
+    public ExchangeFilterFunction filter(String upstream) {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String credential = context.getOrDefault(CREDENTIAL_KEY, null);
+            if (!settings.isEnabled() || credential == null) {
+                return next.exchange(request);
+            }
+            Budget budget = budgets.get(upstream + "|" + credential, key -> new Budget(upstream));
+            return exchange(request, next, budget, 0);
+        });
+    }
+
+    /**
+     * 예산 안에서 요청을 실행하고, Rate Limit 응답이면 대기 후 재시도한다.
+     *
+     * @param request 요청
+     * @param next    다음 ExchangeFunction
+     * @param budget  호출 예산
+     * @param attempt 재시도 횟수 (0부터)
+     * @return Mono\<ClientResponse\> 응답
+     */
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next, Budget budget, int attempt) {
+        // 허가는 응답 헤더 수신, 오류, 취소 중 먼저 일어나는 시점에 한 번만 반납
+        return Mono.<ClientResponse, Permit>usingWhen(budget.acquire(),
+                        permit -> next.exchange(request).contextWrite(HedgePermits.add(budget::tryAcquire)),
+                        Permit::release,
+                        (permit, error) -> permit.release(),
+                        Permit::release)
+                .flatMap(response -> {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    budget.record(headers);
+                    Duration retryAfter = throttleDelay(response.statusCode(), headers);
+                    if (retryAfter == null) {
+                        budget.onSuccess();
+                        return Mono.just(response);
+                    }
+                    budget.onThrottled(retryAfter);
+                    if (attempt < settings.getMaxRetries() && retryAfter.compareTo(settings.getMaxRetryDelay()) <= 0) {
+                        Duration delay = withJitter(retryAfter);
+                        log.warn("Rate limited by {} ({}); retrying in {} ms (attempt {})",
+                                request.url().getHost(), response.statusCode(), delay.toMillis(), attempt + 1);
+                        return response.releaseBody()
+                                .then(Mono.delay(delay))
+                                .then(exchange(request, next, budget, attempt + 1));
+                    }
+                    log.warn("Rate limited by {} ({}); giving up, retry after {} s",
+                            request.url().getHost(), response.statusCode(), retryAfter.toSeconds());
+                    return response.releaseBody()
+                            .then(Mono.error(new RateLimitExceededException(
+                                    "Upstream rate limit exceeded (" + response.statusCode().value() + ")", retryAfter)));
+                });
+    }
+
+    /**
+     * 응답이 Rate Limit에 걸린 것인지 판단하고 대기 시간을 구한다.
+     * 429, 또는 남은 예산이 0이거나 `Retry-After`가 있는 403을 Rate Limit으로 본다.
+     *
+     * @param status  응답 상태 코드
+     * @param headers 응답 헤더
+     * @return 대기 시간, Rate Limit이 아니면 null
+     */
+    private Duration throttleDelay(HttpStatusCode status, HttpHeaders headers) {
+        boolean tooMany = status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        Duration retryAfter = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+        long remaining = parseLong(headers.getFirst("X-RateLimit-Remaining"), -1);
+        boolean forbiddenByLimit = status.isSameCodeAs(HttpStatus.FORBIDDEN) && (retryAfter != null || remaining == 0);
+        if (!tooMany && !forbiddenByLimit) {
+            return null;
+        }
+        if (retryAfter != null) {
+            return retryAfter;
+        }
+        long reset = parseLong(headers.getFirst("X-RateLimit-Reset"), -1);
+        if (remaining == 0 && reset > 0) {
+            return positive(Duration.between(Instant.now(), Instant.ofEpochSecond(reset)));
+        }
+        return settings.getDefaultRetryDelay();
+    }
+
+    /**
+     * 대기 시간에 무작위 jitter를 더한다 (여러 요청이 동시에 재시도하지 않도록).
+     *
+     * @param delay 기본 대기 시간
+     * @return jitter가 더해진 대기 시간
+     */
+    private Duration withJitter(Duration delay) {
+        long jitterMillis = (long) (delay.toMillis() * settings.getJitter() * ThreadLocalRandom.current().nextDouble());
+        return delay.plusMillis(jitterMillis + ThreadLocalRandom.current().nextLong(50, 250));
+    }
+
+    private static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return positive(Duration.between(Instant.now(), date.toInstant()));
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Duration positive(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+
+    /**
+     * 인증 정보 + 업스트림별 호출 예산.
+     * AIMD 동시 실행 한도와 대기열, 마지막으로 관찰한 Rate Limit 헤더 값을 보관한다.
+     */
+    private final class Budget {
+
+        private final String upstream;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private double concurrencyLimit = settings.getInitialConcurrency();
+        private int inFlight;
+        private long remaining = -1;
+        private Instant resetAt = Instant.EPOCH;
+        private Instant blockedUntil = Instant.EPOCH;
+
+        private Budget(String upstream) {
+            this.upstream = upstream;
+        }
+
+        /**
+         * 실행 허가를 얻는다.
+         * 예산이 부족하면 리셋 시각까지 기다리며, 대기가 `maxQueueWait`보다 길거나 대기열이 가득 차면 거절한다.
+         *
+         * @return Mono\<Permit\> 실행 허가 (대기 중 취소되면 대기열에서 빠지거나, 이미 받은 허가를 반납)
+         */
+        Mono<Permit> acquire() {
+            return Mono.defer(() -> {
+                Duration wait = budgetWait();
+                if (wait.compareTo(settings.getMaxQueueWait()) > 0) {
+                    return Mono.error(new RateLimitExceededException("Upstream rate limit budget exhausted", wait));
+                }
+                Mono<Permit> permit = Mono.create(this::enqueue);
+                return wait.isZero() ? permit : Mono.delay(wait).then(permit);
+            });
+        }
+
+        private synchronized Duration budgetWait() {
+            Instant now = Instant.now();
+            Duration wait = Duration.ZERO;
+            if (blockedUntil.isAfter(now)) {
+                wait = Duration.between(now, blockedUntil);
+            }
+            if (remaining >= 0 && remaining <= settings.getReserve() && resetAt.isAfter(now)) {
+                Duration untilReset = Duration.between(now, resetAt);
+                wait = untilReset.compareTo(wait) > 0 ? untilReset : wait;
+            }
+            return wait;
+        }
+
+        private void enqueue(MonoSink<Permit> sink) {
+            Permit granted = null;
+            boolean rejected = false;
+            Waiter waiter = new Waiter(sink);
+            synchronized (this) {
+                if (inFlight < (int) concurrencyLimit && waiters.isEmpty()) {
+                    inFlight++;
+                    granted = new Permit(this);
+                } else if (waiters.size() >= settings.getMaxQueueSize()) {
+                    rejected = true;
+                } else {
+                    waiters.addLast(waiter);
+                }
+            }
+            if (granted != null) {
+                sink.success(granted);
+            } else if (rejected) {
+                sink.error(new RateLimitExceededException("Too many queued upstream requests", Duration.ofSeconds(1)));
+            } else {
+                sink.onCancel(() -> cancel(waiter));
+            }
+        }
+
+        /**
+         * 기다리지 않고 허가를 얻는다 (hedged 요청용, {@link HedgePermits}).
+         * 예산 대기 중이거나 동시 실행 한도가 찼거나 기다리는 요청이 있으면 얻지 못한다.
+         *
+         * @return 허가 반납 함수, 얻지 못하면 null
+         */
+        Runnable tryAcquire() {
+            if (!budgetWait().isZero()) {
+                return null;
+            }
+            synchronized (this) {
+                if (inFlight >= (int) concurrencyLimit || !waiters.isEmpty()) {
+                    return null;
+                }
+                inFlight++;
+            }
+            return new Permit(this)::releaseNow;
+        }
+
+        /**
+         * 대기 중 취소된 요청을 대기열에서 뺀다.
+         * 이미 허가가 배정되었지만 전달되기 전에 취소되었으면 허가를 반납한다.
+         */
+        private void cancel(Waiter waiter) {
+            Permit permit;
+            synchronized (this) {
+                permit = waiter.permit;
+                if (permit == null) {
+                    waiters.remove(waiter);
+                    return;
+                }
+            }
+            permit.releaseNow();
+        }
+
+        void release() {
+            List<Waiter> granted = new ArrayList<>();
+            synchronized (this) {
+                inFlight--;
+                while (inFlight < (int) concurrencyLimit && !waiters.isEmpty()) {
+                    inFlight++;
+                    Waiter waiter = waiters.pollFirst();
+                    waiter.permit = new Permit(this);
+                    granted.add(waiter);
+                }
+            }
+            for (Waiter waiter : granted) {
+                waiter.sink.success(waiter.permit);
+            }
+        }
+
+        synchronized void record(HttpHeaders headers) {
+            long observedRemaining = parseLong(headers.getFirst("X-RateLimit-Remaining"), -1);
+            long reset = parseLong(headers.getFirst("X-RateLimit-Reset"), -1);
+            if (observedRemaining >= 0) {
+                remaining = observedRemaining;
+            }
+            if (reset > 0) {
+                resetAt = Instant.ofEpochSecond(reset);
+            }
+        }
+
+        synchronized void onSuccess() {
+            // Additive increase: 한도만큼 성공하면 1 증가
+            concurrencyLimit = Math.min(settings.getMaxConcurrency(), concurrencyLimit + 1.0 / concurrencyLimit);
+        }
+
+        synchronized void onThrottled(Duration retryAfter) {
+            // Multiplicative decrease
+            concurrencyLimit = Math.max(settings.getMinConcurrency(), concurrencyLimit / 2);
+            Instant until = Instant.now().plus(retryAfter);
+            if (until.isAfter(blockedUntil)) {
+                blockedUntil = until;
+            }
+            log.debug("Throttled by {}: concurrency limit -> {}", upstream, concurrencyLimit);
+        }
+    }
+
+    /**
+     * 허가를 기다리는 요청. `permit`은 예산 잠금 안에서만 바뀐다.
+     */
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * 배정된 실행 허가. 한 번만 반납된다.
+     */
+    private static final class Permit {
+
+        private final Budget budget;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Budget budget) {
+            this.budget = budget;
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseNow);
+        }
+
+        void releaseNow() {
+            if (released.compareAndSet(false, true)) {
+                budget.release();
+            }
+        }
+    }
+}
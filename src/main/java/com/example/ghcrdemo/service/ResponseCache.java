@@ -0,0 +1,375 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 카탈로그/태그 목록 응답 캐시.
+ * <p>
+ * 키는 인증 정보 해시 + 리소스로 구성되어 사용자 간에 결과가 공유되지 않는다.
+ * 리소스별 TTL 동안은 업스트림 호출 없이 응답하고, TTL이 지나면 이전 페이지와 `ETag`를
+ * 로더에 넘겨 조건부 재검증(`If-None-Match`)을 하도록 한다.
+ * 항목은 `maxStale`까지 보관되며, 크기 제한을 넘으면 W-TinyLFU 정책으로 제거된다.
+ * 같은 키로 동시에 발생한 miss는 {@link SingleFlight}로 하나의 업스트림 호출을 공유한다.
+ * <p>
+ * 스냅샷({@link ListingSnapshotStore})이 켜져 있으면 새로 받은 목록을 디스크에 기록하고,
+ * 메모리에 없는 키는 스냅샷에서 복원한다 (디스크 I/O이므로 `boundedElastic`에서).
+ * 304로 재검증된 목록은 조회 시각만 스냅샷에 기록한다. 복원한 항목이 TTL을 지났으면 그대로 응답하면서
+ * 백그라운드에서 한 번 재검증한다 (stale-while-revalidate). 재검증이 업스트림 장애가 아닌 오류(401/403/404 등)로
+ * 실패하면 항목을 캐시와 스냅샷에서 제거하고, 이후 요청은 일반 조회 경로로 오류를 받는다.
+ * 재검증이 업스트림 장애({@link UpstreamResilience#isUnavailable})로 실패하면 만료된 목록으로 응답한다 (stale-if-error).
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    /**
+     * 응답 캐시 설정.
+     */
+    private final GhcrProperties.Cache settings;
+
+    /**
+     * 디스크 스냅샷.
+     */
+    private final ListingSnapshotStore snapshotStore;
+
+    /**
+     * 캐시 키 → 캐시된 목록.
+     */
+    private final Cache<String, CachedListing> cache;
+
+    /**
+     * 같은 키의 동시 로드를 하나로 합치는 single-flight.
+     */
+    private final SingleFlight<String, List<ListingPage>> singleFlight = new SingleFlight<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder revalidatedCount = new LongAdder();
+    private final LongAdder reloadCount = new LongAdder();
+    private final LongAdder staleServedCount = new LongAdder();
+
+    public ResponseCache(GhcrProperties ghcrProperties, ListingSnapshotStore snapshotStore) {
+        this.settings = ghcrProperties.getCache();
+        this.snapshotStore = snapshotStore;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getMaxStale())
+                .build();
+    }
+
+    /**
+     * 인증 정보와 리소스로 캐시 키를 만든다.
+     *
+     * @param authRequest 인증 정보
+     * @param resource    리소스 식별자 (예: catalog:user, tags:owner/name)
+     * @return 캐시 키
+     */
+    public static String key(AuthRequest authRequest, String resource) {
+        return CredentialKeys.hash(authRequest) + "|" + resource;
+    }
+
+    /**
+     * 캐시된 목록을 반환하거나 로더로 새로 가져온다.
+     * <p>
+     * - TTL 이내: 캐시 항목 반환 (업스트림 호출 없음)
+     * - TTL 경과: 이전 페이지 목록을 로더에 전달 (조건부 재검증)
+     * - 항목 없음: 스냅샷에서 복원, 없으면 null을 로더에 전달 (전체 조회)
+     * - 스냅샷에서 복원한 항목이 TTL 경과: 복원한 목록을 반환하고 백그라운드에서 한 번 재검증
+     *   (업스트림 장애가 아닌 오류로 실패하면 항목 제거)
+     * 로더가 이전 페이지 목록과 같은 인스턴스를 반환하면 변경 없음(304)으로 집계한다.
+     * 같은 키로 진행 중인 로드가 있으면 새로 로드하지 않고 그 결과를 공유한다.
+     * 로더 실패는 캐시하지 않으며, 업스트림 장애로 실패하면 만료된 목록이 있을 때 그것을 반환한다.
+     *
+     * @param key    캐시 키
+     * @param ttl    신선도 유지 시간
+     * @param loader 이전 페이지 목록(또는 null) → 새 페이지 목록
+     * @return Mono\<List\<String\>\> 목록 항목
+     */
+    public Mono<List<String>> get(String key, Duration ttl, Function<List<ListingPage>, Mono<List<ListingPage>>> loader) {
+        return getPages(key, ttl, loader).map(ResponseCache::flatten);
+    }
+
+    /**
+     * {@link #get}과 같지만 페이지 단위 결과를 반환한다.
+     *
+     * @param key    캐시 키
+     * @param ttl    신선도 유지 시간
+     * @param loader 이전 페이지 목록(또는 null) → 새 페이지 목록
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록
+     */
+    public Mono<List<ListingPage>> getPages(String key, Duration ttl,
+                                            Function<List<ListingPage>, Mono<List<ListingPage>>> loader) {
+        if (!settings.isEnabled()) {
+            return singleFlight.execute(key, () -> loader.apply(null));
+        }
+        return Mono.defer(() -> {
+            CachedListing cached = cache.getIfPresent(key);
+            if (cached != null || !snapshotStore.isEnabled()) {
+                return serve(key, ttl, loader, cached);
+            }
+            // 스냅샷 조회는 첫 조회 시 색인 생성, flush(fsync)와의 잠금 대기가 있으므로 이벤트 루프 밖에서 실행
+            return Mono.fromCallable(() -> Optional.ofNullable(restore(key)))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(restored -> serve(key, ttl, loader, restored.orElse(null)));
+        });
+    }
+
+    /**
+     * 캐시 항목(또는 복원한 항목)으로 응답하거나 로드한다.
+     */
+    private Mono<List<ListingPage>> serve(String key, Duration ttl,
+                                          Function<List<ListingPage>, Mono<List<ListingPage>>> loader,
+                                          CachedListing cached) {
+        if (isFresh(cached, ttl)) {
+            hitCount.increment();
+            return Mono.just(cached.pages());
+        }
+        if (cached != null && cached.restored()) {
+            // 재검증은 한 번만 백그라운드로 시도하고, 이후 요청은 일반 경로(load)로 결과나 오류를 받는다
+            CachedListing revalidating = new CachedListing(cached.pages(), cached.fetchedAt(), false);
+            if (cache.asMap().replace(key, cached, revalidating)) {
+                staleServedCount.increment();
+                singleFlight.execute(key, () -> load(key, ttl, loader))
+                        .subscribe(pages -> {
+                        }, error -> revalidationFailed(key, revalidating, error));
+                return Mono.just(cached.pages());
+            }
+        }
+        missCount.increment();
+        return singleFlight.execute(key, () -> load(key, ttl, loader));
+    }
+
+    /**
+     * 복원한 항목의 백그라운드 재검증이 실패했을 때 처리한다.
+     * 업스트림 장애가 아닌 실패(토큰 폐기 401/403, 레포지토리 삭제 404 등)는 더 이상 볼 수 없는 목록일 수 있으므로
+     * 캐시와 스냅샷에서 제거한다. 자체 Rate Limit 거절과 실행 한도 대기 초과는 접근 권한과 무관하므로 유지한다.
+     *
+     * @param key          캐시 키
+     * @param revalidating 재검증을 시작한 항목 (그 사이 새로 저장된 항목은 제거하지 않음)
+     * @param error        발생한 오류
+     */
+    private void revalidationFailed(String key, CachedListing revalidating, Throwable error) {
+        log.warn("Background revalidation failed for {}: {}", key, error.getMessage());
+        if (UpstreamResilience.isUnavailable(error) || error instanceof UpstreamBusyException
+                || error instanceof RateLimitExceededException) {
+            return;
+        }
+        if (cache.asMap().remove(key, revalidating)) {
+            snapshotStore.remove(key);
+            log.info("Dropped restored entry {} after failed revalidation", key);
+        }
+    }
+
+    /**
+     * 로더를 실행하고 결과를 캐시에 저장한다.
+     * single-flight 합류 직전에 다른 로드가 끝났을 수 있으므로 캐시를 한 번 더 확인한다.
+     *
+     * @param key    캐시 키
+     * @param ttl    신선도 유지 시간
+     * @param loader 이전 페이지 목록(또는 null) → 새 페이지 목록
+     * @return Mono\<List\<ListingPage\>\> 페이지 목록
+     */
+    private Mono<List<ListingPage>> load(String key, Duration ttl,
+                                         Function<List<ListingPage>, Mono<List<ListingPage>>> loader) {
+        CachedListing cached = cache.getIfPresent(key);
+        if (isFresh(cached, ttl)) {
+            return Mono.just(cached.pages());
+        }
+        List<ListingPage> stale = cached != null ? cached.pages() : null;
+        return loader.apply(stale)
+                .doOnNext(pages -> {
+                    if (pages == stale) {
+                        revalidatedCount.increment();
+                        log.debug("Cache entry revalidated (not modified): {}", key);
+                    } else {
+                        reloadCount.increment();
+                    }
+                    Instant now = Instant.now();
+                    cache.put(key, new CachedListing(pages, now, false));
+                    if (pages != stale) {
+                        snapshotStore.save(key, pages, now);
+                    } else {
+                        // 조회 시각만 갱신 (기록하지 않으면 변경 없는 목록은 max-stale 후 재시작 시 복원되지 않음)
+                        snapshotStore.touch(key, now);
+                    }
+                })
+                .onErrorResume(error -> stale != null && UpstreamResilience.isUnavailable(error), error -> {
+                    // 업스트림 장애(서킷 열림, 제한 시간 초과, 5xx) 동안은 만료된 목록으로 응답하고 다음 요청에서 다시 시도
+                    staleServedCount.increment();
+                    log.warn("Serving stale entry for {}: {}", key, error.getMessage());
+                    return Mono.just(stale);
+                });
+    }
+
+    /**
+     * 스냅샷에서 항목을 복원해 캐시에 넣는다.
+     *
+     * @param key 캐시 키
+     * @return 복원한 항목, 없으면 null
+     */
+    private CachedListing restore(String key) {
+        ListingSnapshotStore.Entry entry = snapshotStore.read(key);
+        if (entry == null) {
+            return null;
+        }
+        CachedListing restored = new CachedListing(entry.pages(), entry.fetchedAt(), true);
+        cache.put(key, restored);
+        return restored;
+    }
+
+    /**
+     * 캐시 항목이 TTL 이내인지 확인한다.
+     *
+     * @param cached 캐시 항목 (null 가능)
+     * @param ttl    신선도 유지 시간
+     * @return TTL 이내 여부
+     */
+    private static boolean isFresh(CachedListing cached, Duration ttl) {
+        return cached != null && cached.fetchedAt().plus(ttl).isAfter(Instant.now());
+    }
+
+    /**
+     * 캐시 항목을 제거한다.
+     *
+     * @param key 캐시 키
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+        snapshotStore.remove(key);
+    }
+
+    /**
+     * 리소스가 일치하는 항목을 모든 인증 정보에 대해 만료시킨다.
+     * 페이지와 `ETag`는 남겨 두므로 다음 조회는 조건부 재검증으로 처리된다 (변경이 없으면 304).
+     * 디스크 스냅샷의 항목은 삭제해 재시작 후에도 이전 목록을 복원하지 않는다.
+     * 키 전체를 훑으므로 웹훅처럼 드문 이벤트에만 사용한다.
+     *
+     * @param resource 리소스 식별자 (예: registry-tags:owner/name, 대소문자 무시)
+     * @return 만료된 항목 수
+     */
+    public int expire(String resource) {
+        int expired = 0;
+        for (Map.Entry<String, CachedListing> entry : cache.asMap().entrySet()) {
+            String key = entry.getKey();
+            int start = key.indexOf('|') + 1;
+            if (key.length() - start != resource.length() || !key.regionMatches(true, start, resource, 0, resource.length())) {
+                continue;
+            }
+            CachedListing cached = entry.getValue();
+            if (cache.asMap().replace(key, cached, new CachedListing(cached.pages(), Instant.EPOCH, false))) {
+                snapshotStore.remove(key);
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 캐시 통계를 반환한다.
+     *
+     * @return ResponseCacheStats
+     */
+    public ResponseCacheStats stats() {
+        return new ResponseCacheStats(hitCount.sum(), missCount.sum(), staleServedCount.sum(), revalidatedCount.sum(),
+                reloadCount.sum(), singleFlight.coalescedCount(), singleFlight.inFlightCount(), cache.estimatedSize());
+    }
+
+    /**
+     * 페이지 목록의 항목을 하나의 목록으로 합친다.
+     * 항목을 복사하지 않는 읽기 전용 뷰이므로, 응답 DTO에 담으면 직렬화할 때 페이지별로 디코딩된다.
+     *
+     * @param pages 페이지 목록
+     * @return 전체 항목
+     */
+    static List<String> flatten(List<ListingPage> pages) {
+        if (pages.size() == 1) {
+            return pages.get(0).items();
+        }
+        return new PagedItems(pages);
+    }
+
+    /**
+     * 캐시된 목록과 조회(또는 재검증) 시각.
+     *
+     * @param pages     페이지 목록
+     * @param fetchedAt 마지막 조회/재검증 시각
+     * @param restored  스냅샷에서 복원한 뒤 아직 재검증을 시작하지 않은 항목 여부
+     */
+    private record CachedListing(List<ListingPage> pages, Instant fetchedAt, boolean restored) {
+    }
+
+    /**
+     * 응답 캐시 통계.
+     *
+     * @param hitCount         TTL 이내 hit 횟수
+     * @param missCount        miss(만료 포함) 횟수
+     * @param staleServedCount 만료 항목으로 응답한 횟수 (스냅샷 복원 후 백그라운드 재검증, 업스트림 장애 중 stale-if-error)
+     * @param revalidatedCount 조건부 재검증 결과 변경 없음(304) 횟수
+     * @param reloadCount      새 내용으로 갱신된 횟수
+     * @param coalescedCount   진행 중인 업스트림 호출에 합류한 횟수
+     * @param inFlightCount    현재 진행 중인 업스트림 로드 수
+     * @param size             현재 항목 수 (추정치)
+     */
+    public record ResponseCacheStats(long hitCount, long missCount, long staleServedCount, long revalidatedCount,
+                                     long reloadCount,
+                                     long coalescedCount, int inFlightCount, long size) {
+    }
+
+    /**
+     * 여러 페이지의 항목을 이어 붙인 읽기 전용 뷰.
+     */
+    private static final class PagedItems extends AbstractList<String> {
+
+        private final List<List<String>> pages;
+        private final int[] starts;
+
+        private PagedItems(List<ListingPage> pages) {
+            this.pages = pages.stream().map(ListingPage::items).toList();
+            this.starts = new int[pages.size() + 1];
+            for (int i = 0; i < pages.size(); i++) {
+                starts[i + 1] = starts[i] + this.pages.get(i).size();
+            }
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size());
+            int page = Arrays.binarySearch(starts, index);
+            // 빈 페이지가 있으면 같은 시작 위치가 여러 개이므로 마지막 것을 쓴다
+            page = page >= 0 ? page : -page - 2;
+            while (starts[page + 1] == index) {
+                page++;
+            }
+            return pages.get(page).get(index - starts[page]);
+        }
+
+        @Override
+        public int size() {
+            return starts[starts.length - 1];
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return pages.stream().flatMap(List::stream).iterator();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.ghcrdemo.service;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 태그에서 파싱한 Semantic Versioning 2.0.0 버전.
+ * <p>
+ * `MAJOR.MINOR.PATCH[-pre-release][+build]` 형식만 인정하며, 태그 앞의 `v`는 허용한다 (`v2.1.0`).
+ * `1`, `1.2` 같은 부분 버전 태그는 semver로 보지 않는다.
+ * 순서는 semver 우선순위(build 메타데이터 무시)이며, 우선순위가 같으면 태그 문자열로 정렬한다.
+ *
+ * @param tag        원래 태그
+ * @param major      major
+ * @param minor      minor
+ * @param patch      patch
+ * @param preRelease pre-release 식별자 (없으면 빈 배열)
+ */
+public record SemanticVersion(String tag, long major, long minor, long patch, String[] preRelease)
+        implements Comparable<SemanticVersion> {
+
+    private static final Pattern SEMVER = Pattern.compile(
+            "v?(0|[1-9]\\d{0,17})\\.(0|[1-9]\\d{0,17})\\.(0|[1-9]\\d{0,17})"
+                    + "(?:-([0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*))?(?:\\+[0-9A-Za-z-]+(?:\\.[0-9A-Za-z-]+)*)?");
+
+    private static final String[] NO_PRE_RELEASE = new String[0];
+
+    /**
+     * 태그를 semver로 파싱한다.
+     *
+     * @param tag 태그
+     * @return SemanticVersion, semver 형식이 아니면 null
+     */
+    public static SemanticVersion parse(String tag) {
+        Matcher matcher = SEMVER.matcher(tag);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String preRelease = matcher.group(4);
+        return new SemanticVersion(tag, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                Long.parseLong(matcher.group(3)), preRelease != null ? preRelease.split("\\.") : NO_PRE_RELEASE);
+    }
+
+    /**
+     * 비교 기준으로만 쓰는 버전 (태그 없음, pre-release 없음).
+     */
+    static SemanticVersion of(long major, long minor, long patch) {
+        return new SemanticVersion("", major, minor, patch, NO_PRE_RELEASE);
+    }
+
+    /**
+     * pre-release가 아닌 정식 버전인지 확인한다.
+     *
+     * @return 정식 버전 여부
+     */
+    public boolean isRelease() {
+        return preRelease.length == 0;
+    }
+
+    /**
+     * semver 우선순위만 비교한다 (태그 문자열 무시).
+     *
+     * @param other 비교 대상
+     * @return 음수/0/양수
+     */
+    public int comparePrecedence(SemanticVersion other) {
+        int result = Long.compare(major, other.major);
+        if (result == 0) {
+            result = Long.compare(minor, other.minor);
+        }
+        if (result == 0) {
+            result = Long.compare(patch, other.patch);
+        }
+        if (result != 0) {
+            return result;
+        }
+        // pre-release가 있으면 더 낮은 버전
+        if (preRelease.length == 0 || other.preRelease.length == 0) {
+            return Integer.compare(other.preRelease.length == 0 ? 0 : 1, preRelease.length == 0 ? 0 : 1);
+        }
+        for (int i = 0; i < Math.min(preRelease.length, other.preRelease.length); i++) {
+            result = compareIdentifier(preRelease[i], other.preRelease[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(preRelease.length, other.preRelease.length);
+    }
+
+    @Override
+    public int compareTo(SemanticVersion other) {
+        int result = comparePrecedence(other);
+        return result != 0 ? result : tag.compareTo(other.tag);
+    }
+
+    /**
+     * pre-release 식별자 비교: 숫자는 숫자로, 숫자가 문자보다 낮다.
+     */
+    private static int compareIdentifier(String left, String right) {
+        boolean leftNumeric = isNumeric(left);
+        boolean rightNumeric = isNumeric(right);
+        if (leftNumeric && rightNumeric) {
+            String l = stripLeadingZeros(left);
+            String r = stripLeadingZeros(right);
+            return l.length() != r.length() ? Integer.compare(l.length(), r.length()) : l.compareTo(r);
+        }
+        if (leftNumeric != rightNumeric) {
+            return leftNumeric ? -1 : 1;
+        }
+        return left.compareTo(right);
+    }
+
+    private static String stripLeadingZeros(String number) {
+        int i = 0;
+        while (i < number.length() - 1 && number.charAt(i) == '0') {
+            i++;
+        }
+        return number.substring(i);
+    }
+
+    private static boolean isNumeric(String identifier) {
+        for (int i = 0; i < identifier.length(); i++) {
+            if (!Character.isDigit(identifier.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SemanticVersion other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return tag.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return major + "." + minor + "." + patch + (isRelease() ? "" : "-" + String.join(".", preRelease))
+                + (tag.isEmpty() ? "" : " (" + tag + ")");
+    }
+}
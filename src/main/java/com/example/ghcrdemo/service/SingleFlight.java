@@ -0,0 +1,72 @@
+package com.example.ghcrdemo.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나의 업스트림 Mono로 합치는 유틸리티 (single-flight).
+ * <p>
+ * 진행 중인 호출이 있으면 새 구독자는 그 결과를 함께 받는다.
+ * 호출이 끝나면(성공/실패 모두) 항목을 즉시 제거하므로 결과나 오류가 이후 요청에 재사용되지 않는다.
+ *
+ * @param <K> 키 타입
+ * @param <V> 결과 타입
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * 키 → 진행 중인 공유 호출.
+     */
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 진행 중인 호출에 합류한 횟수.
+     */
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * 키에 대해 진행 중인 호출이 있으면 합류하고, 없으면 새로 시작한다.
+     *
+     * @param key  호출 식별 키 (예: 인증 정보 해시 + 리소스)
+     * @param call 업스트림 호출을 만드는 함수 (키당 한 번만 구독됨)
+     * @return Mono\<V\> 공유된 호출 결과
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Mono<V>[] created = new Mono[1];
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = Mono.defer(call)
+                        .doFinally(signal -> inFlight.remove(k, created[0]))
+                        .cache();
+                return created[0];
+            });
+            if (shared != created[0]) {
+                coalescedCount.increment();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * 현재 진행 중인 호출 수를 반환한다.
+     *
+     * @return 진행 중인 호출 수
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * 진행 중인 호출에 합류한 누적 횟수를 반환한다.
+     *
+     * @return 합류 횟수
+     */
+    public long coalescedCount() {
+        return coalescedCount.sum();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ghcrdemo.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 레포지토리 하나의 버전 관리되는 태그 집합.
+ * <p>
+ * 태그가 추가/삭제될 때마다 단조 증가하는 시퀀스 번호를 붙여 변경 기록에 남긴다.
+ * 클라이언트는 마지막으로 받은 버전(watermark)을 보내 그 이후의 변경만 받는다.
+ * 변경 기록은 최근 `maxChanges`개만 보관하며, 그보다 오래된 watermark는 전체 목록(reset)으로 응답한다.
+ * 현재 태그는 {@link CompactStringList} 집합으로 보관한다.
+ */
+final class TagHistory {
+
+    private final int maxChanges;
+
+    /**
+     * 현재 태그 (정렬된 집합).
+     */
+    private CompactStringList tags = CompactStringList.sortedSetOf(List.of());
+
+    /**
+     * 시퀀스 → 변경 (오래된 순).
+     */
+    private final NavigableMap<Long, Change> changes = new TreeMap<>();
+
+    /**
+     * 마지막 변경의 시퀀스 (0이면 아직 한 번도 동기화되지 않음).
+     */
+    private long version;
+
+    /**
+     * 이 시퀀스 이후의 변경은 모두 기록에 남아 있다.
+     */
+    private long floor;
+
+    private Instant syncedAt;
+
+    TagHistory(int maxChanges) {
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * 업스트림에서 받은 현재 태그 목록을 반영한다.
+     *
+     * @param current      현재 태그 목록
+     * @param nextSequence 새 시퀀스 번호 발급기
+     * @return 변경된 태그 수 (첫 동기화는 0)
+     */
+    synchronized int apply(Collection<String> current, LongSupplier nextSequence) {
+        syncedAt = Instant.now();
+        CompactStringList latest = CompactStringList.sortedSetOf(current);
+        if (version == 0) {
+            tags = latest;
+            version = nextSequence.getAsLong();
+            floor = version;
+            return 0;
+        }
+        // 정렬된 두 집합을 한 번에 비교
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        Iterator<String> before = tags.iterator();
+        Iterator<String> after = latest.iterator();
+        String previousTag = before.hasNext() ? before.next() : null;
+        String latestTag = after.hasNext() ? after.next() : null;
+        while (previousTag != null || latestTag != null) {
+            int result = previousTag == null ? 1 : latestTag == null ? -1 : previousTag.compareTo(latestTag);
+            if (result <= 0) {
+                if (result < 0) {
+                    removed.add(previousTag);
+                }
+                previousTag = before.hasNext() ? before.next() : null;
+            }
+            if (result >= 0) {
+                if (result > 0) {
+                    added.add(latestTag);
+                }
+                latestTag = after.hasNext() ? after.next() : null;
+            }
+        }
+        removed.forEach(tag -> record(nextSequence.getAsLong(), tag, false));
+        added.forEach(tag -> record(nextSequence.getAsLong(), tag, true));
+        tags = latest;
+        return removed.size() + added.size();
+    }
+
+    private void record(long sequence, String tag, boolean added) {
+        changes.put(sequence, new Change(tag, added));
+        version = sequence;
+        while (changes.size() > maxChanges) {
+            floor = changes.pollFirstEntry().getKey();
+        }
+    }
+
+    /**
+     * watermark 이후의 변경을 반환한다.
+     * 한 태그가 여러 번 바뀌었으면 watermark 시점과 현재 상태만 비교한다.
+     *
+     * @param watermark 클라이언트가 마지막으로 받은 버전
+     * @return Delta, 기록 범위를 벗어나면 현재 전체 목록(reset)
+     */
+    synchronized Delta since(long watermark) {
+        if (watermark < floor || watermark > version) {
+            return new Delta(version, true, tags, List.of(), syncedAt);
+        }
+        Map<String, Boolean> presentBefore = new HashMap<>();
+        for (Change change : changes.tailMap(watermark, false).values()) {
+            // 첫 변경이 삭제였다면 watermark 시점에는 있던 태그
+            presentBefore.putIfAbsent(change.tag(), !change.added());
+        }
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        presentBefore.forEach((tag, before) -> {
+            boolean now = tags.contains(tag);
+            if (!before && now) {
+                added.add(tag);
+            } else if (before && !now) {
+                removed.add(tag);
+            }
+        });
+        added.sort(null);
+        removed.sort(null);
+        return new Delta(version, false, added, removed, syncedAt);
+    }
+
+    synchronized boolean isLoaded() {
+        return version != 0;
+    }
+
+    /**
+     * 태그 변경 기록 항목.
+     *
+     * @param tag   태그
+     * @param added 추가면 true, 삭제면 false
+     */
+    private record Change(String tag, boolean added) {
+    }
+
+    /**
+     * watermark 이후의 태그 변경.
+     *
+     * @param version  현재 버전 (다음 조회의 watermark)
+     * @param reset    true면 added가 전체 목록이며 클라이언트는 기존 목록을 교체해야 함
+     * @param added    추가된 태그
+     * @param removed  삭제된 태그
+     * @param syncedAt 마지막 업스트림 동기화 시각
+     */
+    record Delta(long version, boolean reset, List<String> added, List<String> removed, Instant syncedAt) {
+    }
+}
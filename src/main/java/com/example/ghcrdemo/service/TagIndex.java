@@ -0,0 +1,152 @@
+package com.example.ghcrdemo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 태그 목록 하나(태그 집합의 한 버전)에 대한 조회 색인.
+ * <p>
+ * 생성 시 한 번 정렬/파싱해 두고 이후 조회는 정렬된 배열의 이진 탐색으로 범위를 좁힌다.
+ * <ul>
+ *     <li>이름순 사전: 접두사(prefix, glob의 고정 접두사) 범위 → O(log n + k)</li>
+ *     <li>semver 순서(전체 / 정식 버전만): semver 범위 → O(log n + k), 최신 우선으로 top-N</li>
+ *     <li>업스트림 순서: 날짜순 정렬 (전체 순회)</li>
+ * </ul>
+ * 태그 문자열은 {@link CompactStringList} 사전 하나에만 보관하고, 나머지 순서는 사전 번호 배열로 기록한다.
+ * semver는 보관하지 않고 비교/필터가 필요한 후보만 그때 파싱한다.
+ * 정규식이나 색인으로 좁힐 수 없는 조건은 좁힌 범위 안에서 하나씩 확인한다.
+ * 불변 객체이며 여러 요청이 공유한다.
+ */
+final class TagIndex {
+
+    private final CompactStringList names;
+    private final int[] upstreamOrder;
+    private final int[] versions;
+    private final int[] releases;
+
+    private TagIndex(CompactStringList names, int[] upstreamOrder, int[] versions, int[] releases) {
+        this.names = names;
+        this.upstreamOrder = upstreamOrder;
+        this.versions = versions;
+        this.releases = releases;
+    }
+
+    /**
+     * 태그 목록으로 색인을 만든다.
+     *
+     * @param tags 업스트림 순서의 태그 목록
+     * @return TagIndex
+     */
+    static TagIndex build(List<String> tags) {
+        String[] unique = new LinkedHashSet<>(tags).toArray(String[]::new);
+        String[] sorted = unique.clone();
+        Arrays.sort(sorted);
+        int[] upstreamOrder = new int[unique.length];
+        for (int i = 0; i < unique.length; i++) {
+            upstreamOrder[i] = Arrays.binarySearch(sorted, unique[i]);
+        }
+        SemanticVersion[] parsed = new SemanticVersion[sorted.length];
+        for (int id = 0; id < sorted.length; id++) {
+            parsed[id] = SemanticVersion.parse(sorted[id]);
+        }
+        int[] versions = IntStream.range(0, sorted.length)
+                .filter(id -> parsed[id] != null)
+                .boxed()
+                .sorted(Comparator.comparing(id -> parsed[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        int[] releases = Arrays.stream(versions).filter(id -> parsed[id].isRelease()).toArray();
+        return new TagIndex(CompactStringList.sortedSetOf(Arrays.asList(sorted)), upstreamOrder, versions, releases);
+    }
+
+    /**
+     * 조건에 맞는 태그를 정렬 기준에 따라 최대 limit개 반환한다.
+     *
+     * @param query 조회 조건
+     * @return 태그 목록
+     * @throws TagQueryTimeoutException `regex` 평가가 {@link TagQuery#REGEX_TIMEOUT}을 넘음
+     */
+    List<String> select(TagQuery query) {
+        int limit = query.limit();
+        // regex 제한 시간은 태그마다가 아니라 조회 전체에 적용
+        long regexDeadline = TagQuery.regexDeadline();
+        List<String> result = new ArrayList<>(Math.min(limit, 64));
+        switch (query.sort()) {
+            case SEMVER -> {
+                int[] source = query.preRelease() ? versions : releases;
+                int from = 0;
+                int to = source.length;
+                TagQuery.VersionRange range = query.range();
+                if (range != null) {
+                    from = range.lower() == null ? 0 : lowerBound(source, range.lower(), !range.lowerInclusive());
+                    to = range.upper() == null ? source.length : lowerBound(source, range.upper(), range.upperInclusive());
+                }
+                for (int i = to - 1; i >= from && result.size() < limit; i--) {
+                    String tag = names.get(source[i]);
+                    if (query.matches(tag, SemanticVersion.parse(tag), regexDeadline)) {
+                        result.add(tag);
+                    }
+                }
+            }
+            case NAME -> {
+                String prefix = query.scanPrefix();
+                int from = prefix == null ? 0 : insertionPoint(names.dictionarySearch(prefix));
+                for (int i = from; i < names.size() && result.size() < limit; i++) {
+                    String tag = names.get(i);
+                    if (prefix != null && !tag.startsWith(prefix)) {
+                        break;
+                    }
+                    if (query.matches(tag, versionForFilter(query, tag), regexDeadline)) {
+                        result.add(tag);
+                    }
+                }
+            }
+            case DATE -> {
+                for (int i = 0; i < upstreamOrder.length && result.size() < limit; i++) {
+                    String tag = names.get(upstreamOrder[i]);
+                    if (query.matches(tag, versionForFilter(query, tag), regexDeadline)) {
+                        result.add(tag);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    /**
+     * 이름/날짜순 조회에서는 semver 범위 필터가 있을 때만 버전이 필요하다.
+     */
+    private static SemanticVersion versionForFilter(TagQuery query, String tag) {
+        return query.range() != null ? SemanticVersion.parse(tag) : null;
+    }
+
+    /**
+     * bound보다 우선순위가 낮은(strict면 같거나 낮은) 버전의 개수 = 첫 후보 위치.
+     */
+    private int lowerBound(int[] source, SemanticVersion bound, boolean strict) {
+        int low = 0;
+        int high = source.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int result = SemanticVersion.parse(names.get(source[mid])).comparePrecedence(bound);
+            if (result < 0 || (strict && result == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int insertionPoint(int searchResult) {
+        return searchResult >= 0 ? searchResult : -searchResult - 1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 캐시된 태그 목록별 {@link TagIndex} 보관소.
+ * <p>
+ * 키는 {@link ResponseCache}가 보관하는 페이지 목록 인스턴스(동일성 비교)이므로,
+ * 태그 집합이 바뀌어 새 페이지 목록이 캐시될 때만 색인을 다시 만든다 (304 재검증은 같은 인스턴스 유지).
+ * 페이지 목록이 캐시에서 빠지면 색인도 GC 대상이 된다 (weak key).
+ */
+@Component
+public class TagIndexCache {
+
+    private final Cache<List<ListingPage>, TagIndex> indexes;
+
+    private final LongAdder buildCount = new LongAdder();
+
+    public TagIndexCache(GhcrProperties ghcrProperties) {
+        this.indexes = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(ghcrProperties.getCache().getMaxSize())
+                .build();
+    }
+
+    /**
+     * 페이지 목록의 색인을 반환한다 (없으면 만든다).
+     *
+     * @param pages 캐시된 페이지 목록
+     * @return TagIndex
+     */
+    TagIndex get(List<ListingPage> pages) {
+        return indexes.get(pages, key -> {
+            buildCount.increment();
+            return TagIndex.build(ResponseCache.flatten(key));
+        });
+    }
+
+    /**
+     * 지금까지 만든 색인 수를 반환한다.
+     *
+     * @return 색인 생성 횟수
+     */
+    public long buildCount() {
+        return buildCount.sum();
+    }
+}
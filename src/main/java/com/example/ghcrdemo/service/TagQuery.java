@@ -0,0 +1,435 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.dto.TagQueryParams;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 검증과 컴파일을 마친 태그 조회 조건 ({@link TagIndex#select}에서 사용).
+ * <p>
+ * semver 범위는 npm 문법의 부분 집합을 지원한다: 비교 연산자(`=`, `>`, `>=`, `<`, `<=`),
+ * `^`, `~`, x-range(`2.x`, `2.*`, `2`)이며, 공백으로 나열한 조건은 모두 만족해야 한다 (`||`는 미지원).
+ * x-range/`^`/`~`의 상한은 다음 버전의 pre-release도 제외한다 (`2.x` = `>=2.0.0 <3.0.0-0`).
+ * <p>
+ * `glob`은 정규식으로 바꾸지 않고 마지막 `*`까지만 되돌아가는 와일드카드 비교로 평가한다 (태그 길이에 대해 최악 O(n·m)).
+ * `regex`는 역추적이 폭발할 수 있으므로 한 번의 조회에서 {@link #REGEX_TIMEOUT}을 넘으면
+ * {@link TagQueryTimeoutException}(400)으로 중단하며, 호출자는 이벤트 루프 밖에서 평가해야 한다 ({@link #hasRegex()}).
+ */
+public final class TagQuery {
+
+    /**
+     * 정렬 기준.
+     */
+    public enum Sort {
+        /**
+         * 이름 오름차순.
+         */
+        NAME,
+        /**
+         * semver 우선순위 내림차순 (최신 우선, semver 태그만).
+         */
+        SEMVER,
+        /**
+         * 업스트림 순서 (Packages API는 최신 버전 우선, 레지스트리 `tags/list`는 이름순).
+         */
+        DATE
+    }
+
+    private static final int MAX_PATTERN_LENGTH = 256;
+
+    /**
+     * 조회 한 번에서 `regex` 평가에 쓸 수 있는 최대 시간.
+     */
+    static final Duration REGEX_TIMEOUT = Duration.ofMillis(200);
+
+    private final String prefix;
+    private final String glob;
+    private final String globPrefix;
+    private final Pattern regex;
+    private final VersionRange range;
+    private final boolean preRelease;
+    private final Sort sort;
+    private final int limit;
+
+    private TagQuery(String prefix, String glob, String globPrefix, Pattern regex, VersionRange range,
+                     boolean preRelease, Sort sort, int limit) {
+        this.prefix = prefix;
+        this.glob = glob;
+        this.globPrefix = globPrefix;
+        this.regex = regex;
+        this.range = range;
+        this.preRelease = preRelease;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    /**
+     * 쿼리 파라미터를 검증하고 컴파일한다.
+     *
+     * @param params 쿼리 파라미터 (null 가능)
+     * @return TagQuery, 조건이 하나도 없으면 null (업스트림 목록 그대로)
+     * @throws IllegalArgumentException 잘못된 패턴/범위/정렬/개수
+     */
+    public static TagQuery of(TagQueryParams params) {
+        if (params == null || (isBlank(params.getPrefix()) && isBlank(params.getGlob()) && isBlank(params.getRegex())
+                && isBlank(params.getSemver()) && isBlank(params.getSort()) && params.getLimit() == null)) {
+            return null;
+        }
+        String glob = null;
+        String globPrefix = null;
+        if (!isBlank(params.getGlob())) {
+            checkLength("glob", params.getGlob());
+            glob = params.getGlob();
+            globPrefix = literalPrefix(glob);
+        }
+        Pattern regex = null;
+        if (!isBlank(params.getRegex())) {
+            checkLength("regex", params.getRegex());
+            try {
+                regex = Pattern.compile(params.getRegex());
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid regex: " + e.getDescription());
+            }
+        }
+        VersionRange range = isBlank(params.getSemver()) ? null : VersionRange.parse(params.getSemver());
+        Sort sort;
+        if (isBlank(params.getSort())) {
+            sort = range != null ? Sort.SEMVER : Sort.NAME;
+        } else {
+            try {
+                sort = Sort.valueOf(params.getSort().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid sort: " + params.getSort() + " (name, semver, date)");
+            }
+        }
+        if (params.getLimit() != null && params.getLimit() < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return new TagQuery(isBlank(params.getPrefix()) ? null : params.getPrefix(), glob, globPrefix, regex, range,
+                params.isPrerelease(), sort, params.getLimit() != null ? params.getLimit() : Integer.MAX_VALUE);
+    }
+
+    /**
+     * 태그가 모든 필터를 만족하는지 확인한다 (`regex` 제한 시간은 이 호출부터 {@link #REGEX_TIMEOUT}).
+     *
+     * @param tag     태그
+     * @param version 태그의 semver (없으면 null)
+     * @return 만족 여부
+     */
+    boolean matches(String tag, SemanticVersion version) {
+        return matches(tag, version, regexDeadline());
+    }
+
+    /**
+     * 태그가 모든 필터를 만족하는지 확인한다.
+     *
+     * @param tag           태그
+     * @param version       태그의 semver (없으면 null)
+     * @param regexDeadline `regex` 평가 마감 시각 ({@link #regexDeadline()})
+     * @return 만족 여부
+     * @throws TagQueryTimeoutException `regex` 평가가 마감 시각을 넘음
+     */
+    boolean matches(String tag, SemanticVersion version, long regexDeadline) {
+        if (prefix != null && !tag.startsWith(prefix)) {
+            return false;
+        }
+        if (glob != null && !globMatches(glob, tag)) {
+            return false;
+        }
+        if (regex != null && !regex.matcher(new DeadlineCharSequence(tag, regexDeadline)).find()) {
+            return false;
+        }
+        if (range != null || sort == Sort.SEMVER) {
+            if (version == null || (!preRelease && !version.isRelease())) {
+                return false;
+            }
+            return range == null || range.contains(version);
+        }
+        return true;
+    }
+
+    /**
+     * 이름순 색인에서 범위를 좁힐 접두사 (prefix와 glob의 고정 접두사 중 더 긴 쪽).
+     *
+     * @return 접두사, 없으면 null
+     */
+    String scanPrefix() {
+        if (prefix == null) {
+            return globPrefix == null || globPrefix.isEmpty() ? null : globPrefix;
+        }
+        if (globPrefix != null && globPrefix.startsWith(prefix)) {
+            return globPrefix;
+        }
+        return prefix;
+    }
+
+    /**
+     * `regex` 조건이 있는지 확인한다. 있으면 평가가 제한 시간까지 걸릴 수 있으므로 이벤트 루프 밖에서 평가한다.
+     *
+     * @return `regex` 조건 여부
+     */
+    boolean hasRegex() {
+        return regex != null;
+    }
+
+    /**
+     * 지금부터 {@link #REGEX_TIMEOUT} 뒤의 `regex` 평가 마감 시각 (`System.nanoTime()` 기준).
+     *
+     * @return 마감 시각
+     */
+    static long regexDeadline() {
+        return System.nanoTime() + REGEX_TIMEOUT.toNanos();
+    }
+
+    VersionRange range() {
+        return range;
+    }
+
+    boolean preRelease() {
+        return preRelease;
+    }
+
+    Sort sort() {
+        return sort;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * `*`(0자 이상), `?`(1자) 와일드카드로 전체 일치를 확인한다.
+     * 불일치하면 마지막 `*`가 한 글자 더 덮도록 그 위치로만 되돌아가므로 역추적이 쌓이지 않는다.
+     *
+     * @param glob 패턴
+     * @param text 태그
+     * @return 일치 여부
+     */
+    static boolean globMatches(String glob, String text) {
+        int g = 0;
+        int t = 0;
+        int star = -1;
+        int starText = 0;
+        while (t < text.length()) {
+            if (g < glob.length() && (glob.charAt(g) == '?' || glob.charAt(g) == text.charAt(t))
+                    && glob.charAt(g) != '*') {
+                g++;
+                t++;
+            } else if (g < glob.length() && glob.charAt(g) == '*') {
+                star = g++;
+                starText = t;
+            } else if (star >= 0) {
+                g = star + 1;
+                t = ++starText;
+            } else {
+                return false;
+            }
+        }
+        while (g < glob.length() && glob.charAt(g) == '*') {
+            g++;
+        }
+        return g == glob.length();
+    }
+
+    private static String literalPrefix(String glob) {
+        int end = 0;
+        while (end < glob.length() && glob.charAt(end) != '*' && glob.charAt(end) != '?') {
+            end++;
+        }
+        return glob.substring(0, end);
+    }
+
+    private static void checkLength(String name, String value) {
+        if (value.length() > MAX_PATTERN_LENGTH) {
+            throw new IllegalArgumentException(name + " is too long (max " + MAX_PATTERN_LENGTH + ")");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * 정규식 엔진이 읽을 때마다 마감 시각을 확인하는 문자열 (역추적이 길어지면 읽기 횟수도 늘어난다).
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+
+        private final CharSequence text;
+        private final long deadline;
+        private int reads;
+
+        private DeadlineCharSequence(CharSequence text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            // System.nanoTime() 호출 비용을 줄이기 위해 1024번 읽을 때마다 확인
+            if ((++reads & 0x3FF) == 0 && System.nanoTime() - deadline > 0) {
+                throw new TagQueryTimeoutException("regex took longer than " + REGEX_TIMEOUT.toMillis()
+                        + "ms to evaluate; simplify the pattern");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    /**
+     * semver 구간. 경계가 null이면 제한 없음.
+     *
+     * @param lower          하한
+     * @param lowerInclusive 하한 포함 여부
+     * @param upper          상한
+     * @param upperInclusive 상한 포함 여부
+     */
+    record VersionRange(SemanticVersion lower, boolean lowerInclusive, SemanticVersion upper, boolean upperInclusive) {
+
+        private static final VersionRange ALL = new VersionRange(null, false, null, false);
+
+        static VersionRange parse(String expression) {
+            if (expression.contains("||")) {
+                throw new IllegalArgumentException("Invalid semver range: '||' is not supported");
+            }
+            VersionRange range = ALL;
+            List<String> tokens = new ArrayList<>();
+            for (String token : expression.trim().split("\\s+")) {
+                // ">= 1.2.0"처럼 연산자 뒤에 공백이 있는 경우
+                if (!tokens.isEmpty() && tokens.get(tokens.size() - 1).matches("[<>=^~]+")) {
+                    tokens.set(tokens.size() - 1, tokens.get(tokens.size() - 1) + token);
+                } else {
+                    tokens.add(token);
+                }
+            }
+            for (String token : tokens) {
+                range = range.intersect(comparator(token));
+            }
+            return range;
+        }
+
+        boolean contains(SemanticVersion version) {
+            if (lower != null) {
+                int result = version.comparePrecedence(lower);
+                if (result < 0 || (result == 0 && !lowerInclusive)) {
+                    return false;
+                }
+            }
+            if (upper != null) {
+                int result = version.comparePrecedence(upper);
+                return result < 0 || (result == 0 && upperInclusive);
+            }
+            return true;
+        }
+
+        private VersionRange intersect(VersionRange other) {
+            SemanticVersion newLower = lower;
+            boolean newLowerInclusive = lowerInclusive;
+            if (other.lower != null) {
+                int result = lower == null ? -1 : lower.comparePrecedence(other.lower);
+                if (result < 0 || (result == 0 && !other.lowerInclusive)) {
+                    newLower = other.lower;
+                    newLowerInclusive = other.lowerInclusive;
+                }
+            }
+            SemanticVersion newUpper = upper;
+            boolean newUpperInclusive = upperInclusive;
+            if (other.upper != null) {
+                int result = upper == null ? 1 : upper.comparePrecedence(other.upper);
+                if (result > 0 || (result == 0 && !other.upperInclusive)) {
+                    newUpper = other.upper;
+                    newUpperInclusive = other.upperInclusive;
+                }
+            }
+            return new VersionRange(newLower, newLowerInclusive, newUpper, newUpperInclusive);
+        }
+
+        private static VersionRange comparator(String token) {
+            int opEnd = 0;
+            while (opEnd < token.length() && "<>=^~".indexOf(token.charAt(opEnd)) >= 0) {
+                opEnd++;
+            }
+            String op = token.substring(0, opEnd);
+            String version = token.substring(opEnd);
+            if (version.startsWith("v")) {
+                version = version.substring(1);
+            }
+            String[] parts = version.split("\\.", 3);
+            long[] numbers = new long[3];
+            int given = 0;
+            for (String part : parts) {
+                if (part.equals("x") || part.equals("X") || part.equals("*")) {
+                    break;
+                }
+                if (given == 2) {
+                    break;
+                }
+                try {
+                    numbers[given] = Long.parseLong(part);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid semver range: " + token);
+                }
+                given++;
+            }
+            SemanticVersion base;
+            if (given == 2 && parts.length == 3 && !parts[2].matches("[xX*]")) {
+                base = SemanticVersion.parse(numbers[0] + "." + numbers[1] + "." + parts[2]);
+                if (base == null) {
+                    throw new IllegalArgumentException("Invalid semver range: " + token);
+                }
+                given = 3;
+            } else {
+                base = SemanticVersion.of(numbers[0], numbers[1], numbers[2]);
+            }
+            if (given == 0 && !(op.isEmpty() || op.equals("=") || op.equals("^") || op.equals("~") || op.equals(">="))) {
+                throw new IllegalArgumentException("Invalid semver range: " + token);
+            }
+            return switch (op) {
+                case "", "=" -> given == 3 ? new VersionRange(base, true, base, true)
+                        : given == 0 ? ALL : new VersionRange(base, true, bump(base, given - 1), false);
+                case ">=" -> new VersionRange(base, true, null, false);
+                case ">" -> given == 3 ? new VersionRange(base, false, null, false)
+                        : new VersionRange(bump(base, given - 1), true, null, false);
+                case "<" -> new VersionRange(null, false, given == 3 ? base
+                        : new SemanticVersion("", base.major(), base.minor(), base.patch(), new String[]{"0"}), false);
+                case "<=" -> given == 3 ? new VersionRange(null, false, base, true)
+                        : new VersionRange(null, false, bump(base, given - 1), false);
+                case "^" -> given == 0 ? ALL : new VersionRange(base, true,
+                        bump(base, base.major() != 0 || given == 1 ? 0 : base.minor() != 0 || given == 2 ? 1 : 2),
+                        false);
+                case "~" -> given == 0 ? ALL : new VersionRange(base, true, bump(base, given == 1 ? 0 : 1), false);
+                default -> throw new IllegalArgumentException("Invalid semver range: " + token);
+            };
+        }
+
+        /**
+         * position(0=major, 1=minor, 2=patch)을 1 올린 버전의 가장 낮은 pre-release (`X.Y.Z-0`).
+         */
+        private static SemanticVersion bump(SemanticVersion version, int position) {
+            return switch (position) {
+                case 0 -> new SemanticVersion("", version.major() + 1, 0, 0, new String[]{"0"});
+                case 1 -> new SemanticVersion("", version.major(), version.minor() + 1, 0, new String[]{"0"});
+                default -> new SemanticVersion("", version.major(), version.minor(), version.patch() + 1,
+                        new String[]{"0"});
+            };
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ghcrdemo.service;
+
+/**
+ * 태그 조회 조건(`regex`) 평가가 제한 시간을 넘었을 때 발생하는 예외.
+ * 역추적이 폭발하는 정규식으로 스레드를 붙잡지 않도록 {@link TagQuery}가 평가를 중단한다.
+ * 잘못된 조건과 같이 컨트롤러에서 400(Bad Request)으로 변환된다.
+ */
+public class TagQueryTimeoutException extends IllegalArgumentException {
+
+    public TagQueryTimeoutException(String message) {
+        super(message);
+    }
+}
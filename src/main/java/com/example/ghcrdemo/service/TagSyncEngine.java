@@ -0,0 +1,195 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.dto.AuthRequest;
+import com.example.ghcrdemo.dto.TagChangesResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 등록된 (인증 정보, 레포지토리)의 태그를 백그라운드에서 주기적으로 동기화하는 엔진.
+ * <p>
+ * 클라이언트가 변경 조회(`tags/changes`)를 처음 호출하면 등록되고, `sync.idle-timeout` 동안 조회가 없으면 해제된다.
+ * `sync.interval`마다 등록된 레포지토리를 `sync.concurrency`개씩 다시 조회해 {@link TagHistory}에 반영하므로,
+ * 업스트림 호출 수는 폴링하는 클라이언트 수와 관계없이 레포지토리 수에 비례한다.
+ * 조회는 {@link ResponseCache}를 거치므로 대부분 `ETag` 재검증(304)으로 끝난다.
+ * <p>
+ * 시퀀스 번호는 시작 시각(마이크로초)에서 시작해 단조 증가하므로, 재시작 전의 watermark는 전체 목록(reset)으로 응답된다.
+ * 백그라운드 조회를 위해 등록 기간 동안 인증 정보를 메모리에 보관한다.
+ */
+@Slf4j
+@Component
+public class TagSyncEngine implements DisposableBean {
+
+    private final GitHubPackagesService gitHubPackagesService;
+    private final GhcrProperties.Sync settings;
+
+    /**
+     * 구독 키(인증 정보 해시 + 레포지토리) → 구독.
+     */
+    private final Cache<String, Subscription> subscriptions;
+
+    /**
+     * 첫 동기화를 같은 구독끼리 하나로 합치는 single-flight.
+     */
+    private final SingleFlight<String, TagHistory> initialSync = new SingleFlight<>();
+
+    private final AtomicLong sequence = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+    private final LongAdder changedCount = new LongAdder();
+    private final LongAdder unchangedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    private final Disposable poller;
+
+    public TagSyncEngine(GitHubPackagesService gitHubPackagesService, GhcrProperties ghcrProperties) {
+        this.gitHubPackagesService = gitHubPackagesService;
+        this.settings = ghcrProperties.getSync();
+        this.subscriptions = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSubscriptions())
+                .expireAfterAccess(settings.getIdleTimeout())
+                .build();
+        this.poller = Flux.interval(settings.getInterval(), settings.getInterval())
+                .onBackpressureDrop(tick -> log.warn("Tag sync round skipped; previous round still running"))
+                .concatMap(tick -> syncAll(), 1)
+                .subscribe();
+    }
+
+    /**
+     * watermark 이후의 태그 변경을 반환한다.
+     * 처음 조회하는 (인증 정보, 레포지토리)는 등록 후 한 번 동기화하고 전체 목록(reset)을 반환한다.
+     *
+     * @param repository  "owner/package" 또는 "package"
+     * @param authRequest 인증 정보
+     * @param since       클라이언트가 마지막으로 받은 버전 (처음이면 0)
+     * @return Mono\<TagChangesResponse\> 변경 내용 (첫 동기화 실패 시 오류 전파)
+     */
+    public Mono<TagChangesResponse> changesSince(String repository, AuthRequest authRequest, long since) {
+        String repoToUse = gitHubPackagesService.qualifyRepository(repository, authRequest);
+        String key = ResponseCache.key(authRequest, "sync:" + repoToUse);
+        Subscription subscription = subscriptions.get(key, k -> {
+            log.info("Registered tag sync for {}", repoToUse);
+            return new Subscription(repoToUse, authRequest, new TagHistory(settings.getMaxChanges()));
+        });
+        Mono<TagHistory> history = subscription.history().isLoaded()
+                ? Mono.just(subscription.history())
+                : initialSync.execute(key, () -> sync(subscription))
+                .doOnError(error -> subscriptions.invalidate(key));
+        return history.map(loaded -> toResponse(repoToUse, loaded.since(since)));
+    }
+
+    /**
+     * 레포지토리의 등록된 구독을 다음 라운드를 기다리지 않고 즉시 동기화한다 (웹훅 수신 시).
+     *
+     * @param repository "owner/package" (대소문자 무시)
+     * @return 동기화를 시작한 구독 수
+     */
+    public int refresh(String repository) {
+        List<Subscription> targets = subscriptions.asMap().values().stream()
+                .filter(subscription -> subscription.repository().equalsIgnoreCase(repository))
+                .filter(subscription -> subscription.history().isLoaded())
+                .toList();
+        targets.forEach(subscription -> sync(subscription).subscribe(history -> {
+        }, error -> {
+            failedCount.increment();
+            log.warn("Tag sync failed for {}: {}", subscription.repository(), error.getMessage());
+        }));
+        return targets.size();
+    }
+
+    /**
+     * 등록된 모든 레포지토리를 동기화한다 (개별 실패는 기록만 하고 계속 진행).
+     *
+     * @return Mono\<Void\> 한 라운드 완료
+     */
+    private Mono<Void> syncAll() {
+        List<Subscription> targets = List.copyOf(subscriptions.asMap().values());
+        return Flux.fromIterable(targets)
+                .filter(subscription -> subscription.history().isLoaded())
+                .flatMap(subscription -> sync(subscription)
+                        .onErrorResume(error -> {
+                            failedCount.increment();
+                            log.warn("Tag sync failed for {}: {}", subscription.repository(), error.getMessage());
+                            return Mono.empty();
+                        }), settings.getConcurrency())
+                .then();
+    }
+
+    /**
+     * 레포지토리 하나를 조회해 태그 이력에 반영한다.
+     *
+     * @param subscription 구독
+     * @return Mono\<TagHistory\> 갱신된 이력
+     */
+    private Mono<TagHistory> sync(Subscription subscription) {
+        return gitHubPackagesService.fetchRegistryTagList(subscription.repository(), subscription.authRequest())
+                .map(tags -> {
+                    int changed = subscription.history().apply(tags, sequence::incrementAndGet);
+                    if (changed > 0) {
+                        changedCount.increment();
+                        log.info("Tag sync for {}: {} changes", subscription.repository(), changed);
+                    } else {
+                        unchangedCount.increment();
+                    }
+                    return subscription.history();
+                });
+    }
+
+    private static TagChangesResponse toResponse(String repository, TagHistory.Delta delta) {
+        TagChangesResponse response = new TagChangesResponse();
+        response.setName(repository);
+        response.setVersion(delta.version());
+        response.setReset(delta.reset());
+        response.setAdded(delta.added());
+        response.setRemoved(delta.removed());
+        response.setSyncedAt(delta.syncedAt());
+        return response;
+    }
+
+    /**
+     * 동기화 통계를 반환한다.
+     *
+     * @return SyncStats
+     */
+    public SyncStats stats() {
+        return new SyncStats(subscriptions.estimatedSize(), changedCount.sum(), unchangedCount.sum(),
+                failedCount.sum());
+    }
+
+    @Override
+    public void destroy() {
+        poller.dispose();
+    }
+
+    /**
+     * 동기화 대상.
+     *
+     * @param repository  "owner/package"
+     * @param authRequest 인증 정보
+     * @param history     태그 이력
+     */
+    private record Subscription(String repository, AuthRequest authRequest, TagHistory history) {
+    }
+
+    /**
+     * 동기화 통계.
+     *
+     * @param subscriptions  등록된 레포지토리 수 (추정치)
+     * @param changedCount   변경이 있었던 동기화 횟수
+     * @param unchangedCount 변경이 없었던 동기화 횟수
+     * @param failedCount    실패한 백그라운드 동기화 횟수
+     */
+    public record SyncStats(long subscriptions, long changedCount, long unchangedCount, long failedCount) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.ghcrdemo.service;
+
+import java.time.Duration;
+
+/**
+ * 한 테넌트(인증 정보)의 업스트림 호출 대기열이 가득 차서 요청을 받지 않을 때 발생하는 예외.
+ * 다른 테넌트의 몫을 침범하지 않도록 대기하지 않고 즉시 거절한다.
+ * 컨트롤러에서 Rate Limit 초과와 같이 429(Too Many Requests)와 `Retry-After`로 변환된다.
+ */
+public class TenantOverloadedException extends RateLimitExceededException {
+
+    public TenantOverloadedException(String message, Duration retryAfter) {
+        super(message, retryAfter);
+    }
+}
@@ -0,0 +1,583 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 테넌트(인증 정보 해시)별로 업스트림 호출을 수용하고 호스트의 동시 호출 슬롯을 공정하게 나누는 컴포넌트.
+ * <p>
+ * 두 개의 WebClient 필터로 구성된다.
+ * <ul>
+ *     <li>{@link #admission()} (가장 바깥): 테넌트의 대기 중인 호출 수가 `admission.max-queued-per-tenant`에 이르면
+ *     기다리지 않고 {@link TenantOverloadedException}(429 + `Retry-After`)으로 거절한다.
+ *     {@link RateLimitScheduler}의 예산 대기도 대기로 센다.</li>
+ *     <li>{@link #filter(String)} (Rate Limit 필터 안쪽): 호스트별 `admission.max-concurrency`개의 슬롯을
+ *     가중 공정 스케줄링(stride scheduling)으로 배정한다. 테넌트마다 `pass` 값을 두고, 슬롯이 비면 대기 중인 테넌트 중
+ *     `pass`가 가장 작은 테넌트에게 주고 `1 / weight`만큼 늘린다. 새로 활성화된 테넌트는 현재 가상 시각에서 시작하므로
+ *     쉬는 동안 몫이 쌓이지 않는다. 테넌트 하나가 동시에 쓰는 슬롯은 `admission.max-in-flight-per-tenant`로 제한된다.</li>
+ * </ul>
+ * 따라서 한 테넌트가 대량 조회로 대기열을 채워도 다른 테넌트의 호출은 자기 몫의 슬롯을 바로 받는다.
+ * 슬롯은 응답 헤더를 받으면 반납된다 ({@link RateLimitScheduler}와 같은 기준).
+ * <p>
+ * 테넌트별 메트릭(`tenant` 태그 = 인증 정보 해시 앞 12자리):
+ * `ghcr.tenant.queue.depth`, `ghcr.tenant.in.flight`, `ghcr.tenant.queue.wait`(슬롯을 받기까지),
+ * `ghcr.tenant.upstream.latency`(수용부터 응답 헤더까지), `ghcr.tenant.rejected`.
+ * 대기/진행 중인 호출이 없는 테넌트만 제거하며, `admission.tenant-idle-timeout` 동안 호출이 없거나
+ * `admission.max-tracked-tenants`를 넘으면(오래 쉰 테넌트부터) 메트릭과 함께 제거한다.
+ * 호출 중인 테넌트는 제거하지 않으므로 대기 한도와 메트릭이 호출 도중 초기화되지 않는다.
+ * <p>
+ * 구독 컨텍스트에 {@link RateLimitScheduler#CREDENTIAL_KEY}가 없는 호출은 `anonymous` 테넌트로 처리한다.
+ */
+@Slf4j
+@Component
+public class TenantScheduler {
+
+    /**
+     * 가중치 조회용 username을 담는 Reactor 컨텍스트 키 ({@link RateLimitScheduler#withCredential}에서 설정).
+     */
+    static final String USERNAME_KEY = TenantScheduler.class.getName() + ".username";
+
+    /**
+     * 수용된 호출({@link Ticket})을 담는 Reactor 컨텍스트 키.
+     */
+    private static final String TICKET_KEY = TenantScheduler.class.getName() + ".ticket";
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final GhcrProperties.Admission settings;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 인증 정보 해시 → 테넌트 (대기/진행 수, 메트릭). 추가와 제거는 키별 `compute`로만 한다.
+     */
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * 마지막으로 쉬는 테넌트를 정리한 시각 (`System.nanoTime()`).
+     */
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    /**
+     * 업스트림 호스트 → 슬롯 대기열.
+     */
+    private final Map<String, HostQueue> hosts = new ConcurrentHashMap<>();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public TenantScheduler(GhcrProperties ghcrProperties, MeterRegistry meterRegistry) {
+        this.settings = ghcrProperties.getAdmission();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 테넌트별 대기 한도를 적용하는 WebClient 필터 (필터 체인의 가장 바깥쪽에 둔다).
+     *
+     * @return ExchangeFilterFunction
+     */
+    public ExchangeFilterFunction admission() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            if (!settings.isEnabled()) {
+                return next.exchange(request);
+            }
+            String credential = context.getOrDefault(RateLimitScheduler.CREDENTIAL_KEY, ANONYMOUS);
+            String username = context.getOrDefault(USERNAME_KEY, "");
+            Tenant tenant = enter(credential, username);
+            if (!tenant.tryEnqueue()) {
+                tenant.leave();
+                rejectedCount.increment();
+                tenant.rejected.increment();
+                log.warn("Tenant {} has {} queued upstream calls; rejecting", tenant.id, tenant.queued.get());
+                return Mono.error(new TenantOverloadedException("Too many queued upstream requests for this credential",
+                        settings.getRejectRetryAfter()));
+            }
+            Ticket ticket = new Ticket(tenant);
+            return next.exchange(request)
+                    .doFinally(signal -> ticket.finish())
+                    .contextWrite(ctx -> ctx.put(TICKET_KEY, ticket));
+        });
+    }
+
+    /**
+     * 업스트림 호스트의 동시 호출 슬롯을 테넌트 간에 공정하게 배정하는 WebClient 필터.
+     * {@link #admission()}을 거친 호출에만 적용된다.
+     *
+     * @param upstream 업스트림 식별자 (예: api.github.com)
+     * @return ExchangeFilterFunction
+     */
+    public ExchangeFilterFunction filter(String upstream) {
+        return (request, next) -> Mono.deferContextual(context -> {
+            Ticket ticket = context.getOrDefault(TICKET_KEY, null);
+            if (ticket == null) {
+                return next.exchange(request);
+            }
+            HostQueue host = hosts.computeIfAbsent(upstream, HostQueue::new);
+            return Mono.<ClientResponse, Permit>usingWhen(host.acquire(ticket),
+                    permit -> next.exchange(request).contextWrite(HedgePermits.add(() -> host.tryAcquire(ticket))),
+                    Permit::release,
+                    (permit, error) -> permit.release(),
+                    Permit::release);
+        });
+    }
+
+    /**
+     * 호스트에서 진행 중인 호출 수.
+     *
+     * @param upstream 업스트림 식별자
+     * @return 진행 중인 호출 수 (호출한 적이 없으면 0)
+     */
+    public int inFlight(String upstream) {
+        HostQueue host = hosts.get(upstream);
+        return host != null ? host.inFlight() : 0;
+    }
+
+    /**
+     * 호스트의 슬롯을 기다리는 호출 수.
+     *
+     * @param upstream 업스트림 식별자
+     * @return 대기 중인 호출 수 (호출한 적이 없으면 0)
+     */
+    public int queued(String upstream) {
+        HostQueue host = hosts.get(upstream);
+        return host != null ? host.queued() : 0;
+    }
+
+    /**
+     * 통계를 반환한다.
+     *
+     * @return AdmissionStats
+     */
+    public AdmissionStats stats() {
+        return new AdmissionStats(tenants.size(), rejectedCount.sum());
+    }
+
+    /**
+     * 테넌트를 찾거나 만들고 호출 수(참조 수)를 늘린다. 호출이 끝나면 {@link Tenant#leave()}로 줄인다.
+     * 새 테넌트를 만들었거나 `admission.tenant-idle-timeout`이 지났으면 쉬는 테넌트를 정리한다.
+     *
+     * @param credential 인증 정보 해시
+     * @param username   가중치 조회용 username
+     * @return Tenant 호출 수가 반영된 테넌트
+     */
+    private Tenant enter(String credential, String username) {
+        AtomicBoolean created = new AtomicBoolean();
+        Tenant tenant = tenants.compute(credential, (key, current) -> {
+            Tenant entered = current;
+            if (entered == null) {
+                entered = new Tenant(key, weight(username));
+                created.set(true);
+            }
+            entered.active.incrementAndGet();
+            return entered;
+        });
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        boolean overCapacity = created.get() && tenants.size() > settings.getMaxTrackedTenants();
+        if ((overCapacity || now - last >= settings.getTenantIdleTimeout().toNanos())
+                && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+        return tenant;
+    }
+
+    /**
+     * 쉬는 테넌트(대기/진행 중인 호출 없음)를 제거한다.
+     * `admission.tenant-idle-timeout` 동안 호출이 없었으면 제거하고, 그래도 `admission.max-tracked-tenants`를 넘으면
+     * 오래 쉰 테넌트부터 제거한다. 모든 테넌트가 호출 중이면 한도를 넘을 수 있다.
+     *
+     * @param now 현재 시각 (`System.nanoTime()`)
+     */
+    private void sweep(long now) {
+        long idleSince = now - settings.getTenantIdleTimeout().toNanos();
+        for (String credential : tenants.keySet()) {
+            removeIfIdle(credential, idleSince);
+        }
+        long excess = tenants.size() - settings.getMaxTrackedTenants();
+        if (excess > 0) {
+            // 정렬 중 사용 시각이 바뀌지 않도록 값을 먼저 읽어 둔다
+            tenants.values().stream()
+                    .filter(tenant -> tenant.active.get() == 0)
+                    .map(tenant -> Map.entry(tenant.credential, tenant.lastUsed - now))
+                    .sorted(Map.Entry.comparingByValue())
+                    .limit(excess)
+                    .forEach(idle -> removeIfIdle(idle.getKey(), now));
+        }
+    }
+
+    /**
+     * 호출 중이 아니고 `idleSince` 이후 사용되지 않은 테넌트를 제거하고 메트릭을 해제한다.
+     * 같은 키의 {@link #enter}와 직렬화되므로 제거와 동시에 호출 수가 늘어나지 않는다.
+     */
+    private void removeIfIdle(String credential, long idleSince) {
+        tenants.computeIfPresent(credential, (key, tenant) -> {
+            if (tenant.active.get() > 0 || tenant.lastUsed - idleSince > 0) {
+                return tenant;
+            }
+            // 같은 태그로 새 테넌트가 메트릭을 등록하기 전에 해제되도록 키 잠금 안에서 해제
+            tenant.unregister();
+            return null;
+        });
+    }
+
+    private int weight(String username) {
+        return Math.max(1, settings.getWeights().getOrDefault(username, 1));
+    }
+
+    /**
+     * 테넌트: 대기/진행 중인 호출 수와 메트릭.
+     */
+    private final class Tenant {
+
+        private final String credential;
+        private final String id;
+        private final int weight;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 수용되어 아직 끝나지 않은 호출 수. 0보다 크면 제거하지 않는다.
+         */
+        private final AtomicInteger active = new AtomicInteger();
+
+        /**
+         * 마지막으로 호출이 들어오거나 끝난 시각 (`System.nanoTime()`).
+         */
+        private volatile long lastUsed = System.nanoTime();
+
+        private final Timer queueWait;
+        private final Timer latency;
+        private final Counter rejected;
+        private final List<Meter> meters = new ArrayList<>();
+
+        private Tenant(String credential, int weight) {
+            this.credential = credential;
+            this.id = ANONYMOUS.equals(credential) ? ANONYMOUS : credential.substring(0, 12);
+            this.weight = weight;
+            this.queueWait = Timer.builder("ghcr.tenant.queue.wait")
+                    .description("Time an upstream call waited for a slot (including rate-limit waits)")
+                    .tag("tenant", id)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("ghcr.tenant.upstream.latency")
+                    .description("Upstream call time per tenant, from admission until response headers")
+                    .tag("tenant", id)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("ghcr.tenant.rejected")
+                    .description("Upstream calls rejected because the tenant queue was full")
+                    .tag("tenant", id)
+                    .register(meterRegistry);
+            meters.add(queueWait);
+            meters.add(latency);
+            meters.add(rejected);
+            meters.add(Gauge.builder("ghcr.tenant.queue.depth", queued, AtomicInteger::get)
+                    .description("Upstream calls of the tenant waiting for a slot")
+                    .tag("tenant", id)
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("ghcr.tenant.in.flight", inFlight, AtomicInteger::get)
+                    .description("Upstream calls of the tenant holding a slot")
+                    .tag("tenant", id)
+                    .register(meterRegistry));
+        }
+
+        boolean tryEnqueue() {
+            while (true) {
+                int current = queued.get();
+                if (current >= settings.getMaxQueuedPerTenant()) {
+                    return false;
+                }
+                if (queued.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 호출 하나가 끝났다 (거절 포함). 사용 시각을 먼저 남겨 정리가 방금 끝난 테넌트를 제거하지 않게 한다.
+         */
+        void leave() {
+            lastUsed = System.nanoTime();
+            active.decrementAndGet();
+        }
+
+        void unregister() {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+
+    /**
+     * 수용된 호출 하나. 처음 슬롯을 받거나 끝날 때 테넌트 대기 수에서 빠진다.
+     */
+    private static final class Ticket {
+
+        private final Tenant tenant;
+        private final long admittedAt = System.nanoTime();
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+
+        private Ticket(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        void granted() {
+            if (dequeued.compareAndSet(false, true)) {
+                tenant.queued.decrementAndGet();
+                tenant.queueWait.record(System.nanoTime() - admittedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void finish() {
+            if (dequeued.compareAndSet(false, true)) {
+                tenant.queued.decrementAndGet();
+            }
+            tenant.latency.record(System.nanoTime() - admittedAt, TimeUnit.NANOSECONDS);
+            tenant.leave();
+        }
+    }
+
+    /**
+     * 업스트림 호스트의 슬롯과 테넌트별 대기열.
+     */
+    private final class HostQueue {
+
+        private final String upstream;
+
+        /**
+         * 테넌트 → 대기열. 대기/진행 중인 호출이 없으면 제거한다.
+         */
+        private final Map<Tenant, Lane> lanes = new HashMap<>();
+
+        private int inFlight;
+        private int queued;
+
+        /**
+         * 마지막으로 슬롯을 받은 테넌트의 `pass` (가상 시각).
+         */
+        private double virtualTime;
+
+        private HostQueue(String upstream) {
+            this.upstream = upstream;
+        }
+
+        /**
+         * 슬롯을 얻는다. 다른 테넌트가 기다리지 않고 여유가 있으면 바로 받는다.
+         *
+         * @param ticket 수용된 호출
+         * @return Mono\<Permit\> 슬롯 (취소되면 대기열에서 빠지거나, 이미 받은 슬롯을 반납)
+         */
+        Mono<Permit> acquire(Ticket ticket) {
+            return Mono.create(sink -> {
+                Waiter waiter = new Waiter(ticket, sink);
+                Permit permit = null;
+                synchronized (this) {
+                    Lane lane = lanes.computeIfAbsent(ticket.tenant, tenant -> new Lane(tenant, virtualTime));
+                    if (lane.waiters.isEmpty() && lane.inFlight < settings.getMaxInFlightPerTenant()
+                            && inFlight < settings.getMaxConcurrency()) {
+                        permit = dispatch(lane);
+                    } else {
+                        lane.waiters.addLast(waiter);
+                        queued++;
+                    }
+                }
+                if (permit != null) {
+                    ticket.granted();
+                    sink.success(permit);
+                } else {
+                    sink.onCancel(() -> cancel(waiter));
+                }
+            });
+        }
+
+        /**
+         * 기다리지 않고 슬롯을 얻는다 (hedged 요청용, {@link HedgePermits}).
+         * 기다리는 호출이 있으면 그 호출들보다 앞서지 않도록 얻지 못한다. 얻으면 테넌트의 몫(`pass`)에 반영된다.
+         *
+         * @param ticket 수용된 호출
+         * @return 슬롯 반납 함수, 얻지 못하면 null
+         */
+        Runnable tryAcquire(Ticket ticket) {
+            Permit permit;
+            synchronized (this) {
+                Lane lane = lanes.get(ticket.tenant);
+                if (lane == null || queued > 0 || lane.inFlight >= settings.getMaxInFlightPerTenant()
+                        || inFlight >= settings.getMaxConcurrency()) {
+                    return null;
+                }
+                permit = dispatch(lane);
+            }
+            return permit::releaseNow;
+        }
+
+        /**
+         * 대기 중 취소된 호출을 대기열에서 뺀다.
+         * 이미 슬롯이 배정되었지만 전달되기 전에 취소되었으면 슬롯을 반납한다.
+         */
+        private void cancel(Waiter waiter) {
+            Permit permit;
+            synchronized (this) {
+                permit = waiter.permit;
+                if (permit == null) {
+                    Lane lane = lanes.get(waiter.ticket.tenant);
+                    if (lane != null && lane.waiters.remove(waiter)) {
+                        queued--;
+                        removeIfIdle(lane);
+                    }
+                    return;
+                }
+            }
+            permit.releaseNow();
+        }
+
+        void release(Lane lane) {
+            List<Waiter> granted = new ArrayList<>();
+            synchronized (this) {
+                lane.inFlight--;
+                inFlight--;
+                lane.tenant.inFlight.decrementAndGet();
+                while (inFlight < settings.getMaxConcurrency()) {
+                    Lane next = nextLane();
+                    if (next == null) {
+                        break;
+                    }
+                    Waiter waiter = next.waiters.pollFirst();
+                    queued--;
+                    waiter.permit = dispatch(next);
+                    granted.add(waiter);
+                }
+                removeIfIdle(lane);
+            }
+            for (Waiter waiter : granted) {
+                waiter.ticket.granted();
+                waiter.sink.success(waiter.permit);
+            }
+        }
+
+        /**
+         * 대기 중이고 테넌트 한도에 여유가 있는 대기열 중 `pass`가 가장 작은 것.
+         * 활성 테넌트 수만큼 훑으며, 활성 테넌트는 많아야 수백이므로 우선순위 큐 대신 선형 탐색을 쓴다.
+         */
+        private Lane nextLane() {
+            Lane best = null;
+            for (Lane lane : lanes.values()) {
+                if (!lane.waiters.isEmpty() && lane.inFlight < settings.getMaxInFlightPerTenant()
+                        && (best == null || lane.pass < best.pass)) {
+                    best = lane;
+                }
+            }
+            return best;
+        }
+
+        private Permit dispatch(Lane lane) {
+            virtualTime = Math.max(virtualTime, lane.pass);
+            lane.pass += 1.0 / lane.tenant.weight;
+            lane.inFlight++;
+            inFlight++;
+            lane.tenant.inFlight.incrementAndGet();
+            return new Permit(this, lane);
+        }
+
+        private void removeIfIdle(Lane lane) {
+            if (lane.inFlight == 0 && lane.waiters.isEmpty()) {
+                lanes.remove(lane.tenant);
+            }
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized int queued() {
+            return queued;
+        }
+
+        @Override
+        public String toString() {
+            return upstream;
+        }
+    }
+
+    /**
+     * 호스트 하나에서 테넌트 하나의 대기열.
+     */
+    private static final class Lane {
+
+        private final Tenant tenant;
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double pass;
+
+        private Lane(Tenant tenant, double pass) {
+            this.tenant = tenant;
+            this.pass = pass;
+        }
+    }
+
+    /**
+     * 슬롯을 기다리는 호출. `permit`은 호스트 잠금 안에서만 바뀐다.
+     */
+    private static final class Waiter {
+
+        private final Ticket ticket;
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(Ticket ticket, MonoSink<Permit> sink) {
+            this.ticket = ticket;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * 배정된 슬롯. 한 번만 반납된다.
+     */
+    private static final class Permit {
+
+        private final HostQueue host;
+        private final Lane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostQueue host, Lane lane) {
+            this.host = host;
+            this.lane = lane;
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseNow);
+        }
+
+        void releaseNow() {
+            if (released.compareAndSet(false, true)) {
+                host.release(lane);
+            }
+        }
+    }
+
+    /**
+     * 수용 제어 통계.
+     *
+     * @param tenants       메트릭을 유지 중인 테넌트 수
+     * @param rejectedCount 대기열이 가득 차 거절한 호출 수
+     */
+    public record AdmissionStats(long tenants, long rejectedCount) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ghcrdemo.service;
+
+/**
+ * 업스트림 호출 동시 실행 한도를 제한 시간 안에 얻지 못했을 때 발생하는 예외.
+ * 컨트롤러에서 503(Service Unavailable)으로 변환된다.
+ */
+public class UpstreamBusyException extends RuntimeException {
+
+    public UpstreamBusyException(String message) {
+        super(message);
+    }
+}
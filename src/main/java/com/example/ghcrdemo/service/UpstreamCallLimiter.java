@@ -0,0 +1,142 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import com.example.ghcrdemo.dto.AuthRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동기(블로킹) 엔드포인트의 업스트림 호출 동시 실행 수를 제한하는 컴포넌트.
+ * <p>
+ * 가상 스레드 모드에서는 요청 스레드 수에 제한이 없으므로, 이 한도가 GitHub/GHCR로 나가는
+ * 동시 호출 수의 상한이 된다. 한도를 얻기 위해 대기하는 것은 가상 스레드에서 OS 스레드를 점유하지 않는다.
+ * 대기 시간이 `execution.acquire-timeout`을 넘으면 {@link UpstreamBusyException}을 던진다.
+ * <p>
+ * 한 인증 정보가 한도를 독차지하지 않도록 인증 정보별 동시 실행 수도
+ * `execution.max-concurrent-upstream-calls-per-tenant`로 제한한다. 이 한도는 기다리지 않고
+ * {@link TenantOverloadedException}(429)으로 즉시 거절하므로, 다른 인증 정보의 요청은 공용 한도를 계속 얻을 수 있다.
+ * <p>
+ * 한도는 실제 업스트림 로드({@link ResponseCache} 로더)에만 적용하므로({@link #limit}),
+ * 캐시 hit와 진행 중인 로드에 합류한 요청은 한도를 점유하지 않는다.
+ */
+@Slf4j
+@Component
+public class UpstreamCallLimiter {
+
+    /**
+     * 동시 실행 허용 수 (공정 모드: 먼저 기다린 요청이 먼저 실행).
+     */
+    private final Semaphore permits;
+
+    /**
+     * 한도 획득 최대 대기 시간.
+     */
+    private final Duration acquireTimeout;
+
+    /**
+     * 인증 정보별 동시 실행 허용 수.
+     */
+    private final int maxPerTenant;
+
+    /**
+     * 인증 정보 해시 → 실행 중인 호출 수. 0이 되면 제거한다.
+     */
+    private final Map<String, Integer> tenantCalls = new ConcurrentHashMap<>();
+
+    /**
+     * 인증 정보별 한도를 넘어 거절할 때 안내하는 `Retry-After` (비동기 경로와 같은 `admission.reject-retry-after`).
+     */
+    private final Duration rejectRetryAfter;
+
+    public UpstreamCallLimiter(GhcrProperties ghcrProperties) {
+        GhcrProperties.Execution execution = ghcrProperties.getExecution();
+        this.permits = new Semaphore(execution.getMaxConcurrentUpstreamCalls(), true);
+        this.acquireTimeout = execution.getAcquireTimeout();
+        this.maxPerTenant = execution.getMaxConcurrentUpstreamCallsPerTenant();
+        this.rejectRetryAfter = ghcrProperties.getAdmission().getRejectRetryAfter();
+    }
+
+    /**
+     * 동시 실행 한도 안에서 업스트림 로드를 실행한다.
+     * 구독할 때 한도를 얻고(구독 스레드에서 대기하므로 블로킹 가능한 스레드에서 구독해야 한다),
+     * 완료/오류/취소 시 반환한다.
+     *
+     * @param authRequest 인증 정보 (인증 정보별 한도 적용)
+     * @param call        실행할 로드
+     * @param <T>         로드 결과 타입
+     * @return 한도를 얻은 뒤 실행되는 로드 (한도를 얻지 못하면 {@link TenantOverloadedException},
+     * {@link UpstreamBusyException} 오류)
+     */
+    public <T> Mono<T> limit(AuthRequest authRequest, Mono<T> call) {
+        return Mono.using(() -> acquire(authRequest), tenant -> call, this::release);
+    }
+
+    /**
+     * 인증 정보별 한도와 공용 한도를 차례로 얻는다.
+     *
+     * @param authRequest 인증 정보
+     * @return 인증 정보 해시 ({@link #release}에 전달)
+     */
+    private String acquire(AuthRequest authRequest) {
+        String tenant = CredentialKeys.hash(authRequest);
+        if (!enterTenant(tenant)) {
+            log.warn("Per-credential upstream call limit ({}) reached; rejecting", maxPerTenant);
+            throw new TenantOverloadedException("Too many concurrent upstream requests for this credential",
+                    rejectRetryAfter);
+        }
+        boolean acquired = false;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamBusyException("Interrupted while waiting for an upstream call slot");
+        } finally {
+            if (!acquired) {
+                leaveTenant(tenant);
+            }
+        }
+        if (!acquired) {
+            log.warn("Upstream call limit reached; rejected after waiting {}", acquireTimeout);
+            throw new UpstreamBusyException("Too many concurrent upstream calls");
+        }
+        return tenant;
+    }
+
+    private void release(String tenant) {
+        permits.release();
+        leaveTenant(tenant);
+    }
+
+    private void leaveTenant(String tenant) {
+        tenantCalls.computeIfPresent(tenant, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private boolean enterTenant(String tenant) {
+        boolean[] entered = {false};
+        tenantCalls.compute(tenant, (key, count) -> {
+            int current = count != null ? count : 0;
+            if (current >= maxPerTenant) {
+                return count;
+            }
+            entered[0] = true;
+            return current + 1;
+        });
+        return entered[0];
+    }
+
+    /**
+     * 현재 사용 가능한 실행 한도 수를 반환한다.
+     *
+     * @return 사용 가능한 한도 수
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
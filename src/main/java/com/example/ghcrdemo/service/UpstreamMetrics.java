@@ -0,0 +1,94 @@
+package com.example.ghcrdemo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 업스트림 HTTP 호출 시간을 Micrometer 타이머(`ghcr.upstream.requests`)로 기록하는 WebClient 필터.
+ * <p>
+ * 태그:
+ * <ul>
+ *     <li>`call`: 호출 종류 (token, catalog, versions, tags-list, manifest-head, manifest) — 요청 속성 {@link #CALL_ATTRIBUTE}</li>
+ *     <li>`host`: 업스트림 호스트</li>
+ *     <li>`status`: 상태 코드 클래스 (2xx, 3xx, 4xx, 5xx), 연결 오류는 IO_ERROR, 취소는 CANCELLED</li>
+ * </ul>
+ * 요청 시작부터 응답 헤더 수신까지를 측정하며, 커넥션 풀 획득 시간이 포함된다.
+ * 획득 시간은 `ghcr.upstream.connection.acquire`(풀별)로 따로 기록되고,
+ * 활성/대기 커넥션 수는 `reactor.netty.connection.provider.*` 게이지로 노출된다.
+ * Rate Limit 재시도는 시도마다 따로 기록된다.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamMetrics implements ExchangeFilterFunction {
+
+    /**
+     * 호출 종류를 담는 WebClient 요청 속성 이름.
+     */
+    public static final String CALL_ATTRIBUTE = UpstreamMetrics.class.getName() + ".call";
+
+    /**
+     * 업스트림 호출 타이머 이름.
+     */
+    public static final String TIMER_NAME = "ghcr.upstream.requests";
+
+    /**
+     * 호출 시작 시각(nanoTime)을 담는 Reactor 컨텍스트 키.
+     */
+    private static final String STARTED_KEY = UpstreamMetrics.class.getName() + ".started";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String call = request.attribute(CALL_ATTRIBUTE).map(Object::toString).orElse("other");
+        String host = request.url().getHost();
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<String> status = new AtomicReference<>("CANCELLED");
+            long started = System.nanoTime();
+            return next.exchange(request)
+                    .contextWrite(context -> context.put(STARTED_KEY, started))
+                    .doOnNext(response -> status.set(statusClass(response.statusCode())))
+                    .doOnError(error -> status.set("IO_ERROR"))
+                    .doFinally(signal -> sample.stop(Timer.builder(TIMER_NAME)
+                            .description("Upstream GitHub/GHCR HTTP calls (until response headers)")
+                            .tags("call", call, "host", host, "status", status.get())
+                            .register(meterRegistry)));
+        });
+    }
+
+    /**
+     * 커넥션을 얻어 요청을 보내기 직전까지 걸린 시간을 기록한다.
+     * HttpClient `doOnRequest`에서 호출되며, 새 커넥션이면 연결 수립 시간이 포함된다.
+     *
+     * @param context 요청의 Reactor 컨텍스트
+     * @param pool    커넥션 풀 이름
+     */
+    public void recordConnectionAcquired(ContextView context, String pool) {
+        Long started = context.getOrDefault(STARTED_KEY, null);
+        if (started == null) {
+            return;
+        }
+        Timer.builder("ghcr.upstream.connection.acquire")
+                .description("Time until a pooled upstream connection is ready to send a request")
+                .tags("pool", pool)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static String statusClass(HttpStatusCode statusCode) {
+        return statusCode.value() / 100 + "xx";
+    }
+}
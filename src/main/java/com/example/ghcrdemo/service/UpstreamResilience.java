@@ -0,0 +1,265 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.config.GhcrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 업스트림 호출의 꼬리 지연과 장애를 제한하는 WebClient 필터 (호스트별).
+ * <ul>
+ *     <li>호출 종류별 제한 시간: 응답 헤더를 `resilience.call-timeouts` 안에 받지 못하면 503
+ *     ({@link UpstreamUnavailableException})</li>
+ *     <li>hedged 요청: 멱등 GET/HEAD가 호출 종류별 최근 지연 시간의 `hedge-percentile`을 넘으면 같은 요청을 한 번 더 보내
+ *     먼저 도착한 응답을 쓰고 나머지는 취소한다. 호스트 전체가 느릴 때 부하가 배가되지 않도록
+ *     전체 호출의 `hedge-budget` 비율까지만 허용한다.</li>
+ *     <li>서킷 브레이커: 연결 오류/제한 시간 초과/5xx 비율이 높으면 `breaker-open-duration` 동안 호출하지 않고
+ *     즉시 503으로 실패한다. {@link ResponseCache}는 이 경우 만료된 목록이 있으면 그것으로 응답한다.</li>
+ * </ul>
+ * Rate Limit 필터 안쪽, 메트릭 필터 바깥쪽에 위치하므로 hedged 요청도 `ghcr.upstream.requests`에 따로 기록된다.
+ * hedged 요청은 바깥 필터의 허가({@link HedgePermits}: 인증 정보별 AIMD 동시 실행, 테넌트 슬롯)를 하나 더 받아야 보내며,
+ * 바로 얻을 수 없으면 보내지 않는다 (`ghcr.upstream.hedges{result=denied}`).
+ */
+@Slf4j
+@Component
+public class UpstreamResilience {
+
+    /**
+     * hedged 요청 예산 단위 (호출 하나가 적립하는 양 = 비율 × 단위).
+     */
+    private static final long BUDGET_UNIT = 1_000;
+
+    /**
+     * 적립할 수 있는 최대 hedged 요청 수 (짧은 지연 급증 대비).
+     */
+    private static final long BUDGET_BURST = 10;
+
+    private final GhcrProperties.Resilience settings;
+
+    /**
+     * 호스트 이름 → 상태.
+     */
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    private final LongAdder hedgedCount = new LongAdder();
+    private final LongAdder hedgeWinCount = new LongAdder();
+    private final LongAdder hedgeDeniedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public UpstreamResilience(GhcrProperties ghcrProperties) {
+        this.settings = ghcrProperties.getResilience();
+    }
+
+    /**
+     * 업스트림 호스트용 필터를 반환한다. 같은 호스트 이름의 필터는 서킷 브레이커를 공유한다.
+     *
+     * @param host 업스트림 호스트 이름 (예: api.github.com, ghcr.io)
+     * @return ExchangeFilterFunction
+     */
+    public ExchangeFilterFunction filter(String host) {
+        Host state = hosts.computeIfAbsent(host, Host::new);
+        return (request, next) -> settings.isEnabled() ? exchange(state, request, next) : next.exchange(request);
+    }
+
+    private Mono<ClientResponse> exchange(Host host, ClientRequest request, ExchangeFunction next) {
+        String call = request.attribute(UpstreamMetrics.CALL_ATTRIBUTE).map(Object::toString).orElse("other");
+        Duration timeout = settings.getCallTimeouts().getOrDefault(call, settings.getDefaultCallTimeout());
+        boolean hedged = (request.method() == HttpMethod.GET || request.method() == HttpMethod.HEAD)
+                && settings.getHedgedCalls().contains(call);
+        return Mono.deferContextual(context -> {
+            if (!host.breaker.tryAcquire()) {
+                rejectedCount.increment();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Upstream " + host.name + " unavailable (circuit open)", host.breaker.retryAfter()));
+            }
+            host.depositBudget();
+            LatencyWindow latency = host.latencies.computeIfAbsent(call, c -> new LatencyWindow(
+                    settings.getLatencySamples(), settings.getHedgePercentile(), settings.getHedgeMinSamples()));
+            Mono<ClientResponse> attempt = Mono.defer(() -> {
+                long started = System.nanoTime();
+                return next.exchange(request).doOnNext(response -> latency.record(System.nanoTime() - started));
+            });
+            AtomicBoolean reported = new AtomicBoolean();
+            HedgePermits permits = context.getOrDefault(HedgePermits.CONTEXT_KEY, null);
+            return (hedged ? hedge(host, attempt, latency.percentile(), permits) : attempt)
+                    .timeout(timeout)
+                    .onErrorMap(TimeoutException.class, e -> {
+                        timeoutCount.increment();
+                        log.warn("Upstream {} call to {} timed out after {} ms", call, host.name, timeout.toMillis());
+                        return new UpstreamUnavailableException(
+                                "Upstream " + call + " call to " + host.name + " timed out", Duration.ofSeconds(1));
+                    })
+                    .doOnNext(response -> {
+                        if (reported.compareAndSet(false, true)) {
+                            if (response.statusCode().is5xxServerError()) {
+                                host.breaker.onFailure();
+                            } else {
+                                host.breaker.onSuccess();
+                            }
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (reported.compareAndSet(false, true)) {
+                            host.breaker.onFailure();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (reported.compareAndSet(false, true)) {
+                            host.breaker.onIgnored();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 첫 요청이 지연 기준을 넘으면 두 번째 요청을 보내고 먼저 도착한 응답을 반환한다.
+     * 늦게 도착한 응답은 바디를 버리고, 먼저 응답이 오면 남은 요청은 취소된다.
+     * 한쪽이 실패해도 다른 쪽이 진행 중이면 그 결과를 기다린다.
+     * 두 번째 요청은 바깥 필터의 허가를 받았을 때만 보내고, 끝나면(응답 헤더, 오류, 취소) 반납한다.
+     *
+     * @param host    호스트 상태
+     * @param attempt 요청 (구독할 때마다 새로 보냄)
+     * @param delay   지연 기준 (나노초, 표본이 부족하면 -1 → hedged 요청 없음)
+     * @param permits 바깥 필터의 허가 훅 (없으면 null)
+     * @return Mono\<ClientResponse\> 응답
+     */
+    private Mono<ClientResponse> hedge(Host host, Mono<ClientResponse> attempt, long delay, HedgePermits permits) {
+        if (delay < 0) {
+            return attempt;
+        }
+        return Mono.defer(() -> {
+            AtomicBoolean settled = new AtomicBoolean();
+            AtomicInteger running = new AtomicInteger(1);
+            Mono<ClientResponse> primary = race(attempt, settled, running);
+            Mono<ClientResponse> backup = Mono.delay(Duration.ofNanos(Math.max(delay, settings.getHedgeMinDelay().toNanos())))
+                    .filter(tick -> !settled.get() && host.tryWithdrawBudget())
+                    .flatMap(tick -> {
+                        Runnable release = permits != null ? permits.tryAcquire() : () -> {
+                        };
+                        if (release == null) {
+                            host.refundBudget();
+                            hedgeDeniedCount.increment();
+                            return Mono.empty();
+                        }
+                        running.incrementAndGet();
+                        hedgedCount.increment();
+                        return race(attempt, settled, running)
+                                .doOnNext(response -> hedgeWinCount.increment())
+                                .doFinally(signal -> release.run());
+                    });
+            return Flux.merge(primary, backup).next();
+        });
+    }
+
+    private static Mono<ClientResponse> race(Mono<ClientResponse> attempt, AtomicBoolean settled, AtomicInteger running) {
+        return attempt
+                .flatMap(response -> settled.compareAndSet(false, true)
+                        ? Mono.just(response)
+                        : response.releaseBody().then(Mono.empty()))
+                .onErrorResume(error -> running.decrementAndGet() > 0, error -> Mono.empty());
+    }
+
+    /**
+     * 업스트림이 응답하지 않아 생긴 오류인지 확인한다 (연결 오류, 제한 시간 초과, 서킷 열림, 5xx).
+     * 만료된 캐시로 대신 응답해도 되는 경우다.
+     *
+     * @param error 오류
+     * @return 업스트림 장애 여부
+     */
+    public static boolean isUnavailable(Throwable error) {
+        return error instanceof UpstreamUnavailableException
+                || error instanceof WebClientRequestException
+                || (error instanceof WebClientResponseException e && e.getStatusCode().is5xxServerError());
+    }
+
+    /**
+     * 호스트의 서킷 브레이커 상태를 숫자로 반환한다 (0 = 닫힘, 1 = 반열림, 2 = 열림, 없는 호스트는 -1).
+     *
+     * @param host 호스트 이름
+     * @return 상태 값
+     */
+    public int circuitState(String host) {
+        Host state = hosts.get(host);
+        return state != null ? state.breaker.state().ordinal() : -1;
+    }
+
+    /**
+     * 통계를 반환한다.
+     *
+     * @return ResilienceStats
+     */
+    public ResilienceStats stats() {
+        return new ResilienceStats(hedgedCount.sum(), hedgeWinCount.sum(), hedgeDeniedCount.sum(), timeoutCount.sum(),
+                rejectedCount.sum());
+    }
+
+    /**
+     * 업스트림 호스트별 상태.
+     */
+    private final class Host {
+
+        private final String name;
+        private final CircuitBreaker breaker;
+
+        /**
+         * 호출 종류 → 최근 지연 시간.
+         */
+        private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+        /**
+         * hedged 요청 예산 (단위: {@link #BUDGET_UNIT}).
+         */
+        private final AtomicLong budget = new AtomicLong();
+
+        private Host(String name) {
+            this.name = name;
+            this.breaker = new CircuitBreaker(settings.getBreakerWindow(), settings.getBreakerMinimumCalls(),
+                    settings.getBreakerFailureRate(), settings.getBreakerOpenDuration(), settings.getBreakerHalfOpenCalls());
+        }
+
+        void depositBudget() {
+            long deposit = (long) (settings.getHedgeBudget() * BUDGET_UNIT);
+            budget.getAndUpdate(current -> Math.min(current + deposit, BUDGET_BURST * BUDGET_UNIT));
+        }
+
+        boolean tryWithdrawBudget() {
+            return budget.getAndUpdate(current -> current >= BUDGET_UNIT ? current - BUDGET_UNIT : current)
+                    >= BUDGET_UNIT;
+        }
+
+        void refundBudget() {
+            budget.getAndUpdate(current -> Math.min(current + BUDGET_UNIT, BUDGET_BURST * BUDGET_UNIT));
+        }
+    }
+
+    /**
+     * 업스트림 지연/장애 대응 통계.
+     *
+     * @param hedgedCount      보낸 hedged 요청 수
+     * @param hedgeWinCount    hedged 요청이 먼저 응답한 횟수
+     * @param hedgeDeniedCount 바깥 필터의 허가를 바로 얻지 못해 보내지 않은 hedged 요청 수
+     * @param timeoutCount     호출 종류별 제한 시간 초과 수
+     * @param rejectedCount    서킷이 열려 보내지 않은 호출 수
+     */
+    public record ResilienceStats(long hedgedCount, long hedgeWinCount, long hedgeDeniedCount, long timeoutCount,
+                                  long rejectedCount) {
+    }
+}
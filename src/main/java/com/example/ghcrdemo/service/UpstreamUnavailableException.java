@@ -0,0 +1,33 @@
+package com.example.ghcrdemo.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * 업스트림 호스트가 응답하지 않을 때 발생하는 예외.
+ * 호출 종류별 제한 시간을 넘었거나, 호스트의 서킷 브레이커가 열려 호출하지 않은 경우에 사용된다.
+ * 컨트롤러에서 503(Service Unavailable)과 `Retry-After`로 변환된다.
+ */
+@Getter
+public class UpstreamUnavailableException extends UpstreamBusyException {
+
+    /**
+     * 다시 시도하기까지 권장 대기 시간.
+     */
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * `Retry-After` 헤더 값(초, 최소 1)을 반환한다.
+     *
+     * @return 초 단위 대기 시간
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.ghcrdemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link CompactStringList}의 인코딩(front coding, 16진수 묶음)과 사전 탐색.
+ */
+class CompactStringListTest {
+
+    /**
+     * 블록 크기 ({@code CompactStringList.BLOCK_SIZE}와 같아야 블록 경계를 검사한다).
+     */
+    private static final int BLOCK_SIZE = 16;
+
+    @Test
+    void copyOfKeepsOrderAndDuplicates() {
+        List<String> tags = List.of("v1.10.0", "latest", "v1.2.0", "latest", "v1.9.0", "");
+        CompactStringList list = CompactStringList.copyOf(tags);
+
+        assertEquals(tags, list);
+        assertEquals(tags, new ArrayList<>(list));
+        assertEquals(tags.size(), list.size());
+        assertEquals(5, list.distinctSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(tags.size()));
+        assertSame(list, CompactStringList.copyOf(list));
+    }
+
+    @Test
+    void sortedSetOfSortsAndRemovesDuplicates() {
+        CompactStringList set = CompactStringList.sortedSetOf(List.of("b", "a", "c", "a", "b"));
+
+        assertEquals(List.of("a", "b", "c"), set);
+        assertEquals(3, set.distinctSize());
+        assertSame(set, CompactStringList.sortedSetOf(set));
+        assertEquals(List.of(), CompactStringList.sortedSetOf(List.of()));
+    }
+
+    @Test
+    void frontCodingStoresSharedPrefixesOnce() {
+        String prefix = "ghcr.io/example-organization/some-fairly-long-package-name:release-";
+        List<String> values = IntStream.range(0, 100).mapToObj(i -> prefix + i).toList();
+        CompactStringList list = CompactStringList.sortedSetOf(values);
+
+        assertEquals(values.stream().sorted().toList(), list);
+        int rawBytes = values.stream().mapToInt(String::length).sum();
+        // 블록 첫 항목만 접두사 전체를 저장한다
+        assertTrue(list.footprint() < rawBytes / 4, list.footprint() + " bytes for " + rawBytes + " raw bytes");
+    }
+
+    @Test
+    void frontCodingRestoresMultiByteCharactersSplitAcrossPrefixes() {
+        // "가"(EA B0 80)와 "각"(EA B0 81)은 UTF-8 앞 두 byte만 같다
+        List<String> values = List.of("태그-가", "태그-각", "태그-간", "tag-é", "tag-ê", "😀a", "😁b");
+        CompactStringList list = CompactStringList.copyOf(values);
+
+        assertEquals(values, list);
+        for (String value : values) {
+            assertTrue(list.contains(value), value);
+        }
+        assertFalse(list.contains("태그-갇"));
+    }
+
+    @Test
+    void packsLowercaseHexSuffixesOfOddAndEvenLength() {
+        String digest = "3f2c9a7b1e0d4c6a8b5f2e1d0c9b8a7f6e5d4c3b";
+        List<String> values = new ArrayList<>();
+        for (int length = 7; length <= 41; length++) {
+            values.add("sha-" + digest.substring(0, Math.min(length, digest.length()))
+                    + (length > digest.length() ? "0" : ""));
+        }
+        // 접두사를 공유한 뒤 남은 16진수 접미사가 홀수 길이인 경우
+        values.add("0123456789a");
+        values.add("0123456789abc");
+        values.add("fffffffff");
+        // 대문자나 16진수가 아닌 문자가 섞이면 묶지 않는다
+        values.add("sha-3F2C9A7B1E0D");
+        values.add("sha-3f2c9a7b1e0g");
+        values.add("deadbeef");
+        values.add("deadbee");
+        CompactStringList list = CompactStringList.copyOf(values);
+
+        assertEquals(values, list);
+        assertEquals(values.stream().sorted().toList(), new ArrayList<>(CompactStringList.sortedSetOf(values)));
+    }
+
+    @Test
+    void hexPackingHalvesDigestStorage() {
+        List<String> digests = IntStream.range(0, 64)
+                .mapToObj(i -> "sha-" + String.format("%040x", (long) i * 0x9E3779B97F4A7C15L))
+                .toList();
+        CompactStringList list = CompactStringList.copyOf(digests);
+
+        assertEquals(digests, list);
+        int rawBytes = digests.stream().mapToInt(String::length).sum();
+        assertTrue(list.footprint() < rawBytes * 3 / 5, list.footprint() + " bytes for " + rawBytes + " raw bytes");
+    }
+
+    @Test
+    void dictionarySearchMatchesBinarySearchAcrossBlockBoundaries() {
+        for (int size : new int[]{1, BLOCK_SIZE - 1, BLOCK_SIZE, BLOCK_SIZE + 1, 3 * BLOCK_SIZE, 3 * BLOCK_SIZE + 5}) {
+            // 짝수 번호만 넣어 모든 항목 사이에 없는 값(홀수 번호)이 있게 한다
+            String[] dictionary = IntStream.range(0, size).mapToObj(i -> tag(2 * i + 2)).toArray(String[]::new);
+            CompactStringList list = CompactStringList.sortedSetOf(Arrays.asList(dictionary));
+
+            for (int i = 0; i <= 2 * size + 3; i++) {
+                String probe = tag(i);
+                assertEquals(Arrays.binarySearch(dictionary, probe), list.dictionarySearch(probe),
+                        "size " + size + ", probe " + probe);
+            }
+            // 블록 첫 항목과 그 바로 앞뒤 값
+            for (int block = 0; block * BLOCK_SIZE < size; block++) {
+                String first = dictionary[block * BLOCK_SIZE];
+                assertEquals(block * BLOCK_SIZE, list.dictionarySearch(first));
+                assertEquals(-(block * BLOCK_SIZE) - 1, list.dictionarySearch(first.substring(0, first.length() - 1)));
+                assertEquals(Arrays.binarySearch(dictionary, first + "-rc"), list.dictionarySearch(first + "-rc"));
+            }
+            assertEquals(-1, list.dictionarySearch(""));
+            assertEquals(-size - 1, list.dictionarySearch("~"));
+        }
+    }
+
+    @Test
+    void dictionarySearchUsesDictionaryOrderForOrderedLists() {
+        CompactStringList list = CompactStringList.copyOf(List.of("c", "a", "b", "a"));
+
+        assertEquals(0, list.dictionarySearch("a"));
+        assertEquals(2, list.dictionarySearch("c"));
+        assertEquals(-4, list.dictionarySearch("d"));
+        assertTrue(list.contains("b"));
+        assertFalse(list.contains(1));
+        assertEquals(-1, CompactStringList.sortedSetOf(List.of()).dictionarySearch("a"));
+    }
+
+    private static String tag(int number) {
+        return String.format("v1.%03d.0", number);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ghcrdemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link SemanticVersion} 파싱과 semver 우선순위 비교.
+ */
+class SemanticVersionTest {
+
+    @Test
+    void parsesFullVersionsOnly() {
+        SemanticVersion version = SemanticVersion.parse("v2.1.0-rc.1+build.7");
+        assertNotNull(version);
+        assertEquals(2, version.major());
+        assertEquals(1, version.minor());
+        assertEquals(0, version.patch());
+        assertEquals(List.of("rc", "1"), List.of(version.preRelease()));
+        assertFalse(version.isRelease());
+
+        assertNull(SemanticVersion.parse("1"));
+        assertNull(SemanticVersion.parse("1.2"));
+        assertNull(SemanticVersion.parse("latest"));
+        assertNull(SemanticVersion.parse("01.2.3"));
+        assertNull(SemanticVersion.parse("1.2.3-"));
+        assertNull(SemanticVersion.parse("1.2.3-rc..1"));
+    }
+
+    @Test
+    void ordersPreReleasesBySpecPrecedence() {
+        // semver 2.0.0 명세 11절의 예
+        List<String> expected = List.of("1.0.0-alpha", "1.0.0-alpha.1", "1.0.0-alpha.beta", "1.0.0-beta",
+                "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1", "1.0.0");
+        for (int i = 0; i + 1 < expected.size(); i++) {
+            assertTrue(precedence(expected.get(i), expected.get(i + 1)) < 0, expected.get(i) + " < " + expected.get(i + 1));
+            assertTrue(precedence(expected.get(i + 1), expected.get(i)) > 0, expected.get(i + 1) + " > " + expected.get(i));
+        }
+
+        List<SemanticVersion> shuffled = new ArrayList<>(expected.stream().map(SemanticVersion::parse).toList());
+        Collections.reverse(shuffled);
+        Collections.sort(shuffled);
+        assertEquals(expected, shuffled.stream().map(SemanticVersion::tag).toList());
+    }
+
+    @Test
+    void comparesNumericFieldsNumerically() {
+        assertTrue(precedence("1.2.10", "1.2.9") > 0);
+        assertTrue(precedence("1.10.0", "1.9.9") > 0);
+        assertTrue(precedence("10.0.0", "9.99.99") > 0);
+        assertTrue(precedence("1.0.0-rc.10", "1.0.0-rc.9") > 0);
+        assertTrue(precedence("999999999999999999.0.0", "999999999999999998.0.0") > 0);
+        // 숫자 식별자는 문자 식별자보다 낮다
+        assertTrue(precedence("1.0.0-1", "1.0.0-a") < 0);
+        assertTrue(precedence("1.0.0-0", "1.0.0-alpha") < 0);
+    }
+
+    @Test
+    void ignoresBuildMetadataAndPrefixForPrecedence() {
+        assertEquals(0, precedence("1.2.3+build.1", "1.2.3+build.2"));
+        assertEquals(0, precedence("v1.2.3", "1.2.3"));
+        assertEquals(0, precedence("1.0.0-rc.01", "1.0.0-rc.1"));
+
+        // 우선순위가 같으면 태그 문자열로 정렬해 서로 다른 태그가 같은 값이 되지 않게 한다
+        SemanticVersion plain = SemanticVersion.parse("1.2.3");
+        SemanticVersion prefixed = SemanticVersion.parse("v1.2.3");
+        assertTrue(plain.compareTo(prefixed) < 0);
+        assertFalse(plain.equals(prefixed));
+    }
+
+    @Test
+    void preReleaseSortsBelowItsRelease() {
+        assertTrue(precedence("1.2.3-rc.1", "1.2.3") < 0);
+        assertTrue(precedence("1.2.3", "1.2.3-rc.1") > 0);
+        assertTrue(precedence("1.2.3-rc.1", "1.2.2") > 0);
+        assertTrue(precedence("1.2.3-0", "1.2.3-rc.1") < 0);
+        assertTrue(precedence("1.2.3-rc", "1.2.3-rc.1") < 0);
+    }
+
+    private static int precedence(String left, String right) {
+        return SemanticVersion.parse(left).comparePrecedence(SemanticVersion.parse(right));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.ghcrdemo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TagHistory}의 변경 기록(apply)과 watermark 이후 변경 조회(since).
+ */
+class TagHistoryTest {
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongSupplier nextSequence = sequence::incrementAndGet;
+
+    @Test
+    void firstApplyIsTheBaseline() {
+        TagHistory history = new TagHistory(10);
+        assertFalse(history.isLoaded());
+
+        assertEquals(0, history.apply(List.of("v2", "v1", "v1"), nextSequence));
+        assertTrue(history.isLoaded());
+
+        TagHistory.Delta full = history.since(0);
+        assertTrue(full.reset());
+        assertEquals(1, full.version());
+        assertEquals(List.of("v1", "v2"), full.added());
+        assertEquals(List.of(), full.removed());
+        assertNotNull(full.syncedAt());
+
+        TagHistory.Delta none = history.since(1);
+        assertFalse(none.reset());
+        assertEquals(List.of(), none.added());
+        assertEquals(List.of(), none.removed());
+    }
+
+    @Test
+    void recordsRemovalsThenAdditionsWithOneSequenceEach() {
+        TagHistory history = new TagHistory(10);
+        history.apply(List.of("a", "b", "c"), nextSequence);
+
+        assertEquals(3, history.apply(List.of("b", "d", "c", "e"), nextSequence));
+        // a 삭제(2), d 추가(3), e 추가(4)
+        TagHistory.Delta delta = history.since(1);
+        assertFalse(delta.reset());
+        assertEquals(4, delta.version());
+        assertEquals(List.of("d", "e"), delta.added());
+        assertEquals(List.of("a"), delta.removed());
+
+        assertEquals(List.of("d", "e"), history.since(2).added());
+        assertEquals(List.of(), history.since(2).removed());
+        assertEquals(List.of("e"), history.since(3).added());
+
+        assertEquals(0, history.apply(List.of("e", "d", "c", "b"), nextSequence));
+        assertEquals(4, history.since(4).version());
+    }
+
+    @Test
+    void tagsChangedBackAndForthCompareWatermarkStateWithCurrentState() {
+        TagHistory history = new TagHistory(10);
+        history.apply(List.of("stable"), nextSequence);
+        long watermark = sequence.get();
+
+        history.apply(List.of("stable", "flaky"), nextSequence);
+        history.apply(List.of(), nextSequence);
+        history.apply(List.of("stable"), nextSequence);
+
+        TagHistory.Delta delta = history.since(watermark);
+        assertFalse(delta.reset());
+        assertEquals(List.of(), delta.added());
+        assertEquals(List.of(), delta.removed());
+
+        // flaky가 있던 시점부터는 삭제로 보인다
+        TagHistory.Delta fromFlaky = history.since(watermark + 1);
+        assertEquals(List.of(), fromFlaky.added());
+        assertEquals(List.of("flaky"), fromFlaky.removed());
+    }
+
+    @Test
+    void watermarkAtTheFloorIsStillServedFromHistory() {
+        TagHistory history = new TagHistory(3);
+        history.apply(List.of(), nextSequence);
+        assertFalse(history.since(1).reset());
+
+        // a(2), b(3), c(4), d(5): 4개 중 가장 오래된 a(2)가 밀려나 floor = 2
+        history.apply(List.of("a", "b", "c", "d"), nextSequence);
+
+        TagHistory.Delta beforeFloor = history.since(1);
+        assertTrue(beforeFloor.reset());
+        assertEquals(List.of("a", "b", "c", "d"), beforeFloor.added());
+        assertEquals(List.of(), beforeFloor.removed());
+
+        TagHistory.Delta atFloor = history.since(2);
+        assertFalse(atFloor.reset());
+        assertEquals(List.of("b", "c", "d"), atFloor.added());
+
+        assertEquals(List.of("d"), history.since(4).added());
+        assertFalse(history.since(5).reset());
+    }
+
+    @Test
+    void floorFollowsTheLastDroppedChangeWhenOneApplyOverflowsTheHistory() {
+        TagHistory history = new TagHistory(2);
+        history.apply(List.of(), nextSequence);
+
+        // a(2) … e(6) 중 d(5), e(6)만 남아 floor = 4
+        history.apply(List.of("a", "b", "c", "d", "e"), nextSequence);
+
+        assertTrue(history.since(3).reset());
+        TagHistory.Delta atFloor = history.since(4);
+        assertFalse(atFloor.reset());
+        assertEquals(List.of("d", "e"), atFloor.added());
+    }
+
+    @Test
+    void watermarkAheadOfTheVersionResets() {
+        TagHistory history = new TagHistory(10);
+        history.apply(List.of("v1"), nextSequence);
+        history.apply(List.of("v1", "v2"), nextSequence);
+
+        assertFalse(history.since(2).reset());
+        TagHistory.Delta ahead = history.since(3);
+        assertTrue(ahead.reset());
+        assertEquals(2, ahead.version());
+        assertEquals(List.of("v1", "v2"), ahead.added());
+    }
+
+    @Test
+    void sequenceGapsFromOtherRepositoriesAreHandled() {
+        // 시퀀스 발급기는 레포지토리 간에 공유되므로 한 레포지토리의 시퀀스는 띄엄띄엄하다
+        TagHistory history = new TagHistory(10);
+        LongSupplier sparse = () -> sequence.addAndGet(10);
+        history.apply(List.of("a"), sparse);
+        history.apply(List.of("a", "b"), sparse);
+        history.apply(List.of("a", "b", "c"), sparse);
+
+        assertEquals(30, history.since(15).version());
+        assertEquals(List.of("b", "c"), history.since(10).added());
+        assertEquals(List.of("b", "c"), history.since(15).added());
+        assertEquals(List.of("c"), history.since(25).added());
+        assertTrue(history.since(5).reset());
+        assertTrue(history.since(31).reset());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.ghcrdemo.service;
+
+import com.example.ghcrdemo.dto.TagQueryParams;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link TagQuery}의 semver 범위({@link TagQuery.VersionRange}) 해석과 조회 조건 검증.
+ */
+class TagQueryTest {
+
+    @Test
+    void caretOnZeroMajorLocksTheFirstNonZeroPart() {
+        assertRange("^1.2.3", "1.2.3", "1.9.0", "1.99.99");
+        assertNotInRange("^1.2.3", "1.2.2", "2.0.0", "2.0.0-rc.1");
+
+        assertRange("^0.2.3", "0.2.3", "0.2.99");
+        assertNotInRange("^0.2.3", "0.3.0", "0.3.0-0");
+
+        assertRange("^0.0.3", "0.0.3");
+        assertNotInRange("^0.0.3", "0.0.4", "0.0.4-0", "0.0.2");
+
+        // ^0.0.x = ^0.0 = >=0.0.0 <0.1.0-0
+        assertRange("^0.0.x", "0.0.0", "0.0.1", "0.0.99");
+        assertNotInRange("^0.0.x", "0.1.0", "0.1.0-rc.1");
+        assertEquals(range("^0.0"), range("^0.0.x"));
+
+        // ^0.x = >=0.0.0 <1.0.0-0
+        assertRange("^0.x", "0.0.0", "0.9.9");
+        assertNotInRange("^0.x", "1.0.0");
+    }
+
+    @Test
+    void tildeAllowsPatchChanges() {
+        assertRange("~1.2.3", "1.2.3", "1.2.9");
+        assertNotInRange("~1.2.3", "1.3.0", "1.2.2");
+        assertRange("~1", "1.0.0", "1.9.9");
+        assertNotInRange("~1", "2.0.0");
+    }
+
+    @Test
+    void lessThanPartialVersionExcludesItsPreReleases() {
+        assertRange("<1.2", "1.1.99", "0.0.1", "1.1.0-rc.1");
+        assertNotInRange("<1.2", "1.2.0", "1.2.0-rc.1", "1.2.0-0");
+
+        assertRange("<=1.2", "1.2.0", "1.2.99");
+        assertNotInRange("<=1.2", "1.3.0", "1.3.0-0");
+
+        assertRange("<1.2.3", "1.2.2", "1.2.3-rc.1");
+        assertNotInRange("<1.2.3", "1.2.3");
+    }
+
+    @Test
+    void greaterThanPreReleaseIncludesLaterPreReleasesAndRelease() {
+        assertRange(">=1.2.3-rc.1", "1.2.3-rc.1", "1.2.3-rc.2", "1.2.3-rc.10", "1.2.3", "2.0.0");
+        assertNotInRange(">=1.2.3-rc.1", "1.2.3-rc.0", "1.2.3-beta", "1.2.3-rc", "1.2.2");
+
+        assertRange(">1.2.3-rc.1", "1.2.3-rc.1.1", "1.2.3");
+        assertNotInRange(">1.2.3-rc.1", "1.2.3-rc.1");
+
+        assertRange(">1.2", "1.3.0");
+        assertNotInRange(">1.2", "1.2.99", "1.2.0");
+    }
+
+    @Test
+    void xRangesMatchEveryVersionBelowTheNextOne() {
+        assertRange("2.x", "2.0.0", "2.99.99");
+        assertNotInRange("2.x", "1.99.99", "3.0.0", "3.0.0-rc.1");
+        assertEquals(range("2.x"), range("2.*"));
+        assertEquals(range("2.x"), range("2"));
+        assertEquals(range("2.x"), range("=2.X"));
+
+        assertRange("1.2.x", "1.2.0", "1.2.99");
+        assertNotInRange("1.2.x", "1.3.0", "1.1.99");
+
+        assertRange("*", "0.0.0", "99.0.0");
+        assertRange("x", "1.2.3");
+    }
+
+    @Test
+    void intersectsSpaceSeparatedComparators() {
+        assertRange(">=1.2.0 <2", "1.2.0", "1.99.0");
+        assertNotInRange(">=1.2.0 <2", "1.1.9", "2.0.0", "2.0.0-rc.1");
+        // 연산자 뒤 공백 허용
+        assertEquals(range(">=1.2.0 <2"), range(">= 1.2.0 < 2"));
+        // 더 좁은 쪽이 남는다
+        assertEquals(range(">1.2.3"), range(">=1.2.3 >1.2.3"));
+        assertEquals(range("<1.5.0"), range("<2 <1.5.0 <=1.9"));
+        assertRange("v1.2.3", "1.2.3");
+    }
+
+    @Test
+    void rejectsUnsupportedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> range("1.x || 2.x"));
+        assertThrows(IllegalArgumentException.class, () -> range(">=latest"));
+        assertThrows(IllegalArgumentException.class, () -> range("<x"));
+        assertThrows(IllegalArgumentException.class, () -> range("!1.2.3"));
+        assertThrows(IllegalArgumentException.class, () -> range("1.2.3-"));
+    }
+
+    @Test
+    void semverQueryExcludesPreReleasesUnlessRequested() {
+        TagQueryParams params = new TagQueryParams();
+        params.setSemver("^1.0.0");
+        TagQuery query = TagQuery.of(params);
+        assertEquals(TagQuery.Sort.SEMVER, query.sort());
+        assertTrue(query.matches("1.2.0", SemanticVersion.parse("1.2.0")));
+        assertFalse(query.matches("1.2.0-rc.1", SemanticVersion.parse("1.2.0-rc.1")));
+        assertFalse(query.matches("latest", null));
+
+        params.setPrerelease(true);
+        assertTrue(TagQuery.of(params).matches("1.2.0-rc.1", SemanticVersion.parse("1.2.0-rc.1")));
+
+        assertNull(TagQuery.of(new TagQueryParams()));
+    }
+
+    @Test
+    void globMatchesWholeTagWithWildcards() {
+        assertTrue(TagQuery.globMatches("v1.2.*", "v1.2.3"));
+        assertTrue(TagQuery.globMatches("v1.2.*", "v1.2."));
+        assertFalse(TagQuery.globMatches("v1.2.*", "v1.3.0"));
+        assertTrue(TagQuery.globMatches("*-rc.?", "1.0.0-rc.1"));
+        assertFalse(TagQuery.globMatches("*-rc.?", "1.0.0-rc.10"));
+        assertTrue(TagQuery.globMatches("*", ""));
+        assertTrue(TagQuery.globMatches("**a**", "bab"));
+        assertFalse(TagQuery.globMatches("?", ""));
+        assertTrue(TagQuery.globMatches("sha-*", "sha-"));
+        assertTrue(TagQuery.globMatches("a*b*c", "aXbYbZc"));
+        assertFalse(TagQuery.globMatches("a*b*c", "aXbYbZ"));
+        // 정규식 메타 문자는 그대로 비교
+        assertTrue(TagQuery.globMatches("v1.(2)+", "v1.(2)+"));
+        assertFalse(TagQuery.globMatches("v1.(2)+", "v1.22"));
+    }
+
+    @Test
+    void pathologicalGlobFinishesQuickly() {
+        String tag = "a".repeat(120);
+        String glob = "*a*a*a*a*a*a*a*a*a*a*a*a*b";
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(TagQuery.globMatches(glob, tag)));
+
+        TagQueryParams params = new TagQueryParams();
+        params.setGlob(glob);
+        TagQuery query = TagQuery.of(params);
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(query.matches(tag, null)));
+    }
+
+    @Test
+    void catastrophicRegexIsStoppedAtTheDeadline() {
+        TagQueryParams params = new TagQueryParams();
+        params.setRegex("(.*a){12}b");
+        TagQuery query = TagQuery.of(params);
+        assertTrue(query.hasRegex());
+        assertTrue(query.matches("a".repeat(12) + "b", null));
+
+        String tag = "a".repeat(40);
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> assertThrows(TagQueryTimeoutException.class, () -> query.matches(tag, null)));
+    }
+
+    private static TagQuery.VersionRange range(String expression) {
+        return TagQuery.VersionRange.parse(expression);
+    }
+
+    private static void assertRange(String expression, String... versions) {
+        TagQuery.VersionRange range = range(expression);
+        for (String version : versions) {
+            assertTrue(range.contains(SemanticVersion.parse(version)), expression + " should contain " + version);
+        }
+    }
+
+    private static void assertNotInRange(String expression, String... versions) {
+        TagQuery.VersionRange range = range(expression);
+        for (String version : versions) {
+            assertFalse(range.contains(SemanticVersion.parse(version)), expression + " should not contain " + version);
+        }
+    }
+}